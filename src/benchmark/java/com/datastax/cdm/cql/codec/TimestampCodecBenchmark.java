@@ -0,0 +1,115 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.codec;
+
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.properties.PropertyHelper;
+import org.apache.spark.SparkConf;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the timestamp string codecs with the previous DateTimeFormatter path, for rows with many timestamp
+ * columns stored as text.
+ * <p>
+ * previousParse and previousFormat convert as the codecs did before: through the DateTimeFormatter with the zone
+ * offset fixed when the codec was created. parse and format go through TEXTFormat_InstantCodec, which
+ * TIMESTAMP_StringFormatCodec shares its conversion with. Each invocation converts ROWS rows of the given
+ * number of columns, with values spread over a year so that they cross daylight saving changes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimestampCodecBenchmark {
+    static final int ROWS = 100;
+
+    @Param({"yyyyMMddHHmmss", "yyyy-MM-dd'T'HH:mm:ss.SSS", "dd MMM yyyy HH:mm"})
+    String format;
+
+    @Param({"UTC", "Europe/Dublin"})
+    String zone;
+
+    @Param({"1", "50"})
+    int columns;
+
+    TEXTFormat_InstantCodec codec;
+    DateTimeFormatter formatter;
+    ZoneOffset zoneOffset;
+    Instant[] instants;
+    String[] strings;
+
+    @Setup
+    public void setup() {
+        SparkConf sc = new SparkConf();
+        sc.set(KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT, format);
+        sc.set(KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE, zone);
+        codec = new TEXTFormat_InstantCodec(PropertyHelper.getInstance(sc));
+
+        formatter = DateTimeFormatter.ofPattern(format);
+        zoneOffset = ZoneId.of(zone).getRules().getOffset(Instant.now());
+
+        instants = new Instant[ROWS * columns];
+        strings = new String[ROWS * columns];
+        long step = 365L * 24 * 60 * 60 / instants.length;
+        for (int i = 0; i < instants.length; i++) {
+            instants[i] = Instant.ofEpochSecond(1_672_531_200L + i * step);
+            strings[i] = codec.format(instants[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        PropertyHelper.destroyInstance();
+    }
+
+    @Benchmark
+    public void previousParse(Blackhole blackhole) {
+        for (String value : strings) {
+            blackhole.consume(LocalDateTime.parse(value, formatter).toInstant(zoneOffset));
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String value : strings) {
+            blackhole.consume(codec.parse(value));
+        }
+    }
+
+    @Benchmark
+    public void previousFormat(Blackhole blackhole) {
+        for (Instant value : instants) {
+            blackhole.consume(formatter.format(LocalDateTime.ofInstant(value, zoneOffset)));
+        }
+    }
+
+    @Benchmark
+    public void format(Blackhole blackhole) {
+        for (Instant value : instants) {
+            blackhole.consume(codec.format(value));
+        }
+    }
+}
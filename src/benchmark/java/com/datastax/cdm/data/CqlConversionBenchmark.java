@@ -0,0 +1,138 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.cdm.cql.codec.CodecFactory;
+import com.datastax.cdm.cql.codec.Codecset;
+import com.datastax.cdm.properties.PropertyHelper;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.internal.core.type.codec.registry.DefaultCodecRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the conversion of a column value through CqlConversion with the previous per-value path.
+ * <p>
+ * For a pair converted by a codec, perValueLookup is the previous path: convert_CODEC looks up the bind classes
+ * and both codecs for every value. cachedConverter converts through a CqlConversion, which resolves them once.
+ * The pairs converted directly had no codec to look up before, so directConverter is measured on its own.
+ * Each invocation converts a batch of VALUES values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CqlConversionBenchmark {
+    static final int VALUES = 1024;
+
+    @State(Scope.Benchmark)
+    public static class CodecPair {
+        @Param({"int:text", "bigint:text", "timestamp:text", "text:int"})
+        String pair;
+
+        DataType fromDataType;
+        DataType toDataType;
+        DefaultCodecRegistry codecRegistry;
+        CqlConversion conversion;
+        Object[] values;
+
+        @Setup
+        public void setup() {
+            codecRegistry = new DefaultCodecRegistry("benchmark");
+            PropertyHelper propertyHelper = PropertyHelper.getInstance();
+            for (Codecset codecset : new Codecset[]{Codecset.INT_STRING, Codecset.BIGINT_STRING, Codecset.TIMESTAMP_STRING_MILLIS}) {
+                for (TypeCodec<?> codec : CodecFactory.getCodecPair(propertyHelper, codecset)) {
+                    codecRegistry.register(codec);
+                }
+            }
+            fromDataType = dataType(pair.split(":")[0]);
+            toDataType = dataType(pair.split(":")[1]);
+            conversion = new CqlConversion(fromDataType, toDataType, codecRegistry);
+            values = values(fromDataType);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DirectPair {
+        @Param({"int:bigint", "timestamp:bigint", "bigint:timestamp", "int:double"})
+        String pair;
+
+        CqlConversion conversion;
+        Object[] values;
+
+        @Setup
+        public void setup() {
+            DataType fromDataType = dataType(pair.split(":")[0]);
+            conversion = new CqlConversion(fromDataType, dataType(pair.split(":")[1]), new DefaultCodecRegistry("benchmark"));
+            values = values(fromDataType);
+        }
+    }
+
+    @Benchmark
+    public void perValueLookup(CodecPair state, Blackhole blackhole) {
+        for (Object value : state.values) {
+            blackhole.consume(CqlConversion.convert_CODEC(value, state.fromDataType, state.toDataType, state.codecRegistry));
+        }
+    }
+
+    @Benchmark
+    public void cachedConverter(CodecPair state, Blackhole blackhole) {
+        for (Object value : state.values) {
+            blackhole.consume(state.conversion.convert(value));
+        }
+    }
+
+    @Benchmark
+    public void directConverter(DirectPair state, Blackhole blackhole) {
+        for (Object value : state.values) {
+            blackhole.consume(state.conversion.convert(value));
+        }
+    }
+
+    static DataType dataType(String name) {
+        switch (name) {
+            case "int": return DataTypes.INT;
+            case "bigint": return DataTypes.BIGINT;
+            case "double": return DataTypes.DOUBLE;
+            case "timestamp": return DataTypes.TIMESTAMP;
+            case "text": return DataTypes.TEXT;
+            default: throw new IllegalArgumentException("Unknown data type: " + name);
+        }
+    }
+
+    static Object[] values(DataType dataType) {
+        Object[] values = new Object[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            if (DataTypes.INT.equals(dataType))
+                values[i] = i * 7919;
+            else if (DataTypes.BIGINT.equals(dataType))
+                values[i] = 1_700_000_000_000L + i * 7919L;
+            else if (DataTypes.TIMESTAMP.equals(dataType))
+                values[i] = Instant.ofEpochMilli(1_700_000_000_000L + i * 7919L);
+            else if (DataTypes.TEXT.equals(dataType))
+                values[i] = String.valueOf(i * 7919);
+            else
+                throw new IllegalArgumentException("No values for data type: " + dataType);
+        }
+        return values;
+    }
+}
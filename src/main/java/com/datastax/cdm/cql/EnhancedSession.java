@@ -68,16 +68,50 @@ public class EnhancedSession {
         return new OriginSelectByPartitionRangeStatement(propertyHelper, this);
     }
 
+    public OriginSelectByPartitionRangeStatement getOriginSelectByPartitionRangeStatement(int perPartitionLimit) {
+        if (!isOrigin) throw new RuntimeException("This is not an origin session");
+        return new OriginSelectByPartitionRangeStatement(propertyHelper, this, perPartitionLimit);
+    }
+
     public OriginSelectByPKStatement getOriginSelectByPKStatement() {
         if (!isOrigin) throw new RuntimeException("This is not an origin session");
         return new OriginSelectByPKStatement(propertyHelper, this);
     }
 
+    public OriginSelectByPartitionKeyStatement getOriginSelectByPartitionKeyStatement() {
+        if (!isOrigin) throw new RuntimeException("This is not an origin session");
+        return new OriginSelectByPartitionKeyStatement(propertyHelper, this);
+    }
+
+    public CountByPartitionRangeStatement getCountByPartitionRangeStatement() {
+        return new CountByPartitionRangeStatement(propertyHelper, this);
+    }
+
     public TargetSelectByPKStatement getTargetSelectByPKStatement() {
         if (isOrigin) throw new RuntimeException("This is not a target session");
         return new TargetSelectByPKStatement(propertyHelper, this);
     }
 
+    public TargetSelectByPartitionRangeStatement getTargetSelectByPartitionRangeStatement() {
+        if (isOrigin) throw new RuntimeException("This is not a target session");
+        return new TargetSelectByPartitionRangeStatement(propertyHelper, this, cqlTable.getColumnNames(false));
+    }
+
+    public TargetSelectByPartitionRangeStatement getTargetSelectPKByPartitionRangeStatement() {
+        if (isOrigin) throw new RuntimeException("This is not a target session");
+        return new TargetSelectByPartitionRangeStatement(propertyHelper, this, cqlTable.getPKNames(false));
+    }
+
+    public TargetSelectMetadataByPKStatement getTargetSelectMetadataByPKStatement() {
+        if (isOrigin) throw new RuntimeException("This is not a target session");
+        return new TargetSelectMetadataByPKStatement(propertyHelper, this);
+    }
+
+    public TargetDeleteStatement getTargetDeleteStatement() {
+        if (isOrigin) throw new RuntimeException("This is not a target session");
+        return new TargetDeleteStatement(propertyHelper, this);
+    }
+
     public TargetUpsertStatement getTargetUpsertStatement() {
         if (isOrigin) throw new RuntimeException("This is not a target session");
         if (cqlTable.isCounterTable())
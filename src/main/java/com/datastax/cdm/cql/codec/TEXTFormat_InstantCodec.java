@@ -20,7 +20,6 @@ import com.datastax.oss.driver.api.core.type.DataType;
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
-import com.datastax.cdm.properties.KnownProperties;
 import com.datastax.cdm.properties.PropertyHelper;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -28,32 +27,15 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.time.zone.ZoneRulesProvider;
 
 public class TEXTFormat_InstantCodec extends AbstractBaseCodec<Instant> {
     public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
-    private final DateTimeFormatter formatter;
-    private final ZoneOffset zoneOffset;
+    private final TimestampStringFormat timestampFormat;
 
     public TEXTFormat_InstantCodec(PropertyHelper propertyHelper) {
         super(propertyHelper);
-
-        String formatString = propertyHelper.getString(KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT);
-        if (formatString == null || formatString.isEmpty()) {
-            throw new IllegalArgumentException("Property " + KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT + " is required and cannot be empty.");
-        }
-        this.formatter = DateTimeFormatter.ofPattern(formatString);
-
-        String zone = propertyHelper.getString(KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE);
-        if (zone == null || !ZoneRulesProvider.getAvailableZoneIds().contains(zone)) {
-            throw new IllegalArgumentException("Property " + KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE + " is required and must be a valid ZoneOffset.");
-        }
-        this.zoneOffset = ZoneId.of(zone).getRules().getOffset(Instant.now());
+        this.timestampFormat = new TimestampStringFormat(propertyHelper);
     }
 
     @Override
@@ -71,7 +53,7 @@ public class TEXTFormat_InstantCodec extends AbstractBaseCodec<Instant> {
         if (value == null) {
             return null;
         } else {
-            String stringValue = formatter.format(LocalDateTime.ofInstant(value, zoneOffset));
+            String stringValue = timestampFormat.format(value);
             return TypeCodecs.TEXT.encode(stringValue, protocolVersion);
         }
     }
@@ -79,19 +61,17 @@ public class TEXTFormat_InstantCodec extends AbstractBaseCodec<Instant> {
     @Override
     public Instant decode(ByteBuffer bytes, @NotNull ProtocolVersion protocolVersion) {
         String stringValue = TypeCodecs.TEXT.decode(bytes, protocolVersion);
-        return LocalDateTime.parse(stringValue, formatter).toInstant(zoneOffset);
+        return timestampFormat.parse(stringValue);
     }
 
     @Override
     public @NotNull String format(Instant value) {
-        LocalDateTime localDateTime = LocalDateTime.ofInstant(value, zoneOffset);
-        return formatter.format(localDateTime);
+        return timestampFormat.format(value);
     }
 
     @Override
     public Instant parse(String value) {
-        LocalDateTime localDateTime = LocalDateTime.parse(value, formatter);
-        return localDateTime.toInstant(zoneOffset);
+        return timestampFormat.parse(value);
     }
 
 }
@@ -15,7 +15,6 @@
  */
 package com.datastax.cdm.cql.codec;
 
-import com.datastax.cdm.properties.KnownProperties;
 import com.datastax.cdm.properties.PropertyHelper;
 import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.DataType;
@@ -28,37 +27,20 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.time.zone.ZoneRulesProvider;
 
 /**
  * This codec converts a TIMESTAMP to a Java String with format specified at
  * KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT using the zone specified at
- * KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE.
+ * KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE, using the zone offset in force at each value.
  */
 public class TIMESTAMP_StringFormatCodec extends AbstractBaseCodec<String> {
     public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
-    private final DateTimeFormatter formatter;
-    private final ZoneOffset zoneOffset;
+    private final TimestampStringFormat timestampFormat;
 
     public TIMESTAMP_StringFormatCodec(PropertyHelper propertyHelper) {
         super(propertyHelper);
-
-        String formatString = propertyHelper.getString(KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT);
-        if (formatString == null || formatString.isEmpty()) {
-            throw new IllegalArgumentException("Property " + KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT + " is required and cannot be empty.");
-        }
-        this.formatter = DateTimeFormatter.ofPattern(formatString);
-
-        String zone = propertyHelper.getString(KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE);
-        if (zone == null || !ZoneRulesProvider.getAvailableZoneIds().contains(zone)) {
-            throw new IllegalArgumentException("Property " + KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE + " is required and must be a valid ZoneOffset.");
-        }
-        this.zoneOffset = ZoneId.of(zone).getRules().getOffset(Instant.now());
+        this.timestampFormat = new TimestampStringFormat(propertyHelper);
     }
 
     @Override
@@ -76,21 +58,20 @@ public class TIMESTAMP_StringFormatCodec extends AbstractBaseCodec<String> {
         if (value == null) {
             return null;
         }
-        Instant instantValue = LocalDateTime.parse(value, formatter).toInstant(zoneOffset);
+        Instant instantValue = timestampFormat.parse(value);
         return TypeCodecs.TIMESTAMP.encode(instantValue, protocolVersion);
     }
 
     @Override
     public String decode(ByteBuffer bytes, @NotNull ProtocolVersion protocolVersion) {
         Instant instantValue = TypeCodecs.TIMESTAMP.decode(bytes, protocolVersion);
-        LocalDateTime localDateTime = LocalDateTime.ofInstant(instantValue, zoneOffset);
-        return formatter.format(localDateTime);
+        return timestampFormat.format(instantValue);
     }
 
     @Override
     // We get in a string of our format, we need to convert to a proper CQL-formatted string
     public @NotNull String format(String value) {
-        Instant instantValue = LocalDateTime.parse(value, formatter).toInstant(zoneOffset);
+        Instant instantValue = timestampFormat.parse(value);
         return TypeCodecs.TIMESTAMP.format(instantValue);
     }
 
@@ -98,7 +79,7 @@ public class TIMESTAMP_StringFormatCodec extends AbstractBaseCodec<String> {
     // We get in a proper CQL-formatted string, we need to convert to our format
     public String parse(String value) {
         Instant instantValue = TypeCodecs.TIMESTAMP.parse(value);
-        return formatter.format(instantValue.atOffset(zoneOffset));
+        return timestampFormat.format(instantValue);
     }
 }
 
@@ -0,0 +1,277 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.codec;
+
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.properties.PropertyHelper;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.time.zone.ZoneRulesProvider;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts between an Instant and a String of the format at KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT
+ * in the zone at KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE, for the timestamp string codecs.
+ * <p>
+ * Each value uses the zone offset in force at that time, so values either side of a daylight saving change are
+ * not shifted. The offset and the span of time it applies to are kept from the previous value, so the zone rules
+ * are only searched again when a value falls outside that span. Fixed-width numeric patterns such as
+ * yyyyMMddHHmmss or yyyy-MM-dd HH:mm:ss.SSS are parsed and formatted directly; any other pattern, and any value
+ * the direct path cannot handle, goes through the DateTimeFormatter.
+ */
+final class TimestampStringFormat {
+    // Local times this close to a zone transition may fall in a gap or overlap, so their offset is looked up
+    private static final long TRANSITION_MARGIN_SECONDS = 2 * 24 * 60 * 60;
+    private static final int[] NANOS_PER_DIGIT = {1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1};
+
+    private enum Field { YEAR, YEAR_OF_CENTURY, MONTH, DAY, HOUR, MINUTE, SECOND, FRACTION, LITERAL }
+
+    private final DateTimeFormatter formatter;
+    private final ZoneRules zoneRules;
+    private final ZoneOffset fixedOffset;
+    private volatile OffsetSpan offsetSpan;
+
+    // The fixed-width layout of the pattern, or null when the pattern is not a fixed-width numeric one
+    private final Field[] fields;
+    private final int[] widths;
+    private final char[] literals;
+    private final int length;
+
+    private static final class OffsetSpan {
+        private final long fromEpochSecond;
+        private final long toEpochSecond;
+        private final ZoneOffset offset;
+
+        private OffsetSpan(long fromEpochSecond, long toEpochSecond, ZoneOffset offset) {
+            this.fromEpochSecond = fromEpochSecond;
+            this.toEpochSecond = toEpochSecond;
+            this.offset = offset;
+        }
+    }
+
+    TimestampStringFormat(PropertyHelper propertyHelper) {
+        String formatString = propertyHelper.getString(KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT);
+        if (formatString == null || formatString.isEmpty()) {
+            throw new IllegalArgumentException("Property " + KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT + " is required and cannot be empty.");
+        }
+        this.formatter = DateTimeFormatter.ofPattern(formatString);
+
+        String zone = propertyHelper.getString(KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE);
+        if (zone == null || !ZoneRulesProvider.getAvailableZoneIds().contains(zone)) {
+            throw new IllegalArgumentException("Property " + KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE + " is required and must be a valid ZoneOffset.");
+        }
+        this.zoneRules = ZoneId.of(zone).getRules();
+        this.fixedOffset = zoneRules.isFixedOffset() ? zoneRules.getOffset(Instant.EPOCH) : null;
+
+        List<Field> fieldList = new ArrayList<>();
+        List<Integer> widthList = new ArrayList<>();
+        StringBuilder literalList = new StringBuilder();
+        if (compile(formatString, fieldList, widthList, literalList)) {
+            this.fields = fieldList.toArray(new Field[0]);
+            this.widths = widthList.stream().mapToInt(Integer::intValue).toArray();
+            this.literals = literalList.toString().toCharArray();
+            this.length = literals.length;
+        } else {
+            this.fields = null;
+            this.widths = null;
+            this.literals = null;
+            this.length = -1;
+        }
+    }
+
+    Instant parse(String value) {
+        LocalDateTime localDateTime = parseLocal(value);
+        return localDateTime.toInstant(offsetOf(localDateTime));
+    }
+
+    String format(Instant value) {
+        LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(value.getEpochSecond(), value.getNano(), offsetAt(value));
+        return formatLocal(localDateTime);
+    }
+
+    ZoneOffset offsetAt(Instant instant) {
+        if (null != fixedOffset)
+            return fixedOffset;
+
+        long epochSecond = instant.getEpochSecond();
+        OffsetSpan span = offsetSpan;
+        if (null != span && epochSecond >= span.fromEpochSecond && epochSecond < span.toEpochSecond)
+            return span.offset;
+
+        ZoneOffset offset = zoneRules.getOffset(instant);
+        ZoneOffsetTransition previous = zoneRules.previousTransition(instant);
+        ZoneOffsetTransition next = zoneRules.nextTransition(instant);
+        long from = (null == previous) ? Long.MIN_VALUE
+                : previous.getOffsetAfter().equals(offset) ? previous.toEpochSecond() : epochSecond;
+        long to = (null == next) ? Long.MAX_VALUE : next.toEpochSecond();
+        offsetSpan = new OffsetSpan(from, to, offset);
+        return offset;
+    }
+
+    ZoneOffset offsetOf(LocalDateTime localDateTime) {
+        if (null != fixedOffset)
+            return fixedOffset;
+
+        OffsetSpan span = offsetSpan;
+        if (null != span) {
+            long epochSecond = localDateTime.toEpochSecond(span.offset);
+            if ((span.fromEpochSecond == Long.MIN_VALUE || epochSecond - span.fromEpochSecond >= TRANSITION_MARGIN_SECONDS)
+                    && (span.toEpochSecond == Long.MAX_VALUE || span.toEpochSecond - epochSecond > TRANSITION_MARGIN_SECONDS))
+                return span.offset;
+        }
+
+        // In a gap this is the offset before the gap, which moves the time forward as ZonedDateTime does;
+        // in an overlap it is the earlier offset
+        ZoneOffset offset = zoneRules.getOffset(localDateTime);
+        offsetAt(localDateTime.toInstant(offset));
+        return offset;
+    }
+
+    private LocalDateTime parseLocal(String value) {
+        if (null == fields || value.length() != length)
+            return LocalDateTime.parse(value, formatter);
+
+        int year = 0, month = 0, day = 0, hour = 0, minute = 0, second = 0, nano = 0;
+        int position = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] == Field.LITERAL) {
+                if (value.charAt(position) != literals[position])
+                    return LocalDateTime.parse(value, formatter);
+                position++;
+                continue;
+            }
+            int number = 0;
+            for (int end = position + widths[i]; position < end; position++) {
+                int digit = value.charAt(position) - '0';
+                if (digit < 0 || digit > 9)
+                    return LocalDateTime.parse(value, formatter);
+                number = number * 10 + digit;
+            }
+            switch (fields[i]) {
+                case YEAR: year = number; break;
+                case YEAR_OF_CENTURY: year = 2000 + number; break;
+                case MONTH: month = number; break;
+                case DAY: day = number; break;
+                case HOUR: hour = number; break;
+                case MINUTE: minute = number; break;
+                case SECOND: second = number; break;
+                case FRACTION: nano = number * NANOS_PER_DIGIT[widths[i]]; break;
+                default: break;
+            }
+        }
+
+        if (year < 1)
+            return LocalDateTime.parse(value, formatter);
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            // out-of-range fields are resolved or rejected by the formatter
+            return LocalDateTime.parse(value, formatter);
+        }
+    }
+
+    private String formatLocal(LocalDateTime localDateTime) {
+        int year = localDateTime.getYear();
+        if (null == fields || year < 1 || year > 9999)
+            return formatter.format(localDateTime);
+
+        char[] chars = new char[length];
+        int position = 0;
+        for (int i = 0; i < fields.length; i++) {
+            int number;
+            switch (fields[i]) {
+                case LITERAL: chars[position] = literals[position]; position++; continue;
+                case YEAR: number = year; break;
+                case YEAR_OF_CENTURY: number = year % 100; break;
+                case MONTH: number = localDateTime.getMonthValue(); break;
+                case DAY: number = localDateTime.getDayOfMonth(); break;
+                case HOUR: number = localDateTime.getHour(); break;
+                case MINUTE: number = localDateTime.getMinute(); break;
+                case SECOND: number = localDateTime.getSecond(); break;
+                default: number = localDateTime.getNano() / NANOS_PER_DIGIT[widths[i]]; break;
+            }
+            for (int end = position + widths[i], digit = end - 1; digit >= position; digit--) {
+                chars[digit] = (char) ('0' + number % 10);
+                number /= 10;
+            }
+            position += widths[i];
+        }
+        return new String(chars);
+    }
+
+    // Lays out a pattern of fixed-width numeric fields and literals, returning false for anything else
+    private static boolean compile(String pattern, List<Field> fields, List<Integer> widths, StringBuilder literals) {
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                int close = pattern.indexOf('\'', i + 1);
+                if (close <= i + 1)
+                    return false; // unterminated, or an escaped quote
+                for (int j = i + 1; j < close; j++) {
+                    addLiteral(pattern.charAt(j), fields, widths, literals);
+                }
+                i = close + 1;
+            } else if (Character.isLetter(c)) {
+                int run = 1;
+                while (i + run < pattern.length() && pattern.charAt(i + run) == c) run++;
+                Field field = toField(c, run);
+                if (null == field || fields.contains(field) || (field == Field.YEAR && fields.contains(Field.YEAR_OF_CENTURY))
+                        || (field == Field.YEAR_OF_CENTURY && fields.contains(Field.YEAR)))
+                    return false;
+                fields.add(field);
+                widths.add(run);
+                for (int j = 0; j < run; j++) literals.append(' ');
+                i += run;
+            } else if ("[]{}#".indexOf(c) >= 0) {
+                return false;
+            } else {
+                addLiteral(c, fields, widths, literals);
+                i++;
+            }
+        }
+        return (fields.contains(Field.YEAR) || fields.contains(Field.YEAR_OF_CENTURY))
+                && fields.contains(Field.MONTH) && fields.contains(Field.DAY)
+                && fields.contains(Field.HOUR) && fields.contains(Field.MINUTE);
+    }
+
+    private static void addLiteral(char c, List<Field> fields, List<Integer> widths, StringBuilder literals) {
+        fields.add(Field.LITERAL);
+        widths.add(1);
+        literals.append(c);
+    }
+
+    private static Field toField(char letter, int run) {
+        switch (letter) {
+            case 'y': return (run == 4) ? Field.YEAR : (run == 2) ? Field.YEAR_OF_CENTURY : null;
+            case 'M': return (run == 2) ? Field.MONTH : null;
+            case 'd': return (run == 2) ? Field.DAY : null;
+            case 'H': return (run == 2) ? Field.HOUR : null;
+            case 'm': return (run == 2) ? Field.MINUTE : null;
+            case 's': return (run == 2) ? Field.SECOND : null;
+            case 'S': return (run <= 9) ? Field.FRACTION : null;
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.statement;
+
+import com.datastax.cdm.cql.EnhancedSession;
+import com.datastax.cdm.feature.Featureset;
+import com.datastax.cdm.feature.OriginFilterCondition;
+import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.properties.PropertyHelper;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Counts the rows of a table over a token range. On Origin the filter condition is applied
+ * so that the count matches the rows a migration would have written.
+ */
+public class CountByPartitionRangeStatement extends BaseCdmStatement {
+
+    public CountByPartitionRangeStatement(IPropertyHelper propertyHelper, EnhancedSession session) {
+        super(propertyHelper, session);
+        this.statement = buildStatement();
+    }
+
+    public CompletionStage<AsyncResultSet> countAsync(BigInteger min, BigInteger max) {
+        return session.getCqlSession().executeAsync(bind(min, max));
+    }
+
+    public BoundStatement bind(BigInteger min, BigInteger max) {
+        if (null==min || null==max)
+            throw new RuntimeException("Expected 2 not-null binds of type BigInteger");
+
+        // random partitioner uses BigInteger, the normal partitioner uses long
+        return prepareStatement().bind(
+                    cqlTable.hasRandomPartitioner() ? min : min.longValueExact(),
+                    cqlTable.hasRandomPartitioner() ? max : max.longValueExact())
+                .setConsistencyLevel(cqlTable.getReadConsistencyLevel());
+    }
+
+    public static long getCount(CompletionStage<AsyncResultSet> countResult) {
+        Row row = countResult.toCompletableFuture().join().one();
+        if (null == row)
+            throw new RuntimeException("COUNT query returned no rows");
+        return row.getLong(0);
+    }
+
+    private String buildStatement() {
+        String partitionKey = PropertyHelper.asString(cqlTable.getPartitionKeyNames(true), KnownProperties.PropertyType.STRING_LIST).trim();
+        StringBuilder sb = new StringBuilder("SELECT COUNT(*) FROM ").append(cqlTable.getKeyspaceTable())
+                .append(" WHERE TOKEN(").append(partitionKey).append(") >= ? AND TOKEN(").append(partitionKey).append(") <= ?");
+        if (cqlTable.isOrigin()) {
+            OriginFilterCondition filter = (OriginFilterCondition) cqlTable.getFeature(Featureset.ORIGIN_FILTER);
+            if (null != filter && filter.isEnabled()) {
+                sb.append(filter.getFilterCondition()).append(" ALLOW FILTERING");
+            }
+        }
+        return sb.toString();
+    }
+}
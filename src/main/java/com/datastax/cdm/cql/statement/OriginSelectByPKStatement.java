@@ -20,12 +20,15 @@ import com.datastax.cdm.data.EnhancedPK;
 import com.datastax.cdm.data.PKFactory;
 import com.datastax.cdm.data.Record;
 import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletionStage;
+
 public class OriginSelectByPKStatement extends OriginSelectStatement {
     public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
@@ -49,6 +52,13 @@ public class OriginSelectByPKStatement extends OriginSelectStatement {
         return new Record(pk, row, null);
     }
 
+    public CompletionStage<AsyncResultSet> getAsyncResult(EnhancedPK pk) {
+        BoundStatement boundStatement = bind(pk);
+        if (null==boundStatement)
+            return null;
+        return session.getCqlSession().executeAsync(boundStatement);
+    }
+
     @Override
     public BoundStatement bind(Object... binds) {
         if (null==binds
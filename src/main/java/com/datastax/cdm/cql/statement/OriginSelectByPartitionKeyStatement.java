@@ -0,0 +1,114 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.statement;
+
+import com.datastax.cdm.cql.EnhancedSession;
+import com.datastax.cdm.data.EnhancedPK;
+import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Selects a group of rows from a single Origin partition: the partition key is bound by equality, and the
+ * clustering columns with an IN of up to groupSize keys. The statement always has groupSize IN slots, so a
+ * single prepared statement serves every group; a smaller group repeats its last key in the remaining slots.
+ */
+public class OriginSelectByPartitionKeyStatement extends OriginSelectStatement {
+
+    private final int partitionKeySize;
+    private final int groupSize;
+
+    public OriginSelectByPartitionKeyStatement(IPropertyHelper propertyHelper, EnhancedSession session) {
+        super(propertyHelper, session);
+        this.partitionKeySize = cqlTable.getPartitionKeyNames(false).size();
+        this.groupSize = getGroupSize();
+    }
+
+    public CompletionStage<AsyncResultSet> getAsyncResult(List<EnhancedPK> pks) {
+        BoundStatement boundStatement = bind(pks);
+        if (null==boundStatement)
+            return null;
+        return session.getCqlSession().executeAsync(boundStatement);
+    }
+
+    @Override
+    public BoundStatement bind(Object... binds) {
+        if (null==binds
+                || binds.length != 1
+                || !(binds[0] instanceof List)
+                || ((List<?>) binds[0]).isEmpty()
+                || ((List<?>) binds[0]).size() > groupSize)
+            throw new RuntimeException("Expected 1 bind of type List<EnhancedPK> with 1 to " + groupSize + " keys");
+
+        List<EnhancedPK> pks = (List<EnhancedPK>) binds[0];
+        List<Class> pkClasses = cqlTable.getPKClasses();
+
+        BoundStatementBuilder boundStatement = prepareStatement().boundStatementBuilder();
+        int bindIndex = 0;
+        List<Object> partitionValues = pks.get(0).getPKValues();
+        for (int i=0; i<partitionKeySize; i++)
+            boundStatement = boundStatement.set(bindIndex++, partitionValues.get(i), pkClasses.get(i));
+
+        for (int k=0; k<groupSize; k++) {
+            List<Object> values = pks.get(Math.min(k, pks.size()-1)).getPKValues();
+            if (values.size() != pkClasses.size())
+                throw new RuntimeException("The number of PK values does not match the number of bind types: " + values);
+            for (int i=partitionKeySize; i<pkClasses.size(); i++)
+                boundStatement = boundStatement.set(bindIndex++, values.get(i), pkClasses.get(i));
+        }
+
+        return boundStatement
+            .setConsistencyLevel(cqlTable.getReadConsistencyLevel())
+            .setPageSize(cqlTable.getFetchSizeInRows())
+            .build();
+    }
+
+    // Called from the super constructor, so cannot rely on the fields of this class
+    @Override
+    protected String whereBinds() {
+        List<String> pkNames = cqlTable.getPKNames(true);
+        int partitionSize = cqlTable.getPartitionKeyNames(false).size();
+        List<String> clusteringNames = pkNames.subList(partitionSize, pkNames.size());
+
+        StringBuilder sb = new StringBuilder();
+        for (int i=0; i<partitionSize; i++) {
+            if (i>0) sb.append(" AND ");
+            sb.append(pkNames.get(i)).append("=?");
+        }
+        if (clusteringNames.isEmpty())
+            return sb.toString();
+
+        String keyBinds = String.join(",", Collections.nCopies(clusteringNames.size(), "?"));
+        if (clusteringNames.size() > 1)
+            keyBinds = "(" + keyBinds + ")";
+        sb.append(" AND ");
+        sb.append(clusteringNames.size() > 1 ? "(" + String.join(",", clusteringNames) + ")" : clusteringNames.get(0));
+        sb.append(" IN (").append(String.join(",", Collections.nCopies(getGroupSize(), keyBinds))).append(")");
+        return sb.toString();
+    }
+
+    public int getGroupSize() {
+        Integer size = propertyHelper.getInteger(KnownProperties.PERF_PK_GROUP_SIZE);
+        return (null == size || size < 1) ? 1 : size;
+    }
+
+}
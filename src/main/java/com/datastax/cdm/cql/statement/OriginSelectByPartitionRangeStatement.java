@@ -30,9 +30,23 @@ import java.math.BigInteger;
 
 public class OriginSelectByPartitionRangeStatement extends OriginSelectStatement {
     public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+    private int perPartitionLimit;
 
     public OriginSelectByPartitionRangeStatement(IPropertyHelper propertyHelper, EnhancedSession session) {
+        this(propertyHelper, session, 0);
+    }
+
+    /**
+     * @param perPartitionLimit when greater than zero, at most this many rows are read from each partition,
+     *                          which is only wanted when sampling ranges rather than reading every row
+     */
+    public OriginSelectByPartitionRangeStatement(IPropertyHelper propertyHelper, EnhancedSession session, int perPartitionLimit) {
         super(propertyHelper, session);
+        if (perPartitionLimit > 0) {
+            // the superclass builds the statement before this field can be set
+            this.perPartitionLimit = perPartitionLimit;
+            this.statement = buildStatement();
+        }
     }
 
     @Override
@@ -65,6 +79,9 @@ public class OriginSelectByPartitionRangeStatement extends OriginSelectStatement
     protected String buildStatement() {
         StringBuilder sb = new StringBuilder(super.buildStatement());
         sb.append(((OriginFilterCondition) cqlTable.getFeature(Featureset.ORIGIN_FILTER)).getFilterCondition());
+        if (perPartitionLimit > 0) {
+            sb.append(" PER PARTITION LIMIT ").append(perPartitionLimit);
+        }
         sb.append(" ALLOW FILTERING");
         return sb.toString();
     }
@@ -0,0 +1,57 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.statement;
+
+import com.datastax.cdm.cql.EnhancedSession;
+import com.datastax.cdm.data.EnhancedPK;
+import com.datastax.cdm.data.PKFactory;
+import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Deletes a single target row by its full primary key.
+ */
+public class TargetDeleteStatement extends BaseCdmStatement {
+    public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    public TargetDeleteStatement(IPropertyHelper propertyHelper, EnhancedSession session) {
+        super(propertyHelper, session);
+        this.statement = buildStatement();
+    }
+
+    public CompletionStage<AsyncResultSet> deleteAsync(EnhancedPK pk) {
+        return session.getCqlSession().executeAsync(bind(pk));
+    }
+
+    protected BoundStatement bind(EnhancedPK pk) {
+        if (null==pk)
+            throw new RuntimeException("Expected a not-null EnhancedPK");
+
+        BoundStatement boundStatement = prepareStatement().bind()
+                .setConsistencyLevel(cqlTable.getWriteConsistencyLevel());
+        return session.getPKFactory().bindWhereClause(PKFactory.Side.TARGET, pk, boundStatement, 0);
+    }
+
+    private String buildStatement() {
+        return "DELETE FROM " + cqlTable.getKeyspaceTable()
+                + " WHERE " + session.getPKFactory().getWhereClause(PKFactory.Side.TARGET);
+    }
+}
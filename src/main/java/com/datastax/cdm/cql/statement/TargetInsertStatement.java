@@ -20,6 +20,7 @@ import com.datastax.cdm.properties.IPropertyHelper;
 import com.datastax.cdm.properties.KnownProperties;
 import com.datastax.cdm.properties.PropertyHelper;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
 import com.datastax.oss.driver.api.core.cql.Row;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,7 +35,7 @@ public class TargetInsertStatement extends TargetUpsertStatement {
     private final boolean logTrace = logger.isTraceEnabled();
 
     private List<String> bindColumnNames;
-    private List<Integer> bindColumnIndexes;
+    private int[] bindTargetIndexes;
 
     public TargetInsertStatement(IPropertyHelper propertyHelper, EnhancedSession session) {
         super(propertyHelper, session);
@@ -48,35 +49,16 @@ public class TargetInsertStatement extends TargetUpsertStatement {
             throw new RuntimeException("Cannot INSERT onto a counter table, use UPDATE instead");
 
         checkBindInputs(ttl, writeTime, explodeMapKey, explodeMapValue);
-        BoundStatement boundStatement = prepareStatement().bind();
+        BoundStatementBuilder boundStatement = prepareStatement().boundStatementBuilder();
 
         int currentBindIndex = 0;
-        Object bindValue = null;
-
         if (logDebug) logger.debug("bind using conversions: {}",cqlTable.getOtherCqlTable().getConversions());
-        for (int targetIndex = 0; targetIndex < targetColumnTypes.size(); targetIndex++) {
-            if (!bindColumnIndexes.contains(targetIndex)) {
-                // this happens with constant columns, for example
-                continue;
-            }
+        for (int targetIndex : bindTargetIndexes) {
             try {
-                if (targetIndex== explodeMapKeyIndex) {
-                    bindValue = explodeMapKey;
-                }
-                else if (targetIndex== explodeMapValueIndex) {
-                    bindValue = explodeMapValue;
-                }
-                else {
-                    int originIndex = cqlTable.getCorrespondingIndex(targetIndex);
-                    if (originIndex < 0) // we don't have data to bind for this column; continue to the next targetIndex
-                        continue;
-                    bindValue = cqlTable.getOtherCqlTable().getAndConvertData(originIndex, originRow);
-                }
-
-                boundStatement = boundStatement.set(currentBindIndex++, bindValue, cqlTable.getBindClass(targetIndex));
+                currentBindIndex = rowPlan.bind(boundStatement, currentBindIndex, targetIndex, originRow, targetRow, explodeMapKey, explodeMapValue);
             }
             catch (Exception e) {
-                logger.error("Error trying to bind value:" + bindValue + " of class:" +(null==bindValue?"unknown":bindValue.getClass().getName())+ " to column:" + targetColumnNames.get(targetIndex) + " of targetDataType:" + targetColumnTypes.get(targetIndex)+ "/" + cqlTable.getBindClass(targetIndex).getName() + " at column index:" + targetIndex + " and bind index: "+ (currentBindIndex-1) + " of statement:" + this.getCQL());
+                logger.error("Error trying to bind column:" + targetColumnNames.get(targetIndex) + " of targetDataType:" + targetColumnTypes.get(targetIndex)+ "/" + cqlTable.getBindClass(targetIndex).getName() + " at column index:" + targetIndex + " and bind index: "+ currentBindIndex + " of statement:" + this.getCQL());
                 throw e;
             }
         }
@@ -90,7 +72,8 @@ public class TargetInsertStatement extends TargetUpsertStatement {
 
         return boundStatement
                 .setConsistencyLevel(cqlTable.getWriteConsistencyLevel())
-                .setTimeout(Duration.ofSeconds(10));
+                .setTimeout(Duration.ofSeconds(10))
+                .build();
     }
 
     protected String buildStatement() {
@@ -126,13 +109,16 @@ public class TargetInsertStatement extends TargetUpsertStatement {
 
     private void setBindColumnNamesAndIndexes() {
         this.bindColumnNames = new ArrayList<>();
-        this.bindColumnIndexes = new ArrayList<>();
+        List<Integer> bindColumnIndexes = new ArrayList<>();
 
+        // constant columns are not bound
         for (String targetColumnName : this.targetColumnNames) {
             if (null==constantColumnNames || !constantColumnNames.contains(targetColumnName)) {
                 this.bindColumnNames.add(targetColumnName);
-                this.bindColumnIndexes.add(this.targetColumnNames.indexOf(targetColumnName));
+                bindColumnIndexes.add(this.targetColumnNames.indexOf(targetColumnName));
             }
         }
+
+        this.bindTargetIndexes = bindColumnIndexes.stream().mapToInt(Integer::intValue).toArray();
     }
 }
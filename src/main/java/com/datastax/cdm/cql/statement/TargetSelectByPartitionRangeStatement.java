@@ -0,0 +1,66 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.statement;
+
+import com.datastax.cdm.cql.EnhancedSession;
+import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.properties.PropertyHelper;
+import com.datastax.cdm.schema.CqlTable;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Reads the given columns of the target table over a token range: all of them, in table order,
+ * to digest whole rows, or just the primary key, to find which keys are present.
+ */
+public class TargetSelectByPartitionRangeStatement extends BaseCdmStatement {
+    public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    public TargetSelectByPartitionRangeStatement(IPropertyHelper propertyHelper, EnhancedSession session, List<String> columnNames) {
+        super(propertyHelper, session);
+        resultColumns.addAll(columnNames);
+        this.statement = buildStatement();
+    }
+
+    public ResultSet execute(BoundStatement boundStatement) {
+        return session.getCqlSession().execute(boundStatement);
+    }
+
+    public BoundStatement bind(BigInteger min, BigInteger max) {
+        if (null==min || null==max)
+            throw new RuntimeException("Expected 2 not-null binds of type BigInteger");
+
+        // random partitioner uses BigInteger, the normal partitioner uses long
+        return prepareStatement().bind(
+                    cqlTable.hasRandomPartitioner() ? min : min.longValueExact(),
+                    cqlTable.hasRandomPartitioner() ? max : max.longValueExact())
+                .setConsistencyLevel(cqlTable.getReadConsistencyLevel())
+                .setPageSize(cqlTable.getFetchSizeInRows());
+    }
+
+    private String buildStatement() {
+        String partitionKey = PropertyHelper.asString(cqlTable.getPartitionKeyNames(true), KnownProperties.PropertyType.STRING_LIST).trim();
+        return "SELECT " + PropertyHelper.asString(CqlTable.formatNames(resultColumns), KnownProperties.PropertyType.STRING_LIST)
+                + " FROM " + cqlTable.getKeyspaceTable()
+                + " WHERE TOKEN(" + partitionKey + ") >= ? AND TOKEN(" + partitionKey + ") <= ?";
+    }
+}
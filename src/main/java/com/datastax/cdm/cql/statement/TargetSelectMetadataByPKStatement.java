@@ -0,0 +1,143 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.statement;
+
+import com.datastax.cdm.cql.EnhancedSession;
+import com.datastax.cdm.data.EnhancedPK;
+import com.datastax.cdm.data.PKFactory;
+import com.datastax.cdm.feature.Featureset;
+import com.datastax.cdm.feature.WritetimeTTL;
+import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.schema.CqlTable;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.IntStream;
+
+/**
+ * Reads a target row by primary key, selecting only WRITETIME() and TTL() of the target columns
+ * that correspond to the origin writetime and TTL columns, so that a row can be validated against
+ * the write timestamp and TTL that the migration applied, without transferring its values.
+ */
+public class TargetSelectMetadataByPKStatement extends BaseCdmStatement {
+    public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final boolean compareTTL;
+    private final int ttlToleranceSeconds;
+    private final int writetimeStart;
+    private final int ttlStart;
+
+    public TargetSelectMetadataByPKStatement(IPropertyHelper propertyHelper, EnhancedSession session) {
+        super(propertyHelper, session);
+        this.compareTTL = Boolean.TRUE.equals(propertyHelper.getBoolean(KnownProperties.DIFF_METADATA_COMPARE_TTL));
+        Integer tolerance = propertyHelper.getInteger(KnownProperties.DIFF_METADATA_TTL_TOLERANCE);
+        this.ttlToleranceSeconds = (null == tolerance) ? 0 : tolerance;
+
+        CqlTable originTable = cqlTable.getOtherCqlTable();
+        WritetimeTTL writetimeTTLFeature = (WritetimeTTL) originTable.getFeature(Featureset.WRITETIME_TTL);
+        List<String> writetimeNames = toTargetNames(originTable, writetimeTTLFeature.getWritetimeNames());
+        List<String> ttlNames = compareTTL ? toTargetNames(originTable, writetimeTTLFeature.getTtlNames()) : Collections.emptyList();
+        if (writetimeNames.isEmpty())
+            throw new RuntimeException("None of the Origin writetime columns " + writetimeTTLFeature.getWritetimeNames() + " are found on the Target table");
+
+        resultColumns.addAll(CqlTable.formatNames(cqlTable.getPKNames(false)));
+        this.writetimeStart = resultColumns.size();
+        writetimeNames.forEach(name -> resultColumns.add("WRITETIME(" + CqlTable.formatName(name) + ")"));
+        this.ttlStart = resultColumns.size();
+        ttlNames.forEach(name -> resultColumns.add("TTL(" + CqlTable.formatName(name) + ")"));
+
+        this.statement = buildStatement();
+    }
+
+    public CompletionStage<AsyncResultSet> getAsyncResult(EnhancedPK pk) {
+        BoundStatement boundStatement = bind(pk);
+        if (null==boundStatement)
+            return null;
+        return session.getCqlSession().executeAsync(boundStatement);
+    }
+
+    // Row.getLong() and Row.getInt() give 0 for a null, so null columns (no value, or no TTL) are skipped first
+    public Long getLargestWriteTimeStamp(Row row) {
+        return IntStream.range(writetimeStart, ttlStart)
+                .filter(i -> !row.isNull(i))
+                .mapToLong(row::getLong)
+                .boxed()
+                .max(Long::compare)
+                .orElse(null);
+    }
+
+    public Integer getLargestTTL(Row row) {
+        return IntStream.range(ttlStart, resultColumns.size())
+                .filter(i -> !row.isNull(i))
+                .map(row::getInt)
+                .boxed()
+                .max(Integer::compare)
+                .orElse(null);
+    }
+
+    /**
+     * True when the target row carries the write timestamp (and, if configured, the TTL give or
+     * take the tolerance) that migrating the origin row of this primary key would have given it.
+     */
+    public boolean matches(EnhancedPK originPK, Row targetRow) {
+        Long targetWritetime = getLargestWriteTimeStamp(targetRow);
+        if (null == targetWritetime || !targetWritetime.equals(originPK.getWriteTimestamp()))
+            return false;
+        if (!compareTTL)
+            return true;
+
+        // the Origin TTL is 0 when its columns have none, and is then written as no TTL
+        Integer originTTL = (null == originPK.getTTL() || originPK.getTTL() <= 0) ? null : originPK.getTTL();
+        Integer targetTTL = getLargestTTL(targetRow);
+        if (null == originTTL || null == targetTTL)
+            return null == originTTL && null == targetTTL;
+        return Math.abs(originTTL - targetTTL) <= ttlToleranceSeconds;
+    }
+
+    private BoundStatement bind(EnhancedPK pk) {
+        BoundStatement boundStatement = prepareStatement().bind()
+                .setConsistencyLevel(cqlTable.getReadConsistencyLevel());
+        return session.getPKFactory().bindWhereClause(PKFactory.Side.TARGET, pk, boundStatement, 0);
+    }
+
+    private List<String> toTargetNames(CqlTable originTable, List<String> originNames) {
+        List<String> rtn = new ArrayList<>();
+        if (null == originNames)
+            return rtn;
+        for (String originName : originNames) {
+            int targetIndex = originTable.getCorrespondingIndex(originTable.indexOf(originName));
+            if (targetIndex >= 0)
+                rtn.add(cqlTable.getColumnNames(false).get(targetIndex));
+            else
+                logger.warn("Origin column {} has no corresponding Target column, so its metadata is not compared", originName);
+        }
+        return rtn;
+    }
+
+    private String buildStatement() {
+        return "SELECT " + String.join(",", resultColumns)
+                + " FROM " + cqlTable.getKeyspaceTable()
+                + " WHERE " + session.getPKFactory().getWhereClause(PKFactory.Side.TARGET);
+    }
+}
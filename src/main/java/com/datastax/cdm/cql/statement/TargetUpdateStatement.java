@@ -20,6 +20,7 @@ import com.datastax.cdm.data.EnhancedPK;
 import com.datastax.cdm.data.PKFactory;
 import com.datastax.cdm.properties.IPropertyHelper;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
 import com.datastax.oss.driver.api.core.cql.Row;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,15 +32,22 @@ import java.util.List;
 public class TargetUpdateStatement extends TargetUpsertStatement {
     public final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
-    private final List<Integer> columnIndexesToBind;
+    private final int[] columnIndexesToBind;
 
     public TargetUpdateStatement(IPropertyHelper propertyHelper, EnhancedSession session) {
         super(propertyHelper, session);
-        this.columnIndexesToBind = calcColumnIndexesToBind();
+        this.columnIndexesToBind = calcColumnIndexesToBind().stream().mapToInt(Integer::intValue).toArray();
     }
 
     @Override
     protected BoundStatement bind(Row originRow, Row targetRow, Integer ttl, Long writeTime, Object explodeMapKey, Object explodeMapValue) {
+        if (null == originRow)
+            throw new RuntimeException("originRow is null");
+        return bind(session.getPKFactory().getTargetPK(originRow), originRow, targetRow, ttl, writeTime, explodeMapKey, explodeMapValue);
+    }
+
+    @Override
+    protected BoundStatement bind(EnhancedPK pk, Row originRow, Row targetRow, Integer ttl, Long writeTime, Object explodeMapKey, Object explodeMapValue) {
         // We reference the originRow and convert it to the target type.
         // We need the targetRow
         if (null == originRow)
@@ -47,7 +55,7 @@ public class TargetUpdateStatement extends TargetUpsertStatement {
 
         checkBindInputs(ttl, writeTime, explodeMapKey, explodeMapValue);
 
-        BoundStatement boundStatement = prepareStatement().bind();
+        BoundStatementBuilder boundStatement = prepareStatement().boundStatementBuilder();
 
         int currentBindIndex = 0;
         if (usingTTL) {
@@ -57,49 +65,23 @@ public class TargetUpdateStatement extends TargetUpsertStatement {
             boundStatement = boundStatement.set(currentBindIndex++, writeTime, Long.class);
         }
 
-        Object originValue, targetValue;
-        Object bindValueTarget = null;
         for (int targetIndex : columnIndexesToBind) {
-            int originIndex = cqlTable.getCorrespondingIndex(targetIndex);
-
             try {
-                if (usingCounter && counterIndexes.contains(targetIndex)) {
-                    originValue = cqlTable.getOtherCqlTable().getData(originIndex, originRow);
-                    if (null == originValue) {
-                        currentBindIndex++;
-                        continue;
-                    }
-                    targetValue = (null == targetRow ? 0L : cqlTable.getData(targetIndex, targetRow));
-                    bindValueTarget = ((Long) originValue - (null == targetValue ? 0L : (Long) targetValue));
-                }
-                else if (targetIndex== explodeMapKeyIndex) {
-                    bindValueTarget = explodeMapKey;
-                }
-                else if (targetIndex== explodeMapValueIndex) {
-                    bindValueTarget = explodeMapValue;
-                } else {
-                    if (originIndex < 0)
-                        // we don't have data to bind for this column; continue to the next targetIndex
-                        continue;
-                    bindValueTarget = cqlTable.getOtherCqlTable().getAndConvertData(originIndex, originRow);
-                }
-
-                boundStatement = boundStatement.set(currentBindIndex++, bindValueTarget, cqlTable.getBindClass(targetIndex));
+                currentBindIndex = rowPlan.bind(boundStatement, currentBindIndex, targetIndex, originRow, targetRow, explodeMapKey, explodeMapValue);
             } catch (Exception e) {
-                logger.error("Error trying to bind value:" + bindValueTarget + " to column:" +
+                logger.error("Error trying to bind column:" +
                         targetColumnNames.get(targetIndex) + " of targetDataType:" + targetColumnTypes.get(targetIndex) + "/"
                         + cqlTable.getBindClass(targetIndex).getName() + " at column index:" + targetIndex);
                 throw e;
             }
         }
 
-        PKFactory pkFactory = session.getPKFactory();
-        EnhancedPK pk = pkFactory.getTargetPK(originRow);
-        boundStatement = pkFactory.bindWhereClause(PKFactory.Side.TARGET, pk, boundStatement, currentBindIndex);
+        boundStatement = session.getPKFactory().bindWhereClause(PKFactory.Side.TARGET, pk, boundStatement, currentBindIndex);
 
         return boundStatement
                 .setConsistencyLevel(cqlTable.getWriteConsistencyLevel())
-                .setTimeout(Duration.ofSeconds(10));
+                .setTimeout(Duration.ofSeconds(10))
+                .build();
     }
 
     @Override
@@ -18,10 +18,10 @@ package com.datastax.cdm.cql.statement;
 import com.datastax.cdm.cql.EnhancedSession;
 import com.datastax.cdm.data.EnhancedPK;
 import com.datastax.cdm.data.Record;
+import com.datastax.cdm.data.RowPlan;
 import com.datastax.cdm.feature.ConstantColumns;
 import com.datastax.cdm.feature.ExplodeMap;
 import com.datastax.cdm.feature.Featureset;
-import com.datastax.cdm.feature.WritetimeTTL;
 import com.datastax.cdm.properties.IPropertyHelper;
 import com.datastax.cdm.properties.KnownProperties;
 import com.datastax.oss.driver.api.core.cql.*;
@@ -41,6 +41,7 @@ public abstract class TargetUpsertStatement extends BaseCdmStatement {
     protected final List<DataType> originColumnTypes = new ArrayList<>();
 
     protected final List<Integer> counterIndexes;
+    protected final RowPlan rowPlan;
 
     protected boolean usingCounter = false;
     protected boolean usingTTL = false;
@@ -56,13 +57,20 @@ public abstract class TargetUpsertStatement extends BaseCdmStatement {
     protected abstract String buildStatement();
     protected abstract BoundStatement bind(Row originRow, Row targetRow, Integer ttl, Long writeTime, Object explodeMapKey, Object explodeMapValue);
 
+    // Binds a record whose target primary key is already known
+    protected BoundStatement bind(EnhancedPK pk, Row originRow, Row targetRow, Integer ttl, Long writeTime, Object explodeMapKey, Object explodeMapValue) {
+        return bind(originRow, targetRow, ttl, writeTime, explodeMapKey, explodeMapValue);
+    }
+
     public TargetUpsertStatement(IPropertyHelper propertyHelper, EnhancedSession session) {
         super(propertyHelper, session);
 
         constantColumnFeature = (ConstantColumns) cqlTable.getFeature(Featureset.CONSTANT_COLUMNS);
         explodeMapFeature = (ExplodeMap) cqlTable.getFeature(Featureset.EXPLODE_MAP);
 
-        setTTLAndWriteTimeBooleans();
+        this.rowPlan = new RowPlan(cqlTable);
+        this.usingTTL = rowPlan.isUsingTTL();
+        this.usingWriteTime = rowPlan.isUsingWriteTime();
         targetColumnNames.addAll(cqlTable.getColumnNames(true));
         targetColumnTypes.addAll(cqlTable.getColumnCqlTypes());
         originColumnNames.addAll(cqlTable.getOtherCqlTable().getColumnNames(true));
@@ -86,7 +94,7 @@ public abstract class TargetUpsertStatement extends BaseCdmStatement {
         Row originRow = record.getOriginRow();
         Row targetRow = record.getTargetRow();
 
-        return bind(originRow, targetRow, pk.getTTL(), pk.getWriteTimestamp(), pk.getExplodeMapKey(), pk.getExplodeMapValue());
+        return bind(pk, originRow, targetRow, pk.getTTL(), pk.getWriteTimestamp(), pk.getExplodeMapKey(), pk.getExplodeMapValue());
     }
 
     public CompletionStage<AsyncResultSet> executeAsync(Statement<?> statement) {
@@ -128,17 +136,6 @@ public abstract class TargetUpsertStatement extends BaseCdmStatement {
         }
     }
 
-    private void setTTLAndWriteTimeBooleans() {
-        usingTTL = false;
-        usingWriteTime = false;
-        WritetimeTTL wtFeature = (WritetimeTTL) cqlTable.getFeature(Featureset.WRITETIME_TTL);
-
-        if (null!=wtFeature && wtFeature.isEnabled()) {
-            usingTTL = wtFeature.hasTTLColumns();
-            usingWriteTime = wtFeature.hasWritetimeColumns();
-        }
-    }
-
     protected void checkBindInputs(Integer ttl, Long writeTime, Object explodeMapKey, Object explodeMapValue) {
         if (haveCheckedBindInputsOnce)
             return;
@@ -19,15 +19,17 @@ import com.datastax.cdm.schema.CqlTable;
 import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.data.UdtValue;
 import com.datastax.oss.driver.api.core.type.*;
+import com.datastax.oss.driver.api.core.type.codec.CodecNotFoundException;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
-import org.apache.hadoop.yarn.webapp.hamlet2.Hamlet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.UnaryOperator;
 
 public class CqlConversion {
     public static final Logger logger = LoggerFactory.getLogger(CqlConversion.class);
@@ -48,6 +50,11 @@ public class CqlConversion {
     private final List<DataType> toDataTypeList;
     private final List<Type> conversionTypeList;
     private final CodecRegistry codecRegistry;
+    // One converter per entry of conversionTypeList, resolved once so that convert() does no codec lookups
+    private final List<UnaryOperator<Object>> converterList;
+    // For a collection, the converters of its elements (or map keys) and of its map values; null when they are unchanged
+    private final UnaryOperator<Object> elementConverter;
+    private final UnaryOperator<Object> mapValueConverter;
 
     public CqlConversion(DataType fromDataType, DataType toDataType, CodecRegistry codecRegistry) {
         if (null==fromDataType || null==toDataType || null==codecRegistry)
@@ -80,6 +87,18 @@ public class CqlConversion {
             toDataTypeList.add(toDataType);
             conversionTypeList.add(Type.UNSUPPORTED);
         }
+
+        this.converterList = new ArrayList<>(conversionTypeList.size());
+        for (int i=0; i<conversionTypeList.size(); i++) {
+            // for a collection, the first entry is the collection itself and its elements follow
+            int typeIndex = (conversionTypeList.size() > fromDataTypeList.size()) ? i-1 : i;
+            if (typeIndex < 0)
+                converterList.add(null);
+            else
+                converterList.add(converterFor(conversionTypeList.get(i), fromDataTypeList.get(typeIndex), toDataTypeList.get(typeIndex), codecRegistry));
+        }
+        this.elementConverter = (converterList.size() > 1) ? converterList.get(1) : null;
+        this.mapValueConverter = (converterList.size() > 2) ? converterList.get(2) : null;
     }
 
     public Object convert(Object inputData) {
@@ -96,11 +115,11 @@ public class CqlConversion {
                 return inputData;
             case CODEC:
             case UDT:
-                return convert_ONE(conversionType, inputData, fromDataTypeList.get(0), toDataTypeList.get(0), codecRegistry);
+                return converterList.get(0).apply(inputData);
             case LIST:
             case SET:
             case MAP:
-                return convert_COLLECTION(conversionType, inputData, conversionTypeList.subList(1,conversionTypeList.size()), fromDataTypeList, toDataTypeList, codecRegistry);
+                return convertElements(conversionType, inputData, elementConverter, mapValueConverter);
         }
         logger.warn("Conversion.convert() - Unknown conversion type: {}", conversionType);
         return inputData;
@@ -219,29 +238,99 @@ public class CqlConversion {
 
     protected static Object convert_ONE(Type conversionType, Object inputData, DataType fromDataType, DataType toDataType, CodecRegistry codecRegistry) {
         if (logger.isDebugEnabled()) logger.debug("convert_ONE conversionType {} inputData {} fromDataType {} toDataType {}",conversionType,inputData,fromDataType,toDataType);
+        UnaryOperator<Object> converter = converterFor(conversionType, fromDataType, toDataType, codecRegistry);
+        return (null==converter) ? inputData : converter.apply(inputData);
+    }
+
+    // Returns null when the value is passed through unchanged
+    private static UnaryOperator<Object> converterFor(Type conversionType, DataType fromDataType, DataType toDataType, CodecRegistry codecRegistry) {
         switch (conversionType) {
-            case NONE:
-            case UNSUPPORTED:
-                return inputData;
             case CODEC:
-                return convert_CODEC(inputData, fromDataType, toDataType, codecRegistry);
+                return codecConverter(fromDataType, toDataType, codecRegistry);
             case UDT:
-                return convert_UDT((UdtValue) inputData, (UserDefinedType) fromDataType, (UserDefinedType) toDataType);
+                UdtConversion udtConversion;
+                try {
+                    udtConversion = new UdtConversion((UserDefinedType) fromDataType, (UserDefinedType) toDataType);
+                } catch (IllegalArgumentException e) {
+                    // Leave it to convert_UDT, which reports the mismatch when a value is converted
+                    logger.warn("Cannot convert between {} and {}: {}",fromDataType.asCql(true,true),toDataType.asCql(true,true),e.getMessage());
+                    return value -> convert_UDT((UdtValue) value, (UserDefinedType) fromDataType, (UserDefinedType) toDataType);
+                }
+                return value -> (null==value) ? null : udtConversion.convert((UdtValue) value);
+            default:
+                return null;
         }
-        return inputData;
     }
 
     @SuppressWarnings("unchecked")
-    protected static Object convert_CODEC(Object value, DataType fromDataType, DataType toDataType, CodecRegistry codecRegistry) {
-
+    protected static UnaryOperator<Object> codecConverter(DataType fromDataType, DataType toDataType, CodecRegistry codecRegistry) {
         Class<?> fromClass = CqlData.getBindClass(fromDataType);
         Class<?> toClass = CqlData.getBindClass(toDataType);
 
-        if (logger.isDebugEnabled()) logger.debug("convert_CODEC value {} from {} to {}",value,fromClass,toClass);
+        UnaryOperator<Object> directConverter = directConverter(fromDataType, toDataType);
+        if (null != directConverter) {
+            if (logger.isDebugEnabled()) logger.debug("codecConverter from {} to {} converts directly",fromDataType,toDataType);
+            return value -> directConverter.apply(checkClass(fromClass, value));
+        }
 
+        TypeCodec<Object> fromCodec;
+        TypeCodec<Object> toCodec;
+        try {
+            fromCodec = (TypeCodec<Object>) codecRegistry.codecFor(toDataType, fromClass);
+            toCodec = (TypeCodec<Object>) codecRegistry.codecFor(toDataType, toClass);
+        } catch (CodecNotFoundException e) {
+            fromCodec = null;
+            toCodec = null;
+        }
+        if (null == fromCodec || null == toCodec) {
+            // Leave the lookup to convert_CODEC, which reports the missing codec when a value is converted
+            return value -> convert_CODEC(value, fromDataType, toDataType, codecRegistry);
+        }
+
+        TypeCodec<Object> encoder = fromCodec;
+        TypeCodec<Object> decoder = toCodec;
+        return value -> decoder.decode(encoder.encode(checkClass(fromClass, value), PROTOCOL_VERSION), PROTOCOL_VERSION);
+    }
+
+    // Widening and representation changes that need no round trip through a codec
+    protected static UnaryOperator<Object> directConverter(DataType fromDataType, DataType toDataType) {
+        boolean fromTinyOrSmallInt = DataTypes.TINYINT.equals(fromDataType) || DataTypes.SMALLINT.equals(fromDataType);
+        boolean fromInteger = fromTinyOrSmallInt || DataTypes.INT.equals(fromDataType);
+        if (DataTypes.BIGINT.equals(toDataType)) {
+            if (fromInteger)
+                return value -> ((Number) value).longValue();
+            if (DataTypes.TIMESTAMP.equals(fromDataType))
+                return value -> ((Instant) value).toEpochMilli();
+        }
+        else if (DataTypes.INT.equals(toDataType) && fromTinyOrSmallInt)
+            return value -> ((Number) value).intValue();
+        else if (DataTypes.SMALLINT.equals(toDataType) && DataTypes.TINYINT.equals(fromDataType))
+            return value -> ((Number) value).shortValue();
+        else if (DataTypes.VARINT.equals(toDataType) && (fromInteger || DataTypes.BIGINT.equals(fromDataType)))
+            return value -> BigInteger.valueOf(((Number) value).longValue());
+        else if (DataTypes.DOUBLE.equals(toDataType) && (fromInteger || DataTypes.FLOAT.equals(fromDataType)))
+            return value -> ((Number) value).doubleValue();
+        else if (DataTypes.TIMESTAMP.equals(toDataType) && DataTypes.BIGINT.equals(fromDataType))
+            return value -> Instant.ofEpochMilli((Long) value);
+        return null;
+    }
+
+    private static Object checkClass(Class<?> fromClass, Object value) {
         if (!fromClass.isAssignableFrom(value.getClass())) {
             throw new IllegalArgumentException("Value is not of type " + fromClass.getName() + " but of type " + value.getClass().getName());
         }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static Object convert_CODEC(Object value, DataType fromDataType, DataType toDataType, CodecRegistry codecRegistry) {
+
+        Class<?> fromClass = CqlData.getBindClass(fromDataType);
+        Class<?> toClass = CqlData.getBindClass(toDataType);
+
+        if (logger.isDebugEnabled()) logger.debug("convert_CODEC value {} from {} to {}",value,fromClass,toClass);
+
+        checkClass(fromClass, value);
 
         TypeCodec<Object> fromCodec = (TypeCodec<Object>) codecRegistry.codecFor(toDataType, fromClass);
         if (fromCodec == null) {
@@ -256,36 +345,94 @@ public class CqlConversion {
     }
 
     protected static UdtValue convert_UDT(UdtValue fromUDTValue, UserDefinedType fromUDT, UserDefinedType toUDT) {
-        if (logger.isDebugEnabled()) logger.debug("convert_UDT fromUDTValue {} of class {} and type {}, converting fromUDT {} toUDT {}", CqlData.getFormattedContent(CqlData.toType(fromUDT),fromUDTValue),fromUDTValue.getClass().getName(),fromUDTValue.getType(),fromUDT,toUDT);
         if (null==fromUDTValue)
             return null;
+        return new UdtConversion(fromUDT, toUDT).convert(fromUDTValue);
+    }
 
-        List<DataType> fromFieldTypes = fromUDT.getFieldTypes();
-        List<DataType> toFieldTypes = toUDT.getFieldTypes();
-        if (null==fromFieldTypes || null==toFieldTypes || fromFieldTypes.size() != toFieldTypes.size()) {
-            throw new IllegalArgumentException("fromUDT and toUDT not be null and must have the same number of fields");
-        }
-        if (!fromUDTValue.getType().getClass().equals(fromUDT.getClass())) {
-            throw new IllegalArgumentException("fromUDT and fromUDTValue must be of the same Java class");
+    /**
+     * Converts values of one UDT to another, matching fields by position. How each field is converted is
+     * worked out once per pair of types: a field with the same encoding on both sides has its serialized
+     * bytes copied, nested UDTs and collections are converted with their own conversions, and any other
+     * field goes through its CQL literal form.
+     */
+    static class UdtConversion {
+        private final UserDefinedType fromUDT;
+        private final UserDefinedType toUDT;
+        private final boolean[] copyBytes;
+        private final List<TypeCodec<Object>> fromCodecs;
+        private final List<TypeCodec<Object>> toCodecs;
+        private final List<UnaryOperator<Object>> fieldConverters;
+
+        UdtConversion(UserDefinedType fromUDT, UserDefinedType toUDT) {
+            List<DataType> fromFieldTypes = fromUDT.getFieldTypes();
+            List<DataType> toFieldTypes = toUDT.getFieldTypes();
+            if (null==fromFieldTypes || null==toFieldTypes || fromFieldTypes.size() != toFieldTypes.size()) {
+                throw new IllegalArgumentException("fromUDT and toUDT not be null and must have the same number of fields");
+            }
+
+            this.fromUDT = fromUDT;
+            this.toUDT = toUDT;
+            int fieldCount = fromFieldTypes.size();
+            this.copyBytes = new boolean[fieldCount];
+            this.fromCodecs = new ArrayList<>(fieldCount);
+            this.toCodecs = new ArrayList<>(fieldCount);
+            this.fieldConverters = new ArrayList<>(fieldCount);
+
+            CodecRegistry fromRegistry = fromUDT.getAttachmentPoint().getCodecRegistry();
+            CodecRegistry toRegistry = toUDT.getAttachmentPoint().getCodecRegistry();
+            for (int i = 0; i < fieldCount; i++) {
+                DataType fromFieldType = fromFieldTypes.get(i);
+                DataType toFieldType = toFieldTypes.get(i);
+                copyBytes[i] = CqlData.hasSameEncoding(fromFieldType, toFieldType);
+                if (copyBytes[i]) {
+                    fromCodecs.add(null);
+                    toCodecs.add(null);
+                    fieldConverters.add(null);
+                    continue;
+                }
+
+                TypeCodec<Object> fromCodec = fromRegistry.codecFor(fromFieldType);
+                TypeCodec<Object> toCodec = toRegistry.codecFor(toFieldType);
+                fromCodecs.add(fromCodec);
+                toCodecs.add(toCodec);
+                fieldConverters.add(fieldConverter(fromFieldType, toFieldType, fromCodec, toCodec, toRegistry));
+            }
         }
 
-        UdtValue toUDTValue = toUDT.newValue();
+        private static UnaryOperator<Object> fieldConverter(DataType fromFieldType, DataType toFieldType, TypeCodec<Object> fromCodec, TypeCodec<Object> toCodec, CodecRegistry toRegistry) {
+            if (fromFieldType instanceof UserDefinedType && toFieldType instanceof UserDefinedType) {
+                UdtConversion nested = new UdtConversion((UserDefinedType) fromFieldType, (UserDefinedType) toFieldType);
+                return value -> nested.convert((UdtValue) value);
+            }
+            if (CqlData.isCollection(fromFieldType) && CqlData.isCollection(toFieldType)) {
+                CqlConversion collection = new CqlConversion(fromFieldType, toFieldType, toRegistry);
+                if (collection.getConversionTypeList().get(0) != Type.UNSUPPORTED)
+                    return collection::convert;
+            }
+            return value -> toCodec.parse(fromCodec.format(value));
+        }
 
-        int loopLimit = fromFieldTypes.size();
-        for (int i = 0; i < loopLimit; i++) {
-            DataType fromFieldType = fromFieldTypes.get(i);
-            TypeCodec<Object> fromCodec = fromUDT.getAttachmentPoint().getCodecRegistry().codecFor(fromFieldType);
-            Object fromFieldValue = fromUDTValue.get(i, fromCodec);
+        UdtValue convert(UdtValue fromUDTValue) {
+            if (logger.isDebugEnabled()) logger.debug("convert_UDT fromUDTValue {} of class {} and type {}, converting fromUDT {} toUDT {}", CqlData.getFormattedContent(CqlData.toType(fromUDT),fromUDTValue),fromUDTValue.getClass().getName(),fromUDTValue.getType(),fromUDT,toUDT);
+            if (!fromUDTValue.getType().getClass().equals(fromUDT.getClass())) {
+                throw new IllegalArgumentException("fromUDT and fromUDTValue must be of the same Java class");
+            }
 
-            DataType toFieldType = toFieldTypes.get(i);
-            TypeCodec<Object> toCodec = toUDT.getAttachmentPoint().getCodecRegistry().codecFor(toFieldType);
-            Object toFieldValue = toCodec.parse(fromCodec.format(fromFieldValue));
+            UdtValue toUDTValue = toUDT.newValue();
+            for (int i = 0; i < copyBytes.length; i++) {
+                if (copyBytes[i]) {
+                    toUDTValue = toUDTValue.setBytesUnsafe(i, fromUDTValue.getBytesUnsafe(i));
+                    continue;
+                }
+                Object fromFieldValue = fromUDTValue.get(i, fromCodecs.get(i));
+                Object toFieldValue = (null == fromFieldValue) ? null : fieldConverters.get(i).apply(fromFieldValue);
+                toUDTValue = toUDTValue.set(i, toFieldValue, toCodecs.get(i));
+            }
 
-            toUDTValue.set(i, toFieldValue, toCodec);
+            if (logger.isDebugEnabled()) logger.debug("convert_UDT returning {} of type {}", CqlData.getFormattedContent(CqlData.toType(toUDT),toUDTValue), toUDTValue.getType());
+            return toUDTValue;
         }
-
-        if (logger.isDebugEnabled()) logger.debug("convert_UDT returning {} of type {}", CqlData.getFormattedContent(CqlData.toType(toUDT),toUDTValue), toUDTValue.getType());
-        return toUDTValue;
     }
 
     protected static Object convert_COLLECTION(Type collectionType, Object value, List<Type> conversionTypeList, List<DataType> fromDataTypeList, List<DataType> toDataTypeList, CodecRegistry codecRegistry) {
@@ -305,26 +452,57 @@ public class CqlConversion {
             throw new IllegalArgumentException("codecRegistry must not be null");
         }
 
-        // If all elements in conversionTypeList are either NONE or UNKNOWN, then return the original value
-        if (conversionTypeList.stream().allMatch(t -> Type.NONE.equals(t) || Type.UNSUPPORTED.equals(t)))
-            return value;
+        List<UnaryOperator<Object>> converters = new ArrayList<>(conversionTypeList.size());
+        for (int i=0; i<conversionTypeList.size(); i++) {
+            converters.add(converterFor(conversionTypeList.get(i), fromDataTypeList.get(i), toDataTypeList.get(i), codecRegistry));
+        }
+        return convertElements(collectionType, value, converters.get(0), (converters.size() > 1) ? converters.get(1) : null);
+    }
+
+    // Converters are null for elements that are unchanged, and a collection with no converters is returned as-is
+    private static Object convertElements(Type collectionType, Object value, UnaryOperator<Object> elementConverter, UnaryOperator<Object> mapValueConverter) {
+        if (null==value) {
+            return null;
+        }
 
         switch (collectionType) {
             case LIST:
-                return ((List<?>) value).stream().map(v -> convert_ONE(conversionTypeList.get(0), v, fromDataTypeList.get(0), toDataTypeList.get(0), codecRegistry)).collect(Collectors.toList());
+                if (null==elementConverter)
+                    return value;
+                List<?> fromList = (List<?>) value;
+                List<Object> toList = new ArrayList<>(fromList.size());
+                for (Object element : fromList) {
+                    toList.add(elementConverter.apply(element));
+                }
+                return toList;
             case SET:
-                return ((Set<?>) value).stream().map(v -> convert_ONE(conversionTypeList.get(0), v, fromDataTypeList.get(0), toDataTypeList.get(0), codecRegistry)).collect(Collectors.toSet());
+                if (null==elementConverter)
+                    return value;
+                Set<?> fromSet = (Set<?>) value;
+                Set<Object> toSet = new HashSet<>(hashCapacity(fromSet.size()));
+                for (Object element : fromSet) {
+                    toSet.add(elementConverter.apply(element));
+                }
+                return toSet;
             case MAP:
-                // There are two conversion types in the element list: one for keys and one for values
-                return ((Map<?, ?>) value).entrySet().stream()
-                        .collect(Collectors.toMap(
-                                entry -> convert_ONE(conversionTypeList.get(0), entry.getKey(), fromDataTypeList.get(0), toDataTypeList.get(0), codecRegistry),
-                                entry -> convert_ONE(conversionTypeList.get(1), entry.getValue(), fromDataTypeList.get(1), toDataTypeList.get(1), codecRegistry)
-                        ));
+                if (null==elementConverter && null==mapValueConverter)
+                    return value;
+                Map<?,?> fromMap = (Map<?,?>) value;
+                Map<Object,Object> toMap = new HashMap<>(hashCapacity(fromMap.size()));
+                for (Map.Entry<?,?> entry : fromMap.entrySet()) {
+                    toMap.put(null==elementConverter ? entry.getKey() : elementConverter.apply(entry.getKey()),
+                            null==mapValueConverter ? entry.getValue() : mapValueConverter.apply(entry.getValue()));
+                }
+                return toMap;
         }
         return value;
     }
 
+    // The initial capacity at which a HashMap or HashSet holds size entries without resizing
+    private static int hashCapacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
     List<Type> getConversionTypeList() {
         return conversionTypeList;
     }
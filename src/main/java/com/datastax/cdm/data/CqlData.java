@@ -97,6 +97,28 @@ public class CqlData {
         return false;
     }
 
+    // True when a value of one type is serialized exactly as the same value of the other type, so that its bytes
+    // may be copied as-is. Frozenness, and the keyspace and name of a UDT, do not change the serialized form.
+    public static boolean hasSameEncoding(DataType fromDataType, DataType toDataType) {
+        if (null == fromDataType || null == toDataType) return false;
+        if (fromDataType.equals(toDataType)) return true;
+        if (!isCollection(fromDataType) || !isCollection(toDataType)) return false;
+        Type fromType = toType(fromDataType);
+        if (fromType != toType(toDataType)) return false;
+        if (fromType == Type.UDT && !((UserDefinedType) fromDataType).getFieldNames().equals(((UserDefinedType) toDataType).getFieldNames()))
+            return false;
+        if (fromType == Type.VECTOR && ((VectorType) fromDataType).getDimensions() != ((VectorType) toDataType).getDimensions())
+            return false;
+
+        List<DataType> fromElementTypes = fromType == Type.UDT ? ((UserDefinedType) fromDataType).getFieldTypes() : extractDataTypesFromCollection(fromDataType);
+        List<DataType> toElementTypes = fromType == Type.UDT ? ((UserDefinedType) toDataType).getFieldTypes() : extractDataTypesFromCollection(toDataType);
+        if (fromElementTypes.size() != toElementTypes.size()) return false;
+        for (int i = 0; i < fromElementTypes.size(); i++) {
+            if (!hasSameEncoding(fromElementTypes.get(i), toElementTypes.get(i))) return false;
+        }
+        return true;
+    }
+
     public static Class getBindClass(DataType dataType) {
         Class primitiveClass = primitiveDataTypeToJavaClassMap.get(dataType);
         if (primitiveClass != null) return primitiveClass;
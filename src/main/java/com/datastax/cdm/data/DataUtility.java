@@ -114,6 +114,62 @@ public class DataUtility {
         }
     }
 
+    // Applies the DIFF_COLUMNS_INCLUDE and DIFF_COLUMNS_EXCLUDE properties, which name Origin columns,
+    // to both tables; Target columns without an Origin counterpart (e.g. constant columns) are kept.
+    // Columns referenced by other features are kept so that those features still validate.
+    // Returns true if the columns were restricted.
+    public static boolean applyDiffColumnSubset(IPropertyHelper propertyHelper, CqlTable originCqlTable, CqlTable targetCqlTable) {
+        List<String> include = CqlTable.unFormatNames(propertyHelper.getStringList(KnownProperties.DIFF_COLUMNS_INCLUDE));
+        List<String> exclude = CqlTable.unFormatNames(propertyHelper.getStringList(KnownProperties.DIFF_COLUMNS_EXCLUDE));
+        boolean hasInclude = null != include && !include.isEmpty();
+        boolean hasExclude = null != exclude && !exclude.isEmpty();
+        if (!hasInclude && !hasExclude) {
+            return false;
+        }
+
+        List<String> originColumnNames = originCqlTable.getColumnNames(false);
+        checkColumnsExist(KnownProperties.DIFF_COLUMNS_INCLUDE, include, originColumnNames);
+        checkColumnsExist(KnownProperties.DIFF_COLUMNS_EXCLUDE, exclude, originColumnNames);
+
+        Set<String> originRetain = new HashSet<>(hasInclude ? include : originColumnNames);
+        if (hasExclude) {
+            originRetain.removeAll(exclude);
+        }
+        List<String> featureColumns = new ArrayList<>();
+        addIfNotNull(featureColumns, propertyHelper.getStringList(KnownProperties.ORIGIN_TTL_NAMES));
+        addIfNotNull(featureColumns, propertyHelper.getStringList(KnownProperties.ORIGIN_WRITETIME_NAMES));
+        addIfNotNull(featureColumns, Collections.singletonList(propertyHelper.getString(KnownProperties.FILTER_COLUMN_NAME)));
+        addIfNotNull(featureColumns, Collections.singletonList(propertyHelper.getString(KnownProperties.EXPLODE_MAP_ORIGIN_COLUMN_NAME)));
+        for (String featureColumn : CqlTable.unFormatNames(featureColumns)) {
+            if (originColumnNames.contains(featureColumn) && originRetain.add(featureColumn)) {
+                logger.warn("Column {} is used by another feature and cannot be left out of the diff", featureColumn);
+            }
+        }
+
+        Map<String,String> originToTargetNameMap = getThisToThatColumnNameMap(propertyHelper, originCqlTable, targetCqlTable);
+        Set<String> targetRetain = new HashSet<>(targetCqlTable.getColumnNames(false));
+        targetRetain.removeAll(originToTargetNameMap.values());
+        originRetain.stream().filter(originToTargetNameMap::containsKey).map(originToTargetNameMap::get).forEach(targetRetain::add);
+
+        originCqlTable.retainColumns(originRetain);
+        targetCqlTable.retainColumns(targetRetain);
+        return true;
+    }
+
+    private static void checkColumnsExist(String propertyName, List<String> columnNames, List<String> tableColumnNames) {
+        if (null == columnNames) return;
+        for (String columnName : columnNames) {
+            if (!tableColumnNames.contains(columnName)) {
+                throw new RuntimeException(propertyName + " column is not found on the Origin table: " + columnName);
+            }
+        }
+    }
+
+    private static void addIfNotNull(List<String> list, List<String> values) {
+        if (null == values) return;
+        values.stream().filter(Objects::nonNull).forEach(list::add);
+    }
+
     public static String getMyClassMethodLine(Exception e) {
         StackTraceElement[] stackTraceElements = e.getStackTrace();
         StackTraceElement targetStackTraceElement = null;
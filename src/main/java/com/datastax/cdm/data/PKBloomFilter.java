@@ -0,0 +1,115 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.cdm.schema.CqlTable;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.shaded.guava.common.hash.BloomFilter;
+import com.datastax.oss.driver.shaded.guava.common.hash.Funnel;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A Bloom filter over the primary keys of target rows within one token range. Keys are compared by their
+ * serialized form: target rows contribute the bytes as read off the wire, and origin-derived PKs are
+ * encoded with the target column codecs, so no values are decoded on the target side.
+ * <p>
+ * A negative answer from {@link #mightContain} means the row is certainly not on target; a positive
+ * answer is wrong with (approximately) the false positive probability the filter was created with.
+ */
+public class PKBloomFilter {
+    private static final Funnel<ByteBuffer[]> KEY_FUNNEL = (key, into) -> {
+        for (ByteBuffer value : key) {
+            if (null == value) {
+                into.putInt(-1);
+            } else {
+                into.putInt(value.remaining());
+                into.putBytes(value.duplicate());
+            }
+        }
+    };
+
+    private final int[] pkIndexes;
+    private final TypeCodec<Object>[] codecs;
+    private final BloomFilter<ByteBuffer[]> filter;
+
+    /**
+     * @param pkFactory used to find the target PK columns that carry values (constant columns do not)
+     * @param targetTable table whose PK columns are being filtered
+     * @param expectedRows number of target rows expected in the token range
+     * @param falsePositiveProbability desired false positive probability, between 0 and 1 exclusive
+     */
+    public PKBloomFilter(PKFactory pkFactory, CqlTable targetTable, long expectedRows, double falsePositiveProbability) {
+        List<Integer> indexes = pkFactory.getPKIndexesToBind(PKFactory.Side.TARGET);
+        List<String> pkNames = targetTable.getPKNames(false);
+        this.pkIndexes = new int[indexes.size()];
+        this.codecs = new TypeCodec[indexes.size()];
+        for (int i = 0; i < indexes.size(); i++) {
+            pkIndexes[i] = indexes.get(i);
+            DataType dataType = targetTable.getDataType(targetTable.indexOf(pkNames.get(pkIndexes[i])));
+            codecs[i] = targetTable.getCodecRegistry().codecFor(dataType);
+        }
+        this.filter = BloomFilter.create(KEY_FUNNEL, Math.max(1, expectedRows), falsePositiveProbability);
+    }
+
+    /**
+     * @param targetPKRow row whose columns are the target PK columns, in PK order
+     */
+    public void put(Row targetPKRow) {
+        ByteBuffer[] key = new ByteBuffer[pkIndexes.length];
+        for (int i = 0; i < pkIndexes.length; i++) {
+            key[i] = targetPKRow.getBytesUnsafe(pkIndexes[i]);
+        }
+        filter.put(key);
+    }
+
+    public boolean mightContain(EnhancedPK pk) {
+        ByteBuffer[] key = new ByteBuffer[pkIndexes.length];
+        for (int i = 0; i < pkIndexes.length; i++) {
+            Object value = pk.getPKValues().get(pkIndexes[i]);
+            key[i] = (null == value) ? null : codecs[i].encode(value, CqlConversion.PROTOCOL_VERSION);
+        }
+        return filter.mightContain(key);
+    }
+
+    public double expectedFpp() {
+        return filter.expectedFpp();
+    }
+
+    /**
+     * Target rows can only be gathered by the same token range as origin rows when the target partition key
+     * is made of the origin partition key columns, in the same order and with the same types.
+     */
+    public static boolean isTokenAligned(CqlTable originTable, CqlTable targetTable) {
+        List<String> originPartitionKey = originTable.getPartitionKeyNames(false);
+        List<String> targetPartitionKey = targetTable.getPartitionKeyNames(false);
+        if (originPartitionKey.size() != targetPartitionKey.size())
+            return false;
+        for (int i = 0; i < targetPartitionKey.size(); i++) {
+            int targetIndex = targetTable.indexOf(targetPartitionKey.get(i));
+            int originIndex = targetTable.getCorrespondingIndex(targetIndex);
+            if (originIndex < 0
+                    || originIndex != originTable.indexOf(originPartitionKey.get(i))
+                    || !Objects.equals(originTable.getDataType(originIndex), targetTable.getDataType(targetIndex)))
+                return false;
+        }
+        return true;
+    }
+}
@@ -17,8 +17,8 @@ package com.datastax.cdm.data;
 
 import com.datastax.cdm.feature.*;
 import com.datastax.cdm.schema.CqlTable;
-import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.data.SettableByIndex;
 import com.datastax.cdm.properties.KnownProperties;
 import com.datastax.cdm.properties.PropertyHelper;
 import org.slf4j.Logger;
@@ -47,11 +47,13 @@ public class PKFactory {
     private final WritetimeTTL writetimeTTLFeature;
 
     private final List<Integer> targetPKIndexesToBind;
+    private final int[] targetPKBindIndexes;
     private final List<LookupMethod> targetPKLookupMethods;
     private final List<Object> targetDefaultValues;
     private final String targetWhereClause;
 
     private final List<Integer> originPKIndexesToBind;
+    private final int[] originPKBindIndexes;
     private final List<LookupMethod> originPKLookupMethods;
     private final String originWhereClause;
 
@@ -90,6 +92,8 @@ public class PKFactory {
         // These need to be set once all the features have been processed
         this.targetPKIndexesToBind = getIndexesToBind(Side.TARGET);
         this.originPKIndexesToBind = getIndexesToBind(Side.ORIGIN);
+        this.targetPKBindIndexes = targetPKIndexesToBind.stream().mapToInt(Integer::intValue).toArray();
+        this.originPKBindIndexes = originPKIndexesToBind.stream().mapToInt(Integer::intValue).toArray();
         this.targetWhereClause = getWhereClause(Side.TARGET);
         this.originWhereClause = getWhereClause(Side.ORIGIN);
     }
@@ -164,16 +168,18 @@ public class PKFactory {
         return null;
     }
 
-    public BoundStatement bindWhereClause(Side side, EnhancedPK pk, BoundStatement boundStatement, int startingBindIndex) {
-        List<Integer> indexesToBind;
+    // Binds the primary key values to a BoundStatement, or to a BoundStatementBuilder which is updated in place
+    @SuppressWarnings("unchecked")
+    public <T extends SettableByIndex<T>> T bindWhereClause(Side side, EnhancedPK pk, T boundStatement, int startingBindIndex) {
+        int[] indexesToBind;
         CqlTable table;
         switch (side) {
             case ORIGIN:
-                indexesToBind = originPKIndexesToBind;
+                indexesToBind = originPKBindIndexes;
                 table = originTable;
                 break;
             case TARGET:
-                indexesToBind = targetPKIndexesToBind;
+                indexesToBind = targetPKBindIndexes;
                 table=targetTable;
                 break;
             default:
@@ -183,9 +189,10 @@ public class PKFactory {
         if (pk.isError() || pk.getPKValues().size() != table.getPKClasses().size())
             throw new RuntimeException("PK is in Error state, or the number of values does not match the number of bind types");
 
-        for (int i=0; i<indexesToBind.size(); i++) {
-            int index = indexesToBind.get(i);
-            boundStatement = boundStatement.set(startingBindIndex++, pk.getPKValues().get(index), table.getPKClasses().get(index));
+        List<Object> pkValues = pk.getPKValues();
+        List<Class> pkClasses = table.getPKClasses();
+        for (int index : indexesToBind) {
+            boundStatement = boundStatement.set(startingBindIndex++, pkValues.get(index), (Class<Object>) pkClasses.get(index));
         }
 
         return boundStatement;
@@ -231,6 +238,44 @@ public class PKFactory {
 
     public Integer getExplodeMapTargetPKIndex() {return explodeMapTargetPKIndex;}
 
+    public List<Integer> getPKIndexesToBind(Side side) {
+        return (side == Side.ORIGIN) ? originPKIndexesToBind : targetPKIndexesToBind;
+    }
+
+    // The targetPKRow parameter of the following two methods is a row holding only the target
+    // primary key columns, in primary key order, as read by EnhancedSession.getTargetSelectPKByPartitionRangeStatement().
+    public EnhancedPK getTargetPKFromTarget(Row targetPKRow) {
+        List<Class> pkClasses = getPKClasses(Side.TARGET);
+        List<Object> values = new ArrayList<>(pkClasses.size());
+        for (int i = 0; i < pkClasses.size(); i++) {
+            values.add(targetPKRow.get(i, pkClasses.get(i)));
+        }
+        return toEnhancedPK(values, pkClasses);
+    }
+
+    // Returns null when an origin primary key column is not on the target primary key, as the
+    // origin row can then not be looked up from the target key alone.
+    public EnhancedPK getOriginPKFromTarget(Row targetPKRow) {
+        List<String> targetPKNames = targetTable.getPKNames(false);
+        List<String> originPKNames = originTable.getPKNames(false);
+        List<Object> values = new ArrayList<>(originPKNames.size());
+        for (int i = 0; i < originPKNames.size(); i++) {
+            if (originPKLookupMethods.get(i) != LookupMethod.ORIGIN_COLUMN) {
+                values.add(null);
+                continue;
+            }
+            int targetIndex = originTable.getCorrespondingIndex(originTable.indexOf(originPKNames.get(i)));
+            int targetPKPosition = (targetIndex < 0) ? -1 : targetPKNames.indexOf(targetTable.getColumnNames(false).get(targetIndex));
+            if (targetPKPosition < 0)
+                return null;
+
+            Object value = targetPKRow.get(targetPKPosition, targetTable.getBindClass(targetIndex));
+            CqlConversion conversion = (null == value) ? null : targetTable.getConversions().get(targetIndex);
+            values.add(null == conversion ? value : conversion.convert(value));
+        }
+        return toEnhancedPK(values, getPKClasses(Side.ORIGIN));
+    }
+
     private List<Object> getTargetPKValuesFromOriginColumnLookupMethod(Row originRow, List<Object> defaultValues) {
         List<Object> newValues = new ArrayList<>(defaultValues);
         for (int i = 0; i< targetPKLookupMethods.size(); i++) {
@@ -0,0 +1,347 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.cdm.schema.CqlTable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A binary file of primary keys, written by DiffData and read by MigrateRowsFromFile. A header names the
+ * key columns and their CQL types, and is followed by blocks of keys that can each be read on their own:
+ * <pre>
+ *   header : "CDMPK" version:byte columnCount:int (name:UTF cqlType:UTF)*
+ *   block  : keyCount:int rawLength:int compressedLength:int crc32:long deflate((length:int bytes)*)
+ * </pre>
+ * Values are CQL-serialized, with a length of -1 for null, and the CRC32 is that of the uncompressed block.
+ */
+public class PKFile {
+    private static final byte[] MAGIC = {'C', 'D', 'M', 'P', 'K'};
+    private static final byte VERSION = 1;
+    private static final int BLOCK_HEADER_SIZE = 4 + 4 + 4 + 8;
+    private static final Object FILE_LOCK = new Object();
+
+    public static boolean isBinary(String fileName) {
+        try (InputStream in = new FileInputStream(fileName)) {
+            byte[] magic = new byte[MAGIC.length];
+            return in.readNBytes(magic, 0, magic.length) == magic.length && Arrays.equals(MAGIC, magic);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the offset of each block in the file, in order
+     */
+    public static List<Long> getBlockOffsets(String fileName) throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "r")) {
+            Header.read(file);
+            long position = file.getFilePointer();
+            long length = file.length();
+            while (position < length) {
+                offsets.add(position);
+                file.seek(position + 8);
+                position += BLOCK_HEADER_SIZE + file.readInt();
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * The names and CQL types of the key columns.
+     */
+    public static class Header {
+        private final List<String> names;
+        private final List<String> types;
+
+        public Header(List<String> names, List<String> types) {
+            if (names.size() != types.size())
+                throw new IllegalArgumentException("Each column needs a name and a type: " + names + " " + types);
+            this.names = names;
+            this.types = types;
+        }
+
+        public static Header of(CqlTable table) {
+            List<String> names = table.getPKNames(false);
+            List<String> types = new ArrayList<>(names.size());
+            for (String name : names)
+                types.add(table.getDataType(table.indexOf(name)).asCql(false, true));
+            return new Header(names, types);
+        }
+
+        public int size() {
+            return names.size();
+        }
+
+        private byte[] toBytes() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                out.writeUTF(names.get(i));
+                out.writeUTF(types.get(i));
+            }
+            return bytes.toByteArray();
+        }
+
+        private static Header read(DataInput in) throws IOException {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(MAGIC, magic))
+                throw new IOException("Not a binary primary key file");
+            byte version = in.readByte();
+            if (version != VERSION)
+                throw new IOException("Unsupported binary primary key file version " + version);
+            int count = in.readInt();
+            List<String> names = new ArrayList<>(count);
+            List<String> types = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                names.add(in.readUTF());
+                types.add(in.readUTF());
+            }
+            return new Header(names, types);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Header header = (Header) o;
+            return names.equals(header.names) && types.equals(header.types);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(names, types);
+        }
+
+        @Override
+        public String toString() {
+            List<String> columns = new ArrayList<>(names.size());
+            for (int i = 0; i < names.size(); i++)
+                columns.add(names.get(i) + " " + types.get(i));
+            return columns.toString();
+        }
+    }
+
+    /**
+     * Buffers keys, and appends them to the file a block at a time; the header is written with the first
+     * block. Writers of the same file within a JVM append whole blocks, so they can share it.
+     */
+    public static class Writer {
+        private final Path path;
+        private final Header header;
+        private final int blockKeys;
+        private final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(raw);
+        private int keyCount = 0;
+        private boolean headerChecked = false;
+
+        public Writer(String fileName, Header header, int blockKeys) {
+            this.path = Paths.get(fileName);
+            this.header = header;
+            this.blockKeys = Math.max(blockKeys, 1);
+        }
+
+        public void add(List<ByteBuffer> values) throws IOException {
+            if (values.size() != header.size())
+                throw new IllegalArgumentException("Expected " + header.size() + " values, got " + values.size());
+            for (ByteBuffer value : values) {
+                if (null == value) {
+                    out.writeInt(-1);
+                } else {
+                    ByteBuffer bytes = value.duplicate();
+                    out.writeInt(bytes.remaining());
+                    while (bytes.hasRemaining())
+                        out.writeByte(bytes.get());
+                }
+            }
+            if (++keyCount >= blockKeys)
+                flush();
+        }
+
+        public void flush() throws IOException {
+            if (keyCount == 0)
+                return;
+            byte[] data = raw.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            byte[] compressed = deflate(data);
+
+            ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_HEADER_SIZE + compressed.length);
+            DataOutputStream blockOut = new DataOutputStream(block);
+            blockOut.writeInt(keyCount);
+            blockOut.writeInt(data.length);
+            blockOut.writeInt(compressed.length);
+            blockOut.writeLong(crc.getValue());
+            blockOut.write(compressed);
+
+            synchronized (FILE_LOCK) {
+                if (!Files.exists(path) || Files.size(path) == 0) {
+                    if (null != path.getParent())
+                        Files.createDirectories(path.getParent());
+                    Files.write(path, header.toBytes(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    headerChecked = true;
+                } else if (!headerChecked) {
+                    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                        Header existing = Header.read(in);
+                        if (!header.equals(existing))
+                            throw new IOException("File " + path + " holds keys of columns " + existing + ", not " + header);
+                    }
+                    headerChecked = true;
+                }
+                Files.write(path, block.toByteArray(), StandardOpenOption.APPEND);
+            }
+            raw.reset();
+            keyCount = 0;
+        }
+
+        private static byte[] deflate(byte[] data) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(data);
+                deflater.finish();
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 2 + 64);
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished())
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                return compressed.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Reads the keys of the blocks that start in [start, end).
+     */
+    public static class Reader implements Closeable {
+        private final FileChannel channel;
+        private final DataInputStream in;
+        private final Header header;
+        private final long end;
+        private long position;
+        private DataInputStream block;
+        private int blockKeys = 0;
+
+        public Reader(String fileName, long start, long end) throws IOException {
+            this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+            try {
+                this.header = Header.read(new DataInputStream(Channels.newInputStream(channel)));
+                this.position = Math.max(start, channel.position());
+                this.end = Math.min(end, channel.size());
+                channel.position(position);
+                this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public Header getHeader() {
+            return header;
+        }
+
+        /**
+         * @return the values of the next key, or null when there are no more keys
+         */
+        public List<ByteBuffer> next() throws IOException {
+            while (blockKeys == 0) {
+                if (!nextBlock())
+                    return null;
+            }
+            blockKeys--;
+            List<ByteBuffer> values = new ArrayList<>(header.size());
+            for (int i = 0; i < header.size(); i++) {
+                int length = block.readInt();
+                if (length < 0) {
+                    values.add(null);
+                } else {
+                    byte[] bytes = new byte[length];
+                    block.readFully(bytes);
+                    values.add(ByteBuffer.wrap(bytes));
+                }
+            }
+            return values;
+        }
+
+        private boolean nextBlock() throws IOException {
+            if (position >= end)
+                return false;
+            long blockPosition = position;
+            int keyCount = in.readInt();
+            int rawLength = in.readInt();
+            byte[] compressed = new byte[in.readInt()];
+            long checksum = in.readLong();
+            in.readFully(compressed);
+            position += BLOCK_HEADER_SIZE + compressed.length;
+
+            byte[] data = inflate(compressed, rawLength, blockPosition);
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            if (crc.getValue() != checksum)
+                throw new IOException("Checksum mismatch in block at offset " + blockPosition);
+            block = new DataInputStream(new ByteArrayInputStream(data));
+            blockKeys = keyCount;
+            return true;
+        }
+
+        private static byte[] inflate(byte[] compressed, int rawLength, long blockPosition) throws IOException {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                byte[] data = new byte[rawLength];
+                int length = 0;
+                while (length < rawLength && !inflater.finished()) {
+                    int inflated = inflater.inflate(data, length, rawLength - length);
+                    if (inflated == 0 && inflater.needsInput())
+                        break;
+                    length += inflated;
+                }
+                if (length != rawLength)
+                    throw new IOException("Block at offset " + blockPosition + " is truncated");
+                return data;
+            } catch (DataFormatException e) {
+                throw new IOException("Block at offset " + blockPosition + " is corrupt", e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
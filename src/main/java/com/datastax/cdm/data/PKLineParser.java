@@ -0,0 +1,105 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.oss.driver.api.core.data.ByteUtils;
+import com.datastax.oss.driver.api.core.data.CqlDuration;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Parses a line of primary-key values separated by " %% ", as logged by EnhancedPK.toString(). The parser
+ * of each column is chosen once from its bind class; a value of "(null)" is parsed as null, and blobs are
+ * given as hex strings (0x...).
+ */
+public class PKLineParser {
+    public static final String SEPARATOR = " %% ";
+    public static final String NULL_VALUE = "(null)";
+
+    private interface FieldParser {
+        Object parse(String text);
+    }
+
+    private final FieldParser[] parsers;
+
+    public PKLineParser(List<Class> pkClasses) {
+        this.parsers = new FieldParser[pkClasses.size()];
+        for (int i = 0; i < parsers.length; i++) {
+            parsers[i] = parserFor(pkClasses.get(i));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the number of values is wrong, or a value cannot be parsed
+     */
+    public List<Object> parse(String line) {
+        List<Object> values = new ArrayList<>(parsers.length);
+        int start = 0;
+        for (int i = 0; i < parsers.length; i++) {
+            boolean last = (i == parsers.length - 1);
+            int end = line.indexOf(SEPARATOR, start);
+            if (last == (end >= 0)) {
+                throw new IllegalArgumentException("Expected " + parsers.length + " values separated by '" + SEPARATOR + "': " + line);
+            }
+            String text = last ? line.substring(start) : line.substring(start, end);
+            values.add(NULL_VALUE.equals(text) ? null : parsers[i].parse(text));
+            start = end + SEPARATOR.length();
+        }
+        return values;
+    }
+
+    private static FieldParser parserFor(Class pkClass) {
+        if (String.class.equals(pkClass)) return text -> text;
+        if (Integer.class.equals(pkClass)) return Integer::valueOf;
+        if (Long.class.equals(pkClass)) return Long::valueOf;
+        if (Short.class.equals(pkClass)) return Short::valueOf;
+        if (Byte.class.equals(pkClass)) return Byte::valueOf;
+        if (Double.class.equals(pkClass)) return Double::valueOf;
+        if (Float.class.equals(pkClass)) return Float::valueOf;
+        if (Boolean.class.equals(pkClass)) return Boolean::valueOf;
+        if (BigInteger.class.equals(pkClass)) return BigInteger::new;
+        if (BigDecimal.class.equals(pkClass)) return BigDecimal::new;
+        if (UUID.class.equals(pkClass)) return UUID::fromString;
+        if (Instant.class.equals(pkClass)) return Instant::parse;
+        if (LocalDate.class.equals(pkClass)) return LocalDate::parse;
+        if (LocalTime.class.equals(pkClass)) return LocalTime::parse;
+        if (CqlDuration.class.equals(pkClass)) return CqlDuration::from;
+        if (ByteBuffer.class.equals(pkClass)) return ByteUtils::fromHexString;
+        if (InetAddress.class.equals(pkClass)) return PKLineParser::parseInet;
+        return text -> {
+            throw new IllegalArgumentException("Primary key values of class " + pkClass.getName() + " cannot be parsed");
+        };
+    }
+
+    // InetAddress.toString() is hostname/address, where the hostname may be empty
+    private static InetAddress parseInet(String text) {
+        try {
+            return InetAddress.getByName(text.substring(text.indexOf('/') + 1));
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Invalid inet value: " + text, e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * An order-independent digest of the rows in a token range: the row count together with the sum,
+ * modulo 2^64, of the row hashes. Two ranges holding the same rows have the same digest however the
+ * rows were read, so origin rows can be digested as they are migrated and target rows later on.
+ */
+public class RangeDigest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long rowCount;
+    private long digest;
+
+    public RangeDigest() {
+        this(0L, 0L);
+    }
+
+    public RangeDigest(long rowCount, long digest) {
+        this.rowCount = rowCount;
+        this.digest = digest;
+    }
+
+    public void add(long rowHash) {
+        rowCount++;
+        digest += rowHash;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getDigest() {
+        return digest;
+    }
+
+    /**
+     * @param value as returned by {@link #toString()}
+     */
+    public static RangeDigest parse(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 2)
+            throw new IllegalArgumentException("Expected rowCount,digest but found: " + value);
+        return new RangeDigest(Long.parseLong(parts[0].trim()), Long.parseUnsignedLong(parts[1].trim(), 16));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RangeDigest that = (RangeDigest) o;
+        return rowCount == that.rowCount && digest == that.digest;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rowCount, digest);
+    }
+
+    @Override
+    public String toString() {
+        return rowCount + "," + String.format("%016x", digest);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.cdm.schema.CqlTable;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.shaded.guava.common.hash.HashFunction;
+import com.datastax.oss.driver.shaded.guava.common.hash.Hasher;
+import com.datastax.oss.driver.shaded.guava.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashes rows by the serialized form of the target columns that Migrate writes, which leaves out
+ * constant columns and target columns with no origin counterpart. Target rows are hashed from the
+ * bytes as read off the wire; origin values are passed through unchanged when the column types match,
+ * and otherwise converted and encoded with the target codec, as they would be when written.
+ */
+public class RowDigester {
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final CqlTable originTable;
+    private final int[] targetIndexes;
+    private final int[] originIndexes;
+    private final TypeCodec<Object>[] codecs;
+
+    public RowDigester(CqlTable originTable, CqlTable targetTable) {
+        this.originTable = originTable;
+        List<Integer> targetList = new ArrayList<>();
+        for (int targetIndex = 0; targetIndex < targetTable.getColumnNames(false).size(); targetIndex++) {
+            if (targetTable.getCorrespondingIndex(targetIndex) >= 0) {
+                targetList.add(targetIndex);
+            }
+        }
+
+        this.targetIndexes = new int[targetList.size()];
+        this.originIndexes = new int[targetList.size()];
+        this.codecs = new TypeCodec[targetList.size()];
+        for (int i = 0; i < targetList.size(); i++) {
+            targetIndexes[i] = targetList.get(i);
+            originIndexes[i] = targetTable.getCorrespondingIndex(targetIndexes[i]);
+            DataType targetType = targetTable.getDataType(targetIndexes[i]);
+            if (!targetType.equals(originTable.getDataType(originIndexes[i]))) {
+                codecs[i] = targetTable.getCodecRegistry().codecFor(targetType);
+            }
+        }
+    }
+
+    public long hashOrigin(Row originRow) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        for (int i = 0; i < originIndexes.length; i++) {
+            ByteBuffer bytes = originRow.getBytesUnsafe(originIndexes[i]);
+            if (null != codecs[i]) {
+                Object value = (null == bytes) ? originTable.convertNull(originIndexes[i]) : originTable.getAndConvertData(originIndexes[i], originRow);
+                bytes = (null == value) ? null : codecs[i].encode(value, CqlConversion.PROTOCOL_VERSION);
+            }
+            putBytes(hasher, bytes);
+        }
+        return hasher.hash().asLong();
+    }
+
+    /**
+     * @param targetRow row holding all target columns, in table order
+     */
+    public long hashTarget(Row targetRow) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        for (int targetIndex : targetIndexes) {
+            putBytes(hasher, targetRow.getBytesUnsafe(targetIndex));
+        }
+        return hasher.hash().asLong();
+    }
+
+    private static void putBytes(Hasher hasher, ByteBuffer bytes) {
+        if (null == bytes) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(bytes.remaining());
+            hasher.putBytes(bytes.duplicate());
+        }
+    }
+}
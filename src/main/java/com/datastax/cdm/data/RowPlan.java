@@ -0,0 +1,169 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.cdm.feature.ConstantColumns;
+import com.datastax.cdm.feature.ExplodeMap;
+import com.datastax.cdm.feature.Featureset;
+import com.datastax.cdm.feature.WritetimeTTL;
+import com.datastax.cdm.schema.CqlTable;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.DataType;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * How each target column gets its value from an origin row, worked out once from the column mapping
+ * and the enabled features rather than for every column of every row. Writes, guardrail checks and
+ * diffs all walk the same plan, indexed by target column.
+ */
+public class RowPlan {
+    public enum Op {
+        /** No origin counterpart and no feature supplies a value, e.g. a column only on target */
+        NONE,
+        /** The serialized origin value is bound as-is, as both columns share an encoding */
+        COPY,
+        /** The origin value is read and converted to the target type */
+        CONVERT,
+        /** The value is a CQL literal on the statement, so nothing is bound */
+        CONSTANT,
+        EXPLODE_KEY,
+        EXPLODE_VALUE,
+        /** The difference between the origin and target counter values is added */
+        COUNTER
+    }
+
+    private final CqlTable originTable;
+    private final CqlTable targetTable;
+    private final Op[] ops;
+    private final int[] originIndexes;
+    private final boolean usingTTL;
+    private final boolean usingWriteTime;
+
+    public RowPlan(CqlTable targetTable) {
+        this.targetTable = targetTable;
+        this.originTable = targetTable.getOtherCqlTable();
+
+        List<String> targetColumnNames = targetTable.getColumnNames(false);
+        List<DataType> targetColumnTypes = targetTable.getColumnCqlTypes();
+        List<DataType> originColumnTypes = originTable.getColumnCqlTypes();
+        List<Integer> counterIndexes = targetTable.getCounterIndexes();
+
+        List<String> constantColumnNames = null;
+        ConstantColumns constantColumns = (ConstantColumns) targetTable.getFeature(Featureset.CONSTANT_COLUMNS);
+        if (null != constantColumns && constantColumns.isEnabled())
+            constantColumnNames = constantColumns.getNames();
+
+        int explodeMapKeyIndex = -1;
+        int explodeMapValueIndex = -1;
+        ExplodeMap explodeMap = (ExplodeMap) targetTable.getFeature(Featureset.EXPLODE_MAP);
+        if (null != explodeMap && explodeMap.isEnabled()) {
+            explodeMapKeyIndex = explodeMap.getKeyColumnIndex();
+            explodeMapValueIndex = explodeMap.getValueColumnIndex();
+        }
+
+        WritetimeTTL writetimeTTL = (WritetimeTTL) targetTable.getFeature(Featureset.WRITETIME_TTL);
+        boolean writetimeTTLEnabled = null != writetimeTTL && writetimeTTL.isEnabled();
+        this.usingTTL = writetimeTTLEnabled && writetimeTTL.hasTTLColumns();
+        this.usingWriteTime = writetimeTTLEnabled && writetimeTTL.hasWritetimeColumns();
+
+        this.ops = new Op[targetColumnNames.size()];
+        this.originIndexes = new int[targetColumnNames.size()];
+        for (int targetIndex = 0; targetIndex < ops.length; targetIndex++) {
+            int originIndex = targetTable.getCorrespondingIndex(targetIndex);
+            originIndexes[targetIndex] = originIndex;
+            if (targetIndex == explodeMapKeyIndex)
+                ops[targetIndex] = Op.EXPLODE_KEY;
+            else if (targetIndex == explodeMapValueIndex)
+                ops[targetIndex] = Op.EXPLODE_VALUE;
+            else if (null != constantColumnNames && constantColumnNames.contains(targetColumnNames.get(targetIndex)))
+                ops[targetIndex] = Op.CONSTANT;
+            else if (originIndex < 0)
+                ops[targetIndex] = Op.NONE;
+            else if (null != counterIndexes && counterIndexes.contains(targetIndex))
+                ops[targetIndex] = Op.COUNTER;
+            else if (originIndex < originColumnTypes.size()
+                    && CqlData.hasSameEncoding(originColumnTypes.get(originIndex), targetColumnTypes.get(targetIndex)))
+                ops[targetIndex] = Op.COPY;
+            else
+                ops[targetIndex] = Op.CONVERT;
+        }
+    }
+
+    public int size() { return ops.length; }
+    public Op getOp(int targetIndex) { return ops[targetIndex]; }
+    public int getOriginIndex(int targetIndex) { return originIndexes[targetIndex]; }
+    public boolean isUsingTTL() { return usingTTL; }
+    public boolean isUsingWriteTime() { return usingWriteTime; }
+
+    /**
+     * @return the value the target column is written with, as its target bind class, or null
+     *         when the column is not written from the origin row (constant and unmapped columns)
+     */
+    public Object getTargetValue(int targetIndex, Row originRow, Object explodeMapKey, Object explodeMapValue) {
+        switch (ops[targetIndex]) {
+            case COPY:
+            case CONVERT:
+            case COUNTER:
+                return originTable.getAndConvertData(originIndexes[targetIndex], originRow);
+            case EXPLODE_KEY:
+                return explodeMapKey;
+            case EXPLODE_VALUE:
+                return explodeMapValue;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Binds the value of one target column, if the column has one to bind. A counter with no origin
+     * value still takes its bind position, leaving the marker unset so that the counter is unchanged.
+     *
+     * @return the next bind index
+     */
+    public int bind(BoundStatementBuilder builder, int bindIndex, int targetIndex, Row originRow, Row targetRow,
+                    Object explodeMapKey, Object explodeMapValue) {
+        int originIndex = originIndexes[targetIndex];
+        Object value;
+        switch (ops[targetIndex]) {
+            case NONE:
+            case CONSTANT:
+                return bindIndex;
+            case COUNTER:
+                Object originValue = originTable.getData(originIndex, originRow);
+                if (null == originValue)
+                    return bindIndex + 1;
+                Object targetValue = (null == targetRow ? 0L : targetTable.getData(targetIndex, targetRow));
+                value = (Long) originValue - (null == targetValue ? 0L : (Long) targetValue);
+                break;
+            case COPY:
+                // the origin value is serialized as the target expects it, so its bytes are bound without decoding
+                ByteBuffer bytes = originRow.getBytesUnsafe(originIndex);
+                if (null != bytes) {
+                    builder.setBytesUnsafe(bindIndex, bytes);
+                    return bindIndex + 1;
+                }
+                value = originTable.getAndConvertData(originIndex, originRow);
+                break;
+            default:
+                value = getTargetValue(targetIndex, originRow, explodeMapKey, explodeMapValue);
+        }
+        builder.set(bindIndex, value, targetTable.getBindClass(targetIndex));
+        return bindIndex + 1;
+    }
+}
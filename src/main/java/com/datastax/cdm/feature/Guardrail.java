@@ -16,6 +16,7 @@
 package com.datastax.cdm.feature;
 
 import com.datastax.cdm.data.Record;
+import com.datastax.cdm.data.RowPlan;
 import com.datastax.cdm.properties.IPropertyHelper;
 import com.datastax.cdm.properties.KnownProperties;
 import com.datastax.cdm.schema.CqlTable;
@@ -23,6 +24,7 @@ import com.datastax.oss.driver.api.core.cql.Row;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.text.DecimalFormat;
 import java.util.HashMap;
 import java.util.Map;
@@ -41,10 +43,7 @@ public class Guardrail extends AbstractFeature  {
     private CqlTable originTable;
     private CqlTable targetTable;
 
-    private ExplodeMap explodeMap = null;
-    private int explodeMapIndex = -1;
-    private int explodeMapKeyIndex = -1;
-    private int explodeMapValueIndex = -1;
+    private RowPlan rowPlan = null;
 
     @Override
     public boolean loadProperties(IPropertyHelper propertyHelper) {
@@ -96,8 +95,7 @@ public class Guardrail extends AbstractFeature  {
         return isValid;
     }
 
-    private Map<String,Integer> check(Map<String,Integer> currentChecks, int targetIndex, Object targetValue) {
-        int colSize = targetTable.byteCount(targetIndex, targetValue);
+    private Map<String,Integer> check(Map<String,Integer> currentChecks, int targetIndex, int colSize) {
         if (logTrace) logger.trace("Column {} at targetIndex {} has size {} bytes", targetTable.getColumnNames(false).get(targetIndex), targetIndex, colSize);
         if (colSize > colSizeInKB * BASE_FACTOR) {
             if (null==currentChecks) currentChecks = new HashMap();
@@ -115,21 +113,24 @@ public class Guardrail extends AbstractFeature  {
             return CLEAN_CHECK;
         Map<String,Integer> largeColumns = null;
 
-        // As the order of feature loading is not guaranteed, we wait until the first record to figure out the explodeMap
-        if (null==explodeMap) calcExplodeMap();
+        // As the order of feature loading is not guaranteed, we wait until the first record to compile the plan
+        if (null==rowPlan) rowPlan = new RowPlan(targetTable);
 
         Row row = record.getOriginRow();
-        for (int i=0; i<originTable.getColumnNames(false).size(); i++) {
-            if (i==explodeMapIndex) {
-                // Exploded columns are already converted to target type
-                largeColumns = check(largeColumns, explodeMapKeyIndex, record.getPk().getExplodeMapKey());
-                largeColumns = check(largeColumns, explodeMapValueIndex, record.getPk().getExplodeMapValue());
-            } else {
-                int targetIndex = originTable.getCorrespondingIndex(i);
-                if (targetIndex<0) continue; // TTL and WRITETIME columns for example
-                Object targetObject = originTable.getAndConvertData(i,row);
-                largeColumns = check(largeColumns, targetIndex, targetObject);
+        for (int targetIndex=0; targetIndex<rowPlan.size(); targetIndex++) {
+            RowPlan.Op op = rowPlan.getOp(targetIndex);
+            if (op==RowPlan.Op.NONE || op==RowPlan.Op.CONSTANT) continue; // nothing is written from the origin row
+            if (op==RowPlan.Op.COPY) {
+                // the origin value is written as serialized, so its size is known without encoding it again
+                ByteBuffer bytes = row.getBytesUnsafe(rowPlan.getOriginIndex(targetIndex));
+                if (null!=bytes) {
+                    largeColumns = check(largeColumns, targetIndex, bytes.remaining());
+                    continue;
+                }
             }
+            // Exploded columns are already converted to target type
+            Object targetObject = rowPlan.getTargetValue(targetIndex, row, record.getPk().getExplodeMapKey(), record.getPk().getExplodeMapValue());
+            largeColumns = check(largeColumns, targetIndex, targetTable.byteCount(targetIndex, targetObject));
         }
 
         if (null==largeColumns || largeColumns.isEmpty()) return CLEAN_CHECK;
@@ -144,14 +145,4 @@ public class Guardrail extends AbstractFeature  {
 
         return sb.toString();
     }
-
-    private void calcExplodeMap() {
-        this.explodeMap = (ExplodeMap) originTable.getFeature(Featureset.EXPLODE_MAP);
-        if (null!=explodeMap && explodeMap.isEnabled()) {
-            explodeMapIndex = explodeMap.getOriginColumnIndex();
-            explodeMapKeyIndex = explodeMap.getKeyColumnIndex();
-            explodeMapValueIndex = explodeMap.getValueColumnIndex();
-            if (logDebug) logger.debug("ExplodeMap is enabled. explodeMapIndex={}, explodeMapKeyIndex={}, explodeMapValueIndex={}", explodeMapIndex, explodeMapKeyIndex, explodeMapValueIndex);
-        }
-    }
 }
@@ -16,6 +16,7 @@
 package com.datastax.cdm.job;
 
 import com.datastax.cdm.cql.EnhancedSession;
+import com.datastax.cdm.data.DataUtility;
 import com.datastax.cdm.data.PKFactory;
 import com.datastax.cdm.feature.Feature;
 import com.datastax.cdm.feature.Featureset;
@@ -68,6 +69,10 @@ public abstract class AbstractJobSession<T> extends BaseJobSession {
 
         this.originSession = new EnhancedSession(propertyHelper, originSession, true);
         this.targetSession = new EnhancedSession(propertyHelper, targetSession, false);
+        if (isDiffColumnSubsetSupported() && DataUtility.applyDiffColumnSubset(propertyHelper, this.originSession.getCqlTable(), this.targetSession.getCqlTable())) {
+            logger.info("PARAM -- Diff Origin Columns: {}", this.originSession.getCqlTable().getColumnNames(false));
+            logger.info("PARAM -- Diff Target Columns: {}", this.targetSession.getCqlTable().getColumnNames(false));
+        }
         this.originSession.getCqlTable().setOtherCqlTable(this.targetSession.getCqlTable());
         this.targetSession.getCqlTable().setOtherCqlTable(this.originSession.getCqlTable());
         this.originSession.getCqlTable().setFeatureMap(featureMap);
@@ -93,6 +98,11 @@ public abstract class AbstractJobSession<T> extends BaseJobSession {
         this.guardrailEnabled = this.guardrailFeature.isEnabled();
     }
 
+    // Only validation jobs may restrict the columns they read, as a migration must copy every column
+    protected boolean isDiffColumnSubsetSupported() {
+        return false;
+    }
+
     public abstract void processSlice(T slice);
 
     public synchronized void printCounts(boolean isFinal) {
@@ -0,0 +1,80 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Bounds the number of outstanding asynchronous requests issued by a single thread, and hands
+ * each item back to that thread as soon as its request completes. Items are always consumed on
+ * the calling thread (never on a driver I/O thread), as the job counters are thread-local and
+ * the consumers may issue blocking statements.
+ */
+public class CompletionWindow<T> {
+    private final int size;
+    private final BlockingQueue<T> completed = new LinkedBlockingQueue<>();
+    private int outstanding = 0;
+
+    public CompletionWindow(int size) {
+        if (size < 1)
+            throw new IllegalArgumentException("Window size must be at least 1, got " + size);
+        this.size = size;
+    }
+
+    public void add(T item, CompletionStage<?> request) {
+        outstanding++;
+        request.whenComplete((result, error) -> completed.add(item));
+    }
+
+    public int getOutstanding() { return outstanding; }
+
+    /**
+     * Consumes whatever has completed so far, waiting only while the window is full.
+     */
+    public void drain(Consumer<T> consumer) {
+        while (outstanding >= size) {
+            consumer.accept(take());
+        }
+        T item;
+        while (null != (item = completed.poll())) {
+            outstanding--;
+            consumer.accept(item);
+        }
+    }
+
+    /**
+     * Waits for and consumes every outstanding item.
+     */
+    public void drainAll(Consumer<T> consumer) {
+        while (outstanding > 0) {
+            consumer.accept(take());
+        }
+    }
+
+    private T take() {
+        try {
+            T item = completed.take();
+            outstanding--;
+            return item;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for outstanding requests", e);
+        }
+    }
+}
@@ -18,9 +18,15 @@ package com.datastax.cdm.job;
 import com.datastax.cdm.cql.statement.OriginSelectByPartitionRangeStatement;
 import com.datastax.cdm.cql.statement.TargetSelectByPKStatement;
 import com.datastax.cdm.cql.statement.TargetUpsertStatement;
+import com.datastax.cdm.data.PKBloomFilter;
 import com.datastax.cdm.data.PKFactory;
+import com.datastax.cdm.data.RangeDigest;
 import com.datastax.cdm.data.Record;
+import com.datastax.cdm.data.RowDigester;
+import com.datastax.cdm.feature.Feature;
+import com.datastax.cdm.feature.Featureset;
 import com.datastax.cdm.feature.Guardrail;
+import com.datastax.cdm.properties.KnownProperties;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.*;
 import org.apache.logging.log4j.ThreadContext;
@@ -42,6 +48,7 @@ public class CopyJobSession extends AbstractJobSession<SplitPartitions.Partition
     public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
     private TargetUpsertStatement targetUpsertStatement;
     private TargetSelectByPKStatement targetSelectByPKStatement;
+    private final RowDigester rowDigester;
 
     protected CopyJobSession(CqlSession originSession, CqlSession targetSession, SparkConf sc) {
         super(originSession, targetSession, sc);
@@ -51,26 +58,51 @@ public class CopyJobSession extends AbstractJobSession<SplitPartitions.Partition
         isCounterTable = this.originSession.getCqlTable().isCounterTable();
         fetchSize = this.originSession.getCqlTable().getFetchSizeInRows();
         batchSize = this.originSession.getCqlTable().getBatchSize();
+        rowDigester = calcRowDigester();
 
         logger.info("CQL -- origin select: {}", this.originSession.getOriginSelectByPartitionRangeStatement().getCQL());
         logger.info("CQL -- target select: {}", this.targetSession.getTargetSelectByPKStatement().getCQL());
         logger.info("CQL -- target upsert: {}", this.targetSession.getTargetUpsertStatement().getCQL());
     }
 
+    private RowDigester calcRowDigester() {
+        if (!propertyHelper.getBoolean(KnownProperties.TOKEN_RANGE_MANIFEST_ENABLED)) {
+            return null;
+        }
+        Feature explodeMapFeature = this.originSession.getCqlTable().getFeature(Featureset.EXPLODE_MAP);
+        if (isCounterTable) {
+            logger.warn("{} is ignored, as counter increments cannot be digested", KnownProperties.TOKEN_RANGE_MANIFEST_ENABLED);
+        } else if (null != explodeMapFeature && explodeMapFeature.isEnabled()) {
+            logger.warn("{} is ignored, as one Origin row becomes many Target rows", KnownProperties.TOKEN_RANGE_MANIFEST_ENABLED);
+        } else if (!PKBloomFilter.isTokenAligned(this.originSession.getCqlTable(), this.targetSession.getCqlTable())) {
+            logger.warn("{} is ignored, as the Target partition key is not the same as the Origin partition key", KnownProperties.TOKEN_RANGE_MANIFEST_ENABLED);
+        } else {
+            logger.info("PARAM -- Manifest: digesting migrated rows per token range");
+            return new RowDigester(this.originSession.getCqlTable(), this.targetSession.getCqlTable());
+        }
+        return null;
+    }
+
     @Override
     public void processSlice(SplitPartitions.Partition slice) {
         this.getDataAndInsert(slice.getMin(), slice.getMax());
     }
 
-    public void getDataAndInsert(BigInteger min, BigInteger max) {
+    /**
+     * @return the digest of the rows written, when the manifest is enabled and the range was copied
+     * without errors, otherwise null
+     */
+    public RangeDigest getDataAndInsert(BigInteger min, BigInteger max) {
         ThreadContext.put(THREAD_CONTEXT_LABEL, getThreadLabel(min, max));
         logger.info("ThreadID: {} Processing min: {} max: {}", Thread.currentThread().getId(), min, max);
         BatchStatement batch = BatchStatement.newInstance(BatchType.UNLOGGED);
         boolean done = false;
+        RangeDigest rangeDigest = null;
         int maxAttempts = maxRetries + 1;
         String guardrailCheck;
         for (int attempts = 1; attempts <= maxAttempts && !done; attempts++) {
             jobCounter.threadReset();
+            rangeDigest = (null == rowDigester) ? null : new RangeDigest();
 
             try {
                 OriginSelectByPartitionRangeStatement originSelectByPartitionRangeStatement = this.originSession.getOriginSelectByPartitionRangeStatement();
@@ -105,6 +137,10 @@ public class CopyJobSession extends AbstractJobSession<SplitPartitions.Partition
                             continue;
                         }
 
+                        if (null != rangeDigest) {
+                            rangeDigest.add(rowDigester.hashOrigin(r.getOriginRow()));
+                        }
+
                         rateLimiterTarget.acquire(1);
                         batch = writeAsync(batch, writeResults, boundUpsert);
                         jobCounter.threadIncrement(JobCounter.CounterType.UNFLUSHED);
@@ -137,6 +173,7 @@ public class CopyJobSession extends AbstractJobSession<SplitPartitions.Partition
                 printCounts(false);
             }
         }
+        return done ? rangeDigest : null;
     }
 
     private void flushAndClearWrites(BatchStatement batch, Collection<CompletionStage<AsyncResultSet>> writeResults) throws Exception {
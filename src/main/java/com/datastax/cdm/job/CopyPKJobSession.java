@@ -16,37 +16,100 @@
 package com.datastax.cdm.job;
 
 import com.datastax.cdm.cql.statement.OriginSelectByPKStatement;
+import com.datastax.cdm.cql.statement.OriginSelectByPartitionKeyStatement;
+import com.datastax.cdm.cql.statement.TargetUpsertStatement;
+import com.datastax.cdm.data.CqlConversion;
 import com.datastax.cdm.data.EnhancedPK;
 import com.datastax.cdm.data.PKFactory;
+import com.datastax.cdm.data.PKFile;
+import com.datastax.cdm.data.PKLineParser;
 import com.datastax.cdm.data.Record;
 import com.datastax.cdm.feature.Guardrail;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.schema.CqlTable;
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.data.ByteUtils;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import org.apache.spark.SparkConf;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.beans.PropertyEditor;
-import java.beans.PropertyEditorManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
 
+/**
+ * Migrates the rows of a list of primary keys. Origin reads and Target writes are both asynchronous:
+ * up to pkWindow reads are outstanding at a time, each row is written as soon as its read completes,
+ * and up to pkWindow writes are outstanding at a time.
+ * <p>
+ * Keys of the same partition are read together, up to pkGroupSize per Origin read, and the returned rows
+ * are matched back to the requested keys. Up to pkWindow keys are held back waiting for their group to fill.
+ * <p>
+ * Keys are read from a text file of " %% " separated values, or from a binary file written by DiffData.
+ * With pkTokenOrder, the keys of all slices are first sorted by token, see getTokenKeys.
+ */
 public class CopyPKJobSession extends AbstractJobSession<SplitPartitions.PKRows> {
 
     private final PKFactory pkFactory;
     private final List<Class> originPKClasses;
-    private final boolean isCounterTable;
+    private final PKLineParser pkLineParser;
+    private final PKFile.Header originPKHeader;
+    private final List<TypeCodec<Object>> originPKCodecs;
+    private final int pkWindow;
+    private final int pkGroupSize;
+    private final int partitionKeySize;
+    private final int[] originPKIndexes;
     public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
     private OriginSelectByPKStatement originSelectByPKStatement;
+    private OriginSelectByPartitionKeyStatement originSelectByPartitionKeyStatement;
+    private TargetUpsertStatement targetUpsertStatement;
 
     protected CopyPKJobSession(CqlSession originSession, CqlSession targetSession, SparkConf sc) {
         super(originSession, targetSession, sc, true);
-        this.jobCounter.setRegisteredTypes(JobCounter.CounterType.READ, JobCounter.CounterType.WRITE, JobCounter.CounterType.SKIPPED, JobCounter.CounterType.MISSING);
+        this.jobCounter.setRegisteredTypes(JobCounter.CounterType.READ, JobCounter.CounterType.WRITE, JobCounter.CounterType.SKIPPED, JobCounter.CounterType.MISSING, JobCounter.CounterType.ERROR);
         pkFactory = this.originSession.getPKFactory();
-        isCounterTable = this.originSession.getCqlTable().isCounterTable();
-        originPKClasses = this.originSession.getCqlTable().getPKClasses();
+        CqlTable originTable = this.originSession.getCqlTable();
+        originPKClasses = pkFactory.getPKClasses(PKFactory.Side.ORIGIN);
+        pkLineParser = new PKLineParser(originPKClasses);
+        originPKHeader = PKFile.Header.of(originTable);
+        originPKCodecs = new ArrayList<>();
+        for (String name : originTable.getPKNames(false))
+            originPKCodecs.add(originTable.getCodecRegistry().codecFor(originTable.getDataType(originTable.indexOf(name))));
+
+        Integer window = propertyHelper.getInteger(KnownProperties.PERF_PK_WINDOW);
+        this.pkWindow = (null == window || window <= 0) ? originTable.getFetchSizeInRows() : window;
+        logger.info("PARAM -- PK Window: {}", pkWindow);
+
+        List<String> originPKNames = originTable.getPKNames(false);
+        this.partitionKeySize = originTable.getPartitionKeyNames(false).size();
+        this.originPKIndexes = originPKNames.stream().mapToInt(originTable::indexOf).toArray();
+        Integer groupSize = propertyHelper.getInteger(KnownProperties.PERF_PK_GROUP_SIZE);
+        if (null != groupSize && groupSize > 1 && partitionKeySize == originPKNames.size()) {
+            logger.warn("{} is ignored, as the Origin table has no clustering columns", KnownProperties.PERF_PK_GROUP_SIZE);
+            groupSize = 1;
+        }
+        this.pkGroupSize = (null == groupSize || groupSize < 1) ? 1 : groupSize;
+        logger.info("PARAM -- PK Group Size: {}", pkGroupSize);
 
         logger.info("CQL -- origin select: {}", this.originSession.getOriginSelectByPKStatement().getCQL());
+        if (pkGroupSize > 1)
+            logger.info("CQL -- origin select by partition: {}", this.originSession.getOriginSelectByPartitionKeyStatement().getCQL());
+        logger.info("CQL -- target upsert: {}", this.targetSession.getTargetUpsertStatement().getCQL());
     }
 
     @Override
@@ -55,25 +118,183 @@ public class CopyPKJobSession extends AbstractJobSession<SplitPartitions.PKRows>
     }
 
     public void getRowAndInsert(SplitPartitions.PKRows rowsList) {
+        prepareStatements();
+        KeyQueue keys = new KeyQueue();
+        jobCounter.threadReset();
+
+        try {
+            readKeys(rowsList, (row, pk) -> {
+                if (isValidKey(row, pk))
+                    keys.add(new PendingKey(row, pk));
+            });
+            keys.finish();
+        } finally {
+            jobCounter.globalIncrement();
+            printCounts(false);
+        }
+    }
+
+    // Reads the keys of a slice and computes the Origin token of each, so that the keys of all slices
+    // may be sorted by token before they are migrated with processTokenOrderedKeys
+    public List<TokenKey> getTokenKeys(SplitPartitions.PKRows rowsList) {
+        List<TokenKey> tokenKeys = new ArrayList<>();
+        jobCounter.threadReset();
+
+        try {
+            readKeys(rowsList, (row, pk) -> {
+                if (isValidKey(row, pk))
+                    tokenKeys.add(toTokenKey(pk));
+            });
+        } finally {
+            jobCounter.globalIncrement();
+        }
+        return tokenKeys;
+    }
+
+    // Migrates keys sorted by token, as serialized by getTokenKeys; the keys of a partition arrive together
+    public void processTokenOrderedKeys(Iterator<byte[][]> tokenOrderedKeys) {
+        prepareStatements();
+        KeyQueue keys = new KeyQueue();
+        jobCounter.threadReset();
+
+        try {
+            while (tokenOrderedKeys.hasNext()) {
+                byte[][] serialized = tokenOrderedKeys.next();
+                List<ByteBuffer> values = new ArrayList<>(serialized.length);
+                for (byte[] value : serialized)
+                    values.add(null == value ? null : ByteBuffer.wrap(value));
+                EnhancedPK pk = toEnhancedPK(values);
+                String row = (null == pk) ? toHexString(values) : pk.toString();
+                if (isValidKey(row, pk))
+                    keys.add(new PendingKey(row, pk));
+            }
+            keys.finish();
+        } finally {
+            jobCounter.globalIncrement();
+            printCounts(false);
+        }
+    }
+
+    private void prepareStatements() {
         originSelectByPKStatement = originSession.getOriginSelectByPKStatement();
-        for (String row : rowsList.getPkRows()) {
-            jobCounter.threadIncrement(JobCounter.CounterType.READ);
-            EnhancedPK pk = toEnhancedPK(row);
-            if (null == pk || pk.isError()) {
-                jobCounter.threadIncrement(JobCounter.CounterType.MISSING);
-                logger.error("Could not build PK object with value <{}>; error is: {}", row, (null == pk ? "null" : pk.getMessages()));
-                return;
+        originSelectByPartitionKeyStatement = pkGroupSize > 1 ? originSession.getOriginSelectByPartitionKeyStatement() : null;
+        targetUpsertStatement = targetSession.getTargetUpsertStatement();
+    }
+
+    // Passes each key of the slice, as its text and its parsed primary key, to the sink
+    private void readKeys(SplitPartitions.PKRows rowsList, BiConsumer<String, EnhancedPK> sink) {
+        try {
+            if (PKFile.isBinary(rowsList.getFileName())) {
+                readBinaryKeys(rowsList, sink);
+            } else {
+                readTextKeys(rowsList, sink);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading primary keys from file " + rowsList.getFileName(), e);
+        }
+    }
+
+    private void readTextKeys(SplitPartitions.PKRows rowsList, BiConsumer<String, EnhancedPK> sink) throws IOException {
+        try (BufferedReader reader = rowsList.getReader()) {
+            String row;
+            while ((row = reader.readLine()) != null) {
+                if (row.startsWith("#")) {
+                    continue;
+                }
+                jobCounter.threadIncrement(JobCounter.CounterType.READ);
+                sink.accept(row, toEnhancedPK(row));
             }
+        }
+    }
+
+    private void readBinaryKeys(SplitPartitions.PKRows rowsList, BiConsumer<String, EnhancedPK> sink) throws IOException {
+        try (PKFile.Reader reader = new PKFile.Reader(rowsList.getFileName(), rowsList.getStart(), rowsList.getEnd())) {
+            if (!originPKHeader.equals(reader.getHeader()))
+                throw new RuntimeException("File " + rowsList.getFileName() + " holds keys of columns " + reader.getHeader() + ", but the Origin primary key is " + originPKHeader);
+            List<ByteBuffer> values;
+            while ((values = reader.next()) != null) {
+                jobCounter.threadIncrement(JobCounter.CounterType.READ);
+                EnhancedPK pk = toEnhancedPK(values);
+                sink.accept(null == pk ? toHexString(values) : pk.toString(), pk);
+            }
+        }
+    }
 
-            rateLimiterOrigin.acquire(1);
-            Record recordFromOrigin = originSelectByPKStatement.getRecord(pk);
-            if (null == recordFromOrigin) {
+    private boolean isValidKey(String row, EnhancedPK pk) {
+        if (null == pk || pk.isError()) {
+            jobCounter.threadIncrement(JobCounter.CounterType.MISSING);
+            logger.error("Could not build PK object with value <{}>; error is: {}", row, (null == pk ? "null" : pk.getMessages()));
+            return false;
+        }
+        return true;
+    }
+
+    // Issues a single Origin read for keys that all belong to the same partition
+    private void read(List<PendingKey> keys, CompletionWindow<PendingRead> pendingReads, CompletionWindow<PendingKey> pendingWrites) {
+        rateLimiterOrigin.acquire(1);
+        CompletionStage<AsyncResultSet> result;
+        if (keys.size() == 1) {
+            result = originSelectByPKStatement.getAsyncResult(keys.get(0).pk);
+        } else {
+            List<EnhancedPK> pks = new ArrayList<>(keys.size());
+            for (PendingKey key : keys)
+                pks.add(key.pk);
+            result = originSelectByPartitionKeyStatement.getAsyncResult(pks);
+        }
+        if (null == result) {
+            for (PendingKey key : keys) {
                 jobCounter.threadIncrement(JobCounter.CounterType.MISSING);
-                logger.error("Could not find origin row with primary-key: {}", row);
-                return;
+                logger.error("Could not bind origin select for primary-key: {}", key.row);
             }
-            Row originRow = recordFromOrigin.getOriginRow();
+            return;
+        }
+        PendingRead pending = new PendingRead(keys, result);
+        pendingReads.add(pending, result);
+        pendingReads.drain(read -> completeRead(read, pendingWrites));
+    }
+
+    // Called once an Origin read has completed: matches the returned rows back to the requested keys
+    private void completeRead(PendingRead read, CompletionWindow<PendingKey> pendingWrites) {
+        Map<List<Object>, List<PendingKey>> requested = new HashMap<>();
+        for (PendingKey key : read.keys)
+            requested.computeIfAbsent(key.pk.getPKValues(), k -> new ArrayList<>(1)).add(key);
 
+        try {
+            AsyncResultSet resultSet = read.result.toCompletableFuture().get();
+            while (!requested.isEmpty()) {
+                for (Row originRow : resultSet.currentPage()) {
+                    if (requested.isEmpty())
+                        break;
+                    // a key read on its own needs no matching
+                    List<PendingKey> keys = read.keys.size() == 1 ? read.keys : requested.get(originPKValues(originRow));
+                    if (null == keys)
+                        continue;
+                    for (PendingKey key : keys)
+                        write(key, originRow, pendingWrites);
+                    requested.remove(keys.get(0).pk.getPKValues());
+                }
+                if (!resultSet.hasMorePages())
+                    break;
+                resultSet = resultSet.fetchNextPage().toCompletableFuture().get();
+            }
+            for (List<PendingKey> keys : requested.values()) {
+                for (PendingKey key : keys) {
+                    jobCounter.threadIncrement(JobCounter.CounterType.MISSING);
+                    logger.error("Could not find origin row with primary-key: {}", key.row);
+                }
+            }
+        } catch (Exception e) {
+            for (List<PendingKey> keys : requested.values()) {
+                for (PendingKey key : keys) {
+                    jobCounter.threadIncrement(JobCounter.CounterType.ERROR);
+                    logger.error("Error reading origin row with primary-key: {}", key.row, e);
+                }
+            }
+        }
+    }
+
+    private void write(PendingKey pending, Row originRow, CompletionWindow<PendingKey> pendingWrites) {
+        try {
             Record record = new Record(pkFactory.getTargetPK(originRow), originRow, null);
             if (originSelectByPKStatement.shouldFilterRecord(record)) {
                 jobCounter.threadIncrement(JobCounter.CounterType.SKIPPED);
@@ -89,27 +310,159 @@ public class CopyPKJobSession extends AbstractJobSession<SplitPartitions.PKRows>
                 }
             }
 
+            BoundStatement boundUpsert = targetUpsertStatement.bindRecord(record);
+            if (null == boundUpsert) {
+                jobCounter.threadIncrement(JobCounter.CounterType.SKIPPED);
+                return;
+            }
+
             rateLimiterTarget.acquire(1);
-            targetSession.getTargetUpsertStatement().putRecord(record);
-            jobCounter.threadIncrement(JobCounter.CounterType.WRITE);
+            pending.result = targetUpsertStatement.executeAsync(boundUpsert);
+            pendingWrites.add(pending, pending.result);
+            pendingWrites.drain(this::completeWrite);
+        } catch (Exception e) {
+            jobCounter.threadIncrement(JobCounter.CounterType.ERROR);
+            logger.error("Error writing target row with primary-key: {}", pending.row, e);
+        }
+    }
 
-            jobCounter.globalIncrement();
-            printCounts(false);
+    // Called once the Target write of the key has completed
+    private void completeWrite(PendingKey pending) {
+        try {
+            pending.result.toCompletableFuture().get();
+            jobCounter.threadIncrement(JobCounter.CounterType.WRITE);
+        } catch (Exception e) {
+            jobCounter.threadIncrement(JobCounter.CounterType.ERROR);
+            logger.error("Error writing target row with primary-key: {}", pending.row, e);
         }
+    }
 
-        printCounts(true);
+    private List<Object> originPKValues(Row originRow) {
+        List<Object> values = new ArrayList<>(originPKIndexes.length);
+        for (int index : originPKIndexes)
+            values.add(originSession.getCqlTable().getData(index, originRow));
+        return values;
     }
 
     private EnhancedPK toEnhancedPK(String rowString) {
-        String[] pkFields = rowString.split(" %% ");
-        List<Object> values = new ArrayList<>(originPKClasses.size());
-        if (logger.isDebugEnabled()) logger.debug("rowString={}, pkFields={}", rowString, pkFields);
-        for (int i = 0; i < pkFields.length; i++) {
-            PropertyEditor editor = PropertyEditorManager.findEditor(originPKClasses.get(i));
-            editor.setAsText(pkFields[i]);
-            values.add(editor.getValue());
+        try {
+            return pkFactory.toEnhancedPK(pkLineParser.parse(rowString), originPKClasses);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            logger.error("Could not parse primary-key values <{}>: {}", rowString, e.getMessage());
+            return null;
+        }
+    }
+
+    private EnhancedPK toEnhancedPK(List<ByteBuffer> values) {
+        try {
+            List<Object> pkValues = new ArrayList<>(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                ByteBuffer value = values.get(i);
+                pkValues.add(null == value ? null : originPKCodecs.get(i).decode(value, CqlConversion.PROTOCOL_VERSION));
+            }
+            return pkFactory.toEnhancedPK(pkValues, originPKClasses);
+        } catch (RuntimeException e) {
+            logger.error("Could not decode primary-key values {}: {}", toHexString(values), e.getMessage());
+            return null;
+        }
+    }
+
+    // Serialized values that could not be decoded, as they would be written in CQL
+    private static String toHexString(List<ByteBuffer> values) {
+        List<String> hex = new ArrayList<>(values.size());
+        for (ByteBuffer value : values)
+            hex.add(null == value ? "null" : ByteUtils.toHexString(value));
+        return hex.toString();
+    }
+
+    private TokenKey toTokenKey(EnhancedPK pk) {
+        List<Object> pkValues = pk.getPKValues();
+        byte[][] values = new byte[pkValues.size()][];
+        ByteBuffer[] partitionKey = new ByteBuffer[partitionKeySize];
+        for (int i = 0; i < values.length; i++) {
+            ByteBuffer value = originPKCodecs.get(i).encode(pkValues.get(i), CqlConversion.PROTOCOL_VERSION);
+            if (i < partitionKeySize)
+                partitionKey[i] = value;
+            values[i] = null == value ? null : ByteUtils.getArray(value);
+        }
+        return new TokenKey(originSession.getCqlTable().getToken(partitionKey), values);
+    }
+
+    // Groups the keys of a slice by partition, and issues their Origin reads
+    private class KeyQueue {
+        private final CompletionWindow<PendingRead> pendingReads = new CompletionWindow<>(pkWindow);
+        private final CompletionWindow<PendingKey> pendingWrites = new CompletionWindow<>(pkWindow);
+        private final Map<List<Object>, List<PendingKey>> groups = new LinkedHashMap<>();
+        private int groupedKeys = 0;
+
+        private void add(PendingKey key) {
+            if (pkGroupSize <= 1) {
+                read(Collections.singletonList(key), pendingReads, pendingWrites);
+                return;
+            }
+
+            List<Object> partitionValues = new ArrayList<>(key.pk.getPKValues().subList(0, partitionKeySize));
+            List<PendingKey> group = groups.computeIfAbsent(partitionValues, k -> new ArrayList<>(pkGroupSize));
+            group.add(key);
+            groupedKeys++;
+            if (group.size() >= pkGroupSize) {
+                groups.remove(partitionValues);
+                groupedKeys -= group.size();
+                read(group, pendingReads, pendingWrites);
+            } else if (groupedKeys >= pkWindow) {
+                Iterator<List<PendingKey>> eldest = groups.values().iterator();
+                List<PendingKey> eldestGroup = eldest.next();
+                eldest.remove();
+                groupedKeys -= eldestGroup.size();
+                read(eldestGroup, pendingReads, pendingWrites);
+            }
+        }
+
+        // Reads the groups still waiting to fill, and waits for all reads and writes to complete
+        private void finish() {
+            for (List<PendingKey> group : groups.values())
+                read(group, pendingReads, pendingWrites);
+            groups.clear();
+            pendingReads.drainAll(read -> completeRead(read, pendingWrites));
+            pendingWrites.drainAll(CopyPKJobSession.this::completeWrite);
+        }
+    }
+
+    // The serialized values of a primary key, and the Origin token of its partition
+    public static class TokenKey {
+        private final BigInteger token;
+        private final byte[][] values;
+
+        private TokenKey(BigInteger token, byte[][] values) {
+            this.token = token;
+            this.values = values;
+        }
+
+        public BigInteger getToken() { return token; }
+        public byte[][] getValues() { return values; }
+    }
+
+    // A key line from the file, and its Target write once the Origin row has been read
+    private static class PendingKey {
+        private final String row;
+        private final EnhancedPK pk;
+        private CompletionStage<AsyncResultSet> result;
+
+        private PendingKey(String row, EnhancedPK pk) {
+            this.row = row;
+            this.pk = pk;
+        }
+    }
+
+    // An outstanding Origin read, for one or more keys of the same partition
+    private static class PendingRead {
+        private final List<PendingKey> keys;
+        private final CompletionStage<AsyncResultSet> result;
+
+        private PendingRead(List<PendingKey> keys, CompletionStage<AsyncResultSet> result) {
+            this.keys = keys;
+            this.result = result;
         }
-        return pkFactory.toEnhancedPK(values, pkFactory.getPKClasses(PKFactory.Side.ORIGIN));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.cql.statement.CountByPartitionRangeStatement;
+import com.datastax.cdm.data.PKBloomFilter;
+import com.datastax.cdm.feature.Feature;
+import com.datastax.cdm.feature.Featureset;
+import com.datastax.cdm.feature.WritetimeTTL;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.spark.SparkConf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Compares the row counts of Origin and Target over each token range, using a single
+ * COUNT(*) query per side. Ranges whose counts differ are returned so that they can be
+ * written to a partition file and passed on to DiffData.
+ */
+public class CountJobSession extends AbstractJobSession<SplitPartitions.Partition> {
+    public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    public CountJobSession(CqlSession originSession, CqlSession targetSession, SparkConf sc) {
+        super(originSession, targetSession, sc);
+        this.jobCounter.setRegisteredTypes(JobCounter.CounterType.READ, JobCounter.CounterType.TARGET_READ,
+                JobCounter.CounterType.VALID_RANGE, JobCounter.CounterType.MISMATCH_RANGE, JobCounter.CounterType.ERROR);
+
+        Feature explodeMapFeature = this.originSession.getCqlTable().getFeature(Featureset.EXPLODE_MAP);
+        if (null != explodeMapFeature && explodeMapFeature.isEnabled()) {
+            throw new RuntimeException("Row count validation is not supported with Explode Map, as one Origin row becomes many Target rows");
+        }
+        if (!PKBloomFilter.isTokenAligned(this.originSession.getCqlTable(), this.targetSession.getCqlTable())) {
+            throw new RuntimeException("Row count validation requires the Target partition key to hash to the same token as the Origin partition key");
+        }
+        WritetimeTTL writetimeTTLFeature = (WritetimeTTL) this.originSession.getCqlTable().getFeature(Featureset.WRITETIME_TTL);
+        if (null != writetimeTTLFeature && writetimeTTLFeature.isEnabled() && writetimeTTLFeature.hasWriteTimestampFilter()) {
+            logger.warn("The writetime filter cannot be applied to COUNT queries; Origin counts will include rows outside the filter");
+        }
+
+        logger.info("CQL -- origin count: {}", this.originSession.getCountByPartitionRangeStatement().getCQL());
+        logger.info("CQL -- target count: {}", this.targetSession.getCountByPartitionRangeStatement().getCQL());
+    }
+
+    @Override
+    public void processSlice(SplitPartitions.Partition slice) {
+        this.countSlice(slice);
+    }
+
+    /**
+     * @return the slice if its counts differ or could not be obtained, otherwise null
+     */
+    public SplitPartitions.Partition countSlice(SplitPartitions.Partition slice) {
+        BigInteger min = slice.getMin();
+        BigInteger max = slice.getMax();
+        ThreadContext.put(THREAD_CONTEXT_LABEL, getThreadLabel(min, max));
+        logger.info("ThreadID: {} Processing min: {} max: {}", Thread.currentThread().getId(), min, max);
+        CountByPartitionRangeStatement originCountStatement = originSession.getCountByPartitionRangeStatement();
+        CountByPartitionRangeStatement targetCountStatement = targetSession.getCountByPartitionRangeStatement();
+        int maxAttempts = maxRetries + 1;
+        for (int attempts = 1; attempts <= maxAttempts; attempts++) {
+            try {
+                jobCounter.threadReset();
+
+                rateLimiterOrigin.acquire(1);
+                rateLimiterTarget.acquire(1);
+                CompletionStage<AsyncResultSet> originResult = originCountStatement.countAsync(min, max);
+                CompletionStage<AsyncResultSet> targetResult = targetCountStatement.countAsync(min, max);
+                long originCount = CountByPartitionRangeStatement.getCount(originResult);
+                long targetCount = CountByPartitionRangeStatement.getCount(targetResult);
+                jobCounter.threadIncrement(JobCounter.CounterType.READ, originCount);
+                jobCounter.threadIncrement(JobCounter.CounterType.TARGET_READ, targetCount);
+
+                if (originCount == targetCount) {
+                    jobCounter.threadIncrement(JobCounter.CounterType.VALID_RANGE);
+                    return null;
+                }
+                jobCounter.threadIncrement(JobCounter.CounterType.MISMATCH_RANGE);
+                logger.error("Row count mismatch for token range min: {} max: {} -- origin: {} target: {}", min, max, originCount, targetCount);
+                return slice;
+            } catch (Exception e) {
+                logger.error("Error with PartitionRange -- ThreadID: {} Processing min: {} max: {} -- Attempt# {}",
+                        Thread.currentThread().getId(), min, max, attempts, e);
+                if (attempts == maxAttempts) {
+                    jobCounter.threadIncrement(JobCounter.CounterType.ERROR);
+                }
+            } finally {
+                jobCounter.globalIncrement();
+                printCounts(false);
+            }
+        }
+        // a range that could not be counted still needs to be diffed
+        return slice;
+    }
+}
@@ -17,36 +17,44 @@ package com.datastax.cdm.job;
 
 import com.datastax.cdm.cql.statement.OriginSelectByPartitionRangeStatement;
 import com.datastax.cdm.cql.statement.TargetSelectByPKStatement;
+import com.datastax.cdm.cql.statement.TargetSelectMetadataByPKStatement;
+import com.datastax.cdm.cql.statement.TargetSelectByPartitionRangeStatement;
 import com.datastax.cdm.data.CqlData;
 import com.datastax.cdm.data.DataUtility;
 import com.datastax.cdm.data.EnhancedPK;
+import com.datastax.cdm.data.PKBloomFilter;
 import com.datastax.cdm.data.PKFactory;
+import com.datastax.cdm.data.PKFile;
 import com.datastax.cdm.data.Record;
-import com.datastax.cdm.feature.ConstantColumns;
-import com.datastax.cdm.feature.ExplodeMap;
+import com.datastax.cdm.data.RowPlan;
 import com.datastax.cdm.feature.Featureset;
 import com.datastax.cdm.feature.Guardrail;
+import com.datastax.cdm.feature.WritetimeTTL;
 import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.schema.CqlTable;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.type.DataType;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.spark.SparkConf;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.DoubleAccumulator;
 import java.util.stream.IntStream;
 import java.util.stream.StreamSupport;
 
 public class DiffJobSession extends CopyJobSession {
+    private static final int PK_FILE_BLOCK_KEYS = 1000;
     protected final Boolean autoCorrectMissing;
     protected final Boolean autoCorrectMismatch;
     private final boolean isCounterTable;
@@ -54,21 +62,60 @@ public class DiffJobSession extends CopyJobSession {
     private final List<String> targetColumnNames;
     private final List<DataType> targetColumnTypes;
     private final List<DataType> originColumnTypes;
-    private final int explodeMapKeyIndex;
-    private final int explodeMapValueIndex;
-    private final List<Integer> constantColumnIndexes;
+    private final RowPlan rowPlan;
+    private final boolean bloomFilterEnabled;
+    private final boolean bloomFilterCompareContent;
+    private final long bloomFilterExpectedRows;
+    private final double bloomFilterFpp;
+    private final DoubleAccumulator largestBloomFilterFpp = new DoubleAccumulator(Math::max, 0);
+    protected final int targetReadWindow;
+    protected final TargetSelectMetadataByPKStatement targetSelectMetadataStatement;
+    private final WritetimeTTL incrementalWritetimeFeature;
+    private final int statisticsExamples;
+    private final int samplePerPartitionLimit;
+    private final ThreadLocal<MismatchStatistics> sliceStatistics = new ThreadLocal<>();
+    private final String pkFileName;
+    private final PKFile.Header originPKHeader;
+    private final int[] originPKIndexes;
+    // keys of the current attempt at a slice, written to the PK file only once the attempt has succeeded
+    private final ThreadLocal<List<List<ByteBuffer>>> sliceKeys = new ThreadLocal<>();
     public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
     boolean logDebug = logger.isDebugEnabled();
     boolean logTrace = logger.isTraceEnabled();
 
     public DiffJobSession(CqlSession originSession, CqlSession targetSession, SparkConf sc) {
+        this(originSession, targetSession, sc, false);
+    }
+
+    // With correctInline, missing and mismatched rows are always corrected, whatever the autocorrect settings
+    protected DiffJobSession(CqlSession originSession, CqlSession targetSession, SparkConf sc, boolean correctInline) {
         super(originSession, targetSession, sc);
-        this.jobCounter.setRegisteredTypes(JobCounter.CounterType.READ, JobCounter.CounterType.VALID, JobCounter.CounterType.MISMATCH, JobCounter.CounterType.CORRECTED_MISMATCH, JobCounter.CounterType.MISSING, JobCounter.CounterType.CORRECTED_MISSING, JobCounter.CounterType.SKIPPED);
 
-        autoCorrectMissing = propertyHelper.getBoolean(KnownProperties.AUTOCORRECT_MISSING);
+        boolean incrementalRequested = propertyHelper.getBoolean(KnownProperties.DIFF_INCREMENTAL_ENABLED);
+        WritetimeTTL writetimeTTLFeature = (WritetimeTTL) this.originSession.getCqlTable().getFeature(Featureset.WRITETIME_TTL);
+        if (incrementalRequested && !hasOriginWritetimes(writetimeTTLFeature)) {
+            logger.warn("{} is ignored, as it requires {} or {}, and no {}", KnownProperties.DIFF_INCREMENTAL_ENABLED, KnownProperties.ORIGIN_WRITETIME_NAMES, KnownProperties.ORIGIN_WRITETIME_AUTO, KnownProperties.TRANSFORM_CUSTOM_WRITETIME);
+            incrementalRequested = false;
+        }
+        this.incrementalWritetimeFeature = incrementalRequested ? writetimeTTLFeature : null;
+        logger.info("PARAM -- Incremental: {}", incrementalRequested);
+
+        if (incrementalRequested) {
+            this.jobCounter.setRegisteredTypes(JobCounter.CounterType.READ, JobCounter.CounterType.VALID, JobCounter.CounterType.MISMATCH, JobCounter.CounterType.CORRECTED_MISMATCH, JobCounter.CounterType.MISSING, JobCounter.CounterType.CORRECTED_MISSING, JobCounter.CounterType.UNCHANGED, JobCounter.CounterType.SKIPPED);
+        } else {
+            this.jobCounter.setRegisteredTypes(JobCounter.CounterType.READ, JobCounter.CounterType.VALID, JobCounter.CounterType.MISMATCH, JobCounter.CounterType.CORRECTED_MISMATCH, JobCounter.CounterType.MISSING, JobCounter.CounterType.CORRECTED_MISSING, JobCounter.CounterType.SKIPPED);
+        }
+
+        boolean autoCorrectMissingRequested = correctInline || propertyHelper.getBoolean(KnownProperties.AUTOCORRECT_MISSING);
+        if (autoCorrectMissingRequested && hasDiffColumnSubset()) {
+            // a missing row would be inserted with only the compared columns
+            logger.warn("{} is ignored, as {} or {} is set", KnownProperties.AUTOCORRECT_MISSING, KnownProperties.DIFF_COLUMNS_INCLUDE, KnownProperties.DIFF_COLUMNS_EXCLUDE);
+            autoCorrectMissingRequested = false;
+        }
+        autoCorrectMissing = autoCorrectMissingRequested;
         logger.info("PARAM -- Autocorrect Missing: {}", autoCorrectMissing);
 
-        autoCorrectMismatch = propertyHelper.getBoolean(KnownProperties.AUTOCORRECT_MISMATCH);
+        autoCorrectMismatch = correctInline || propertyHelper.getBoolean(KnownProperties.AUTOCORRECT_MISMATCH);
         logger.info("PARAM -- Autocorrect Mismatch: {}", autoCorrectMismatch);
 
         this.isCounterTable = this.originSession.getCqlTable().isCounterTable();
@@ -77,38 +124,144 @@ public class DiffJobSession extends CopyJobSession {
         this.targetColumnTypes = this.targetSession.getCqlTable().getColumnCqlTypes();
         this.originColumnTypes = this.originSession.getCqlTable().getColumnCqlTypes();
 
-        ConstantColumns constantColumnsFeature = (ConstantColumns) this.targetSession.getCqlTable().getFeature(Featureset.CONSTANT_COLUMNS);
-        if (null != constantColumnsFeature && constantColumnsFeature.isEnabled()) {
-            constantColumnIndexes = constantColumnsFeature.getNames().stream()
-                    .map(targetColumnNames::indexOf)
-                    .collect(Collectors.toList());
-            if (logDebug) logger.debug("Constant Column Indexes {}", this.constantColumnIndexes);
-        } else {
-            constantColumnIndexes = Collections.emptyList();
+        this.rowPlan = new RowPlan(this.targetSession.getCqlTable());
+
+        boolean bloomFilterRequested = propertyHelper.getBoolean(KnownProperties.BLOOM_FILTER_ENABLED);
+        if (bloomFilterRequested && !PKBloomFilter.isTokenAligned(this.originSession.getCqlTable(), this.targetSession.getCqlTable())) {
+            logger.warn("{} is ignored, as the Target partition key is not the same as the Origin partition key", KnownProperties.BLOOM_FILTER_ENABLED);
+            bloomFilterRequested = false;
         }
+        this.bloomFilterEnabled = bloomFilterRequested;
+        this.bloomFilterCompareContent = propertyHelper.getBoolean(KnownProperties.BLOOM_FILTER_COMPARE_CONTENT);
+        this.bloomFilterExpectedRows = propertyHelper.getLong(KnownProperties.BLOOM_FILTER_EXPECTED_ROWS);
+        this.bloomFilterFpp = propertyHelper.getInteger(KnownProperties.BLOOM_FILTER_FPP_BASIS_POINTS) / 10000.0;
+        logger.info("PARAM -- Bloom Filter: {}", bloomFilterEnabled);
+        if (bloomFilterEnabled) {
+            logger.info("PARAM -- Bloom Filter Compare Content: {}", bloomFilterCompareContent);
+            logger.info("PARAM -- Bloom Filter Expected Rows: {} False Positive Probability: {}", bloomFilterExpectedRows, bloomFilterFpp);
+            logger.info("CQL -- target PK select: {}", this.targetSession.getTargetSelectPKByPartitionRangeStatement().getCQL());
+        }
+
+        Integer window = propertyHelper.getInteger(KnownProperties.DIFF_TARGET_READ_WINDOW);
+        this.targetReadWindow = (null == window || window <= 0) ? this.targetSession.getCqlTable().getFetchSizeInRows() : window;
+        logger.info("PARAM -- Target Read Window: {}", targetReadWindow);
 
-        ExplodeMap explodeMapFeature = (ExplodeMap) this.targetSession.getCqlTable().getFeature(Featureset.EXPLODE_MAP);
-        if (null != explodeMapFeature && explodeMapFeature.isEnabled()) {
-            this.explodeMapKeyIndex = this.targetSession.getCqlTable().indexOf(explodeMapFeature.getKeyColumnName());
-            this.explodeMapValueIndex = this.targetSession.getCqlTable().indexOf(explodeMapFeature.getValueColumnName());
-            if (logDebug)
-                logger.debug("Explode Map KeyIndex={}, ValueIndex={}", this.explodeMapKeyIndex, this.explodeMapValueIndex);
+        boolean metadataOnlyRequested = propertyHelper.getBoolean(KnownProperties.DIFF_METADATA_ONLY);
+        if (metadataOnlyRequested && !hasOriginWritetimes(writetimeTTLFeature)) {
+            logger.warn("{} is ignored, as it requires {} or {}, and no {}", KnownProperties.DIFF_METADATA_ONLY, KnownProperties.ORIGIN_WRITETIME_NAMES, KnownProperties.ORIGIN_WRITETIME_AUTO, KnownProperties.TRANSFORM_CUSTOM_WRITETIME);
+            metadataOnlyRequested = false;
+        }
+        logger.info("PARAM -- Metadata Only: {}", metadataOnlyRequested);
+        if (metadataOnlyRequested) {
+            this.targetSelectMetadataStatement = this.targetSession.getTargetSelectMetadataByPKStatement();
+            logger.info("CQL -- target metadata select: {}", this.targetSelectMetadataStatement.getCQL());
         } else {
-            this.explodeMapKeyIndex = -1;
-            this.explodeMapValueIndex = -1;
+            this.targetSelectMetadataStatement = null;
         }
 
+        Integer examples = propertyHelper.getInteger(KnownProperties.DIFF_STATISTICS_EXAMPLES);
+        this.statisticsExamples = (null == examples) ? 0 : examples;
+        logger.info("PARAM -- Mismatch Statistics Examples: {}", statisticsExamples);
+
+        String pkFile = propertyHelper.getString(KnownProperties.DIFF_PK_FILE);
+        this.pkFileName = StringUtils.isBlank(pkFile) ? null : pkFile.trim();
+        CqlTable originTable = this.originSession.getCqlTable();
+        this.originPKHeader = (null == pkFileName) ? null : PKFile.Header.of(originTable);
+        this.originPKIndexes = originTable.getPKNames(false).stream().mapToInt(originTable::indexOf).toArray();
+        logger.info("PARAM -- PK File: {}", pkFileName);
+
+        Integer perPartitionLimit = propertyHelper.getBoolean(KnownProperties.SAMPLE_ENABLED)
+                ? propertyHelper.getInteger(KnownProperties.SAMPLE_PER_PARTITION_LIMIT) : null;
+        this.samplePerPartitionLimit = (null == perPartitionLimit) ? 0 : perPartitionLimit;
+
         logger.info("CQL -- origin select: {}", this.originSession.getOriginSelectByPartitionRangeStatement().getCQL());
+        if (samplePerPartitionLimit > 0) {
+            logger.info("CQL -- origin sample select: {}", this.originSession.getOriginSelectByPartitionRangeStatement(samplePerPartitionLimit).getCQL());
+        }
         logger.info("CQL -- target select: {}", this.targetSession.getTargetSelectByPKStatement().getCQL());
         logger.info("CQL -- target upsert: {}", this.targetSession.getTargetUpsertStatement().getCQL());
     }
 
+    // True when each Origin row carries its own WRITETIME() values, rather than a custom writetime
+    private static boolean hasOriginWritetimes(WritetimeTTL writetimeTTLFeature) {
+        return null != writetimeTTLFeature && writetimeTTLFeature.isEnabled() && writetimeTTLFeature.getCustomWritetime() <= 0
+                && null != writetimeTTLFeature.getWritetimeNames() && !writetimeTTLFeature.getWritetimeNames().isEmpty();
+    }
+
+    @Override
+    protected boolean isDiffColumnSubsetSupported() {
+        return true;
+    }
+
+    private boolean hasDiffColumnSubset() {
+        if (!isDiffColumnSubsetSupported())
+            return false;
+        List<String> include = propertyHelper.getStringList(KnownProperties.DIFF_COLUMNS_INCLUDE);
+        List<String> exclude = propertyHelper.getStringList(KnownProperties.DIFF_COLUMNS_EXCLUDE);
+        return (null != include && !include.isEmpty()) || (null != exclude && !exclude.isEmpty());
+    }
+
     @Override
     public void processSlice(SplitPartitions.Partition slice) {
         this.getDataAndDiff(slice.getMin(), slice.getMax());
     }
 
-    public void getDataAndDiff(BigInteger min, BigInteger max) {
+    /**
+     * Validates the slice as {@link #processSlice} does, and returns the differences found in it per
+     * column so that the driver can merge them into a summary of the whole table.
+     */
+    public MismatchStatistics diffSliceWithStatistics(SplitPartitions.Partition slice) {
+        sliceStatistics.set(new MismatchStatistics(targetColumnNames, statisticsExamples));
+        try {
+            this.getDataAndDiff(slice.getMin(), slice.getMax());
+            return sliceStatistics.get();
+        } finally {
+            sliceStatistics.remove();
+        }
+    }
+
+    /**
+     * Validates the slice as {@link #processSlice} does, and returns the outcome of this one range
+     * so that the driver can estimate table-wide rates from a sample of ranges. A range that could
+     * not be validated is left out of the sample, rather than counted with the rows it got through.
+     */
+    public SampleStatistics sampleSlice(SplitPartitions.Partition slice) {
+        if (!this.getDataAndDiff(slice.getMin(), slice.getMax(), null, samplePerPartitionLimit)) {
+            logger.warn("Range min: {} max: {} is excluded from the sample, as it failed on every attempt", slice.getMin(), slice.getMax());
+            return new SampleStatistics();
+        }
+        long mismatches = jobCounter.getCount(JobCounter.CounterType.MISMATCH);
+        long missing = jobCounter.getCount(JobCounter.CounterType.MISSING);
+        SampleStatistics rtn = new SampleStatistics();
+        rtn.addRange(jobCounter.getCount(JobCounter.CounterType.VALID) + mismatches + missing, mismatches, missing);
+        return rtn;
+    }
+
+    /**
+     * Validates only the rows of the slice whose largest Origin write timestamp is at or after the
+     * given watermark (all rows when it is null), and returns the watermark the slice has now been
+     * validated up to: runWatermark when the slice completed with nothing left uncorrected, and
+     * the given watermark otherwise so that the same rows are validated again next time.
+     */
+    public Long diffSliceIncremental(SplitPartitions.Partition slice, Long watermark, long runWatermark) {
+        boolean done = this.getDataAndDiff(slice.getMin(), slice.getMax(), null == incrementalWritetimeFeature ? null : watermark, 0);
+        long uncorrected = jobCounter.getCount(JobCounter.CounterType.MISMATCH) - jobCounter.getCount(JobCounter.CounterType.CORRECTED_MISMATCH)
+                + jobCounter.getCount(JobCounter.CounterType.MISSING) - jobCounter.getCount(JobCounter.CounterType.CORRECTED_MISSING);
+        if (done && uncorrected == 0) {
+            return runWatermark;
+        }
+        logger.warn("Watermark not advanced for min: {} max: {}, as it has {} uncorrected differences or did not complete", slice.getMin(), slice.getMax(), uncorrected);
+        return watermark;
+    }
+
+    public boolean getDataAndDiff(BigInteger min, BigInteger max) {
+        return getDataAndDiff(min, max, null, 0);
+    }
+
+    // Rows whose largest write timestamp is before minWriteTimestamp are counted as unchanged without
+    // building their primary key or reading Target, and a perPartitionLimit above zero reads only
+    // that many rows of each partition
+    private boolean getDataAndDiff(BigInteger min, BigInteger max, Long minWriteTimestamp, int perPartitionLimit) {
         ThreadContext.put(THREAD_CONTEXT_LABEL, getThreadLabel(min, max));
         logger.info("ThreadID: {} Processing min: {} max: {}", Thread.currentThread().getId(), min, max);
         boolean done = false;
@@ -116,16 +269,30 @@ public class DiffJobSession extends CopyJobSession {
         for (int attempts = 1; attempts <= maxAttempts && !done; attempts++) {
             try {
                 jobCounter.threadReset();
+                if (null != sliceStatistics.get()) {
+                    sliceStatistics.set(new MismatchStatistics(targetColumnNames, statisticsExamples));
+                }
+                sliceKeys.set((null == pkFileName) ? null : new ArrayList<>());
 
                 PKFactory pkFactory = originSession.getPKFactory();
-                OriginSelectByPartitionRangeStatement originSelectByPartitionRangeStatement = originSession.getOriginSelectByPartitionRangeStatement();
+                OriginSelectByPartitionRangeStatement originSelectByPartitionRangeStatement = (perPartitionLimit > 0)
+                        ? originSession.getOriginSelectByPartitionRangeStatement(perPartitionLimit)
+                        : originSession.getOriginSelectByPartitionRangeStatement();
                 ResultSet resultSet = originSelectByPartitionRangeStatement.execute(originSelectByPartitionRangeStatement.bind(min, max));
                 TargetSelectByPKStatement targetSelectByPKStatement = targetSession.getTargetSelectByPKStatement();
-                Integer fetchSizeInRows = originSession.getCqlTable().getFetchSizeInRows();
+                PKBloomFilter targetPKFilter = bloomFilterEnabled ? getTargetPKFilter(min, max) : null;
 
-                List<Record> recordsToDiff = new ArrayList<>(fetchSizeInRows);
+                CompletionWindow<PendingDiff> pendingDiffs = new CompletionWindow<>(targetReadWindow);
                 StreamSupport.stream(resultSet.spliterator(), false).forEach(originRow -> {
                     rateLimiterOrigin.acquire(1);
+                    if (null != minWriteTimestamp) {
+                        Long writeTimestamp = incrementalWritetimeFeature.getLargestWriteTimeStamp(originRow);
+                        if (null != writeTimestamp && writeTimestamp < minWriteTimestamp) {
+                            jobCounter.threadIncrement(JobCounter.CounterType.READ);
+                            jobCounter.threadIncrement(JobCounter.CounterType.UNCHANGED);
+                            return;
+                        }
+                    }
                     Record record = new Record(pkFactory.getTargetPK(originRow), originRow, null);
                     jobCounter.threadIncrement(JobCounter.CounterType.READ);
 
@@ -143,22 +310,31 @@ public class DiffJobSession extends CopyJobSession {
                                 }
                             }
 
-                            rateLimiterTarget.acquire(1);
-                            CompletionStage<AsyncResultSet> targetResult = targetSelectByPKStatement.getAsyncResult(r.getPk());
-
-                            if (null == targetResult) {
-                                jobCounter.threadIncrement(JobCounter.CounterType.SKIPPED);
+                            if (null != targetPKFilter && !targetPKFilter.mightContain(r.getPk())) {
+                                // certainly not on target, so there is nothing to read; diff will report it missing
+                                diffRecord(new PendingDiff(r, true), pendingDiffs);
+                            } else if (null != targetPKFilter && !bloomFilterCompareContent) {
+                                jobCounter.threadIncrement(JobCounter.CounterType.VALID);
                             } else {
-                                r.setAsyncTargetRow(targetResult);
-                                recordsToDiff.add(r);
-                                if (recordsToDiff.size() > fetchSizeInRows) {
-                                    diffAndClear(recordsToDiff);
+                                rateLimiterTarget.acquire(1);
+                                CompletionStage<AsyncResultSet> targetResult = (null != targetSelectMetadataStatement)
+                                        ? targetSelectMetadataStatement.getAsyncResult(r.getPk())
+                                        : targetSelectByPKStatement.getAsyncResult(r.getPk());
+                                if (null == targetResult) {
+                                    jobCounter.threadIncrement(JobCounter.CounterType.SKIPPED);
+                                    continue;
                                 }
-                            } // targetRecord!=null
+                                r.setAsyncTargetRow(targetResult);
+                                pendingDiffs.add(new PendingDiff(r, null == targetSelectMetadataStatement), targetResult);
+                            }
+
+                            // diff what has been read so far, waiting only when the window is full
+                            pendingDiffs.drain(pending -> diffRecord(pending, pendingDiffs));
                         } // recordSet iterator
                     } // shouldFilterRecord
                 });
-                diffAndClear(recordsToDiff);
+                pendingDiffs.drainAll(pending -> diffRecord(pending, pendingDiffs));
+                writeKeys(min, max);
                 done = true;
             } catch (Exception e) {
                 logger.error("Error with PartitionRange -- ThreadID: {} Processing min: {} max: {} -- Attempt# {}",
@@ -167,31 +343,87 @@ public class DiffJobSession extends CopyJobSession {
                     logFailedPartitionsInFile(partitionFile, min, max);
                 }
             } finally {
+                sliceKeys.remove();
                 jobCounter.globalIncrement();
                 printCounts(false);
             }
         }
+        return done;
     }
 
-    private void diffAndClear(List<Record> recordsToDiff) {
-        for (Record record : recordsToDiff) {
-            try {
-                diff(record);
-            } catch (Exception e) {
-                logger.error("Could not perform diff for key {}: {}", record.getPk(), e);
+    private PKBloomFilter getTargetPKFilter(BigInteger min, BigInteger max) {
+        PKBloomFilter filter = new PKBloomFilter(targetSession.getPKFactory(), targetSession.getCqlTable(), bloomFilterExpectedRows, bloomFilterFpp);
+        TargetSelectByPartitionRangeStatement targetSelectPKStatement = targetSession.getTargetSelectPKByPartitionRangeStatement();
+        for (Row targetPKRow : targetSelectPKStatement.execute(targetSelectPKStatement.bind(min, max))) {
+            rateLimiterTarget.acquire(1);
+            filter.put(targetPKRow);
+        }
+        double expectedFpp = filter.expectedFpp();
+        largestBloomFilterFpp.accumulate(expectedFpp);
+        if (logDebug) logger.debug("Target PK filter for min: {} max: {} has expected false positive probability {}", min, max, expectedFpp);
+        return filter;
+    }
+
+    @Override
+    public synchronized void printCounts(boolean isFinal) {
+        super.printCounts(isFinal);
+        if (isFinal && bloomFilterEnabled) {
+            logger.info("Final Bloom Filter Expected False Positive Probability: {} (largest of any range)", largestBloomFilterFpp.get());
+            if (!bloomFilterCompareContent) {
+                // a false positive is counted as valid without reading Target, so the row is never reported missing
+                logger.info("Final Missing Record Count is a lower bound, as {} is not set", KnownProperties.BLOOM_FILTER_COMPARE_CONTENT);
             }
         }
-        recordsToDiff.clear();
+    }
+
+    // Called once the Target read of the record has completed. A row whose metadata differs is
+    // put back into the window with a read of the full row, and diffed once that read completes.
+    protected void diffRecord(PendingDiff pending, CompletionWindow<PendingDiff> pendingDiffs) {
+        Record record = pending.record;
+        try {
+            if (!pending.fullRow && !readFullRow(record, pendingDiffs))
+                return;
+            diff(record);
+        } catch (Exception e) {
+            logger.error("Could not perform diff for key {}: {}", record.getPk(), e);
+        }
+    }
+
+    // With metadata-only validation, the Target row on the record holds only the primary key and
+    // the WRITETIME/TTL columns. Rows whose metadata matches are valid; rows whose metadata does not
+    // are read in full so that diff() can compare the values. Returns true when the record is to be
+    // diffed straight away.
+    private boolean readFullRow(Record record, CompletionWindow<PendingDiff> pendingDiffs) {
+        Row targetMetadataRow = record.getTargetRow();
+        if (null == targetMetadataRow)
+            return true; // reported missing by diff()
+
+        if (targetSelectMetadataStatement.matches(record.getPk(), targetMetadataRow)) {
+            jobCounter.threadIncrement(JobCounter.CounterType.VALID);
+            return false;
+        }
+
+        if (logDebug) logger.debug("Metadata differs for key {}, comparing full values", record.getPk());
+        rateLimiterTarget.acquire(1);
+        CompletionStage<AsyncResultSet> targetResult = targetSession.getTargetSelectByPKStatement().getAsyncResult(record.getPk());
+        record.setAsyncTargetRow(targetResult);
+        if (null == targetResult)
+            return true; // reported missing by diff()
+        pendingDiffs.add(new PendingDiff(record, true), targetResult);
+        return false;
     }
 
     private void diff(Record record) {
         EnhancedPK originPK = record.getPk();
         Row originRow = record.getOriginRow();
         Row targetRow = record.getTargetRow();
+        MismatchStatistics statistics = sliceStatistics.get();
 
         if (targetRow == null) {
             jobCounter.threadIncrement(JobCounter.CounterType.MISSING);
+            if (null != statistics) statistics.addMissing(record.getPk());
             logger.error("Missing target row found for key: {}", record.getPk());
+            writeKey(record);
             if (autoCorrectMissing && isCounterTable && !forceCounterWhenMissing) {
                 logger.error("{} is true, but not Inserting as {} is not enabled; key : {}", KnownProperties.AUTOCORRECT_MISSING, KnownProperties.AUTOCORRECT_MISSING_COUNTER, record.getPk());
                 return;
@@ -207,10 +439,17 @@ public class DiffJobSession extends CopyJobSession {
             return;
         }
 
-        String diffData = isDifferent(originPK, originRow, targetRow);
+        MismatchStatistics.Kind[] columnKinds = (null == statistics) ? null : new MismatchStatistics.Kind[targetColumnNames.size()];
+        String diffData = isDifferent(originPK, originRow, targetRow, columnKinds);
         if (!diffData.isEmpty()) {
             jobCounter.threadIncrement(JobCounter.CounterType.MISMATCH);
+            if (null != statistics) {
+                for (int targetIndex = 0; targetIndex < columnKinds.length; targetIndex++) {
+                    if (null != columnKinds[targetIndex]) statistics.add(columnKinds[targetIndex], targetIndex, originPK);
+                }
+            }
             logger.error("Mismatch row found for key: {} Mismatch: {}", record.getPk(), diffData);
+            writeKey(record);
 
             if (autoCorrectMismatch) {
                 rateLimiterTarget.acquire(1);
@@ -223,7 +462,34 @@ public class DiffJobSession extends CopyJobSession {
         }
     }
 
-    private String isDifferent(EnhancedPK pk, Row originRow, Row targetRow) {
+    // Adds the Origin primary key of a missing or mismatched row to the keys of the slice, when a PK file is set
+    private void writeKey(Record record) {
+        List<List<ByteBuffer>> keys = sliceKeys.get();
+        if (null == keys)
+            return;
+        List<ByteBuffer> values = new ArrayList<>(originPKIndexes.length);
+        for (int index : originPKIndexes)
+            values.add(record.getOriginRow().getBytesUnsafe(index));
+        keys.add(values);
+    }
+
+    // Writes the keys of a slice to the PK file; a failed attempt never gets here, so a retry does not repeat its keys
+    private void writeKeys(BigInteger min, BigInteger max) {
+        List<List<ByteBuffer>> keys = sliceKeys.get();
+        if (null == keys || keys.isEmpty())
+            return;
+        PKFile.Writer pkWriter = new PKFile.Writer(pkFileName, originPKHeader, PK_FILE_BLOCK_KEYS);
+        try {
+            for (List<ByteBuffer> values : keys)
+                pkWriter.add(values);
+            pkWriter.flush();
+        } catch (IOException e) {
+            logger.error("Could not write the keys of range min: {} max: {} to {}", min, max, pkFileName, e);
+        }
+    }
+
+    // When columnKinds is not null, the kind of difference found in each target column is set on it
+    private String isDifferent(EnhancedPK pk, Row originRow, Row targetRow, MismatchStatistics.Kind[] columnKinds) {
         StringBuffer diffData = new StringBuffer();
         IntStream.range(0, targetColumnNames.size()).parallel().forEach(targetIndex -> {
             String previousLabel = ThreadContext.get(THREAD_CONTEXT_LABEL);
@@ -233,27 +499,31 @@ public class DiffJobSession extends CopyJobSession {
                 int originIndex = -2; // this to distinguish default from indexOf result
                 Object targetAsOriginType = null;
                 try {
-                    if (constantColumnIndexes.contains(targetIndex)) {
+                    RowPlan.Op op = rowPlan.getOp(targetIndex);
+                    if (op == RowPlan.Op.CONSTANT) {
                         if (logTrace)
                             logger.trace("PK {}, targetIndex {} skipping constant column {}", pk, targetIndex, targetColumnNames.get(targetIndex));
                         return; // nothing to compare in origin
                     }
                     targetAsOriginType = targetSession.getCqlTable().getAndConvertData(targetIndex, targetRow);
-                    originIndex = targetSession.getCqlTable().getCorrespondingIndex(targetIndex);
-                    if (originIndex >= 0) {
-                        origin = originSession.getCqlTable().getData(originIndex, originRow);
-                        if (logTrace)
-                            logger.trace("PK {}, targetIndex {} column {} using value from origin table at index {}: {}", pk, targetIndex, targetColumnNames.get(targetIndex), originIndex, origin);
-                    } else if (targetIndex == explodeMapKeyIndex) {
-                        origin = pk.getExplodeMapKey();
-                        if (logTrace)
-                            logger.trace("PK {}, targetIndex {} column {} using explodeMapKey stored on PK: {}", pk, targetIndex, targetColumnNames.get(targetIndex), origin);
-                    } else if (targetIndex == explodeMapValueIndex) {
-                        origin = pk.getExplodeMapValue();
-                        if (logTrace)
-                            logger.trace("PK {}, targetIndex {} column {} using explodeMapValue stored on PK: {}", pk, targetIndex, targetColumnNames.get(targetIndex), origin);
-                    } else {
-                        throw new RuntimeException("Target column \"" + targetColumnNames.get(targetIndex) + "\" at index " + targetIndex + " cannot be found on Origin, and is neither a constant column (indexes:" + constantColumnIndexes + ") nor an explode map column (keyIndex:" + explodeMapKeyIndex + ", valueIndex:" + explodeMapValueIndex + ")");
+                    switch (op) {
+                        case EXPLODE_KEY:
+                            origin = pk.getExplodeMapKey();
+                            if (logTrace)
+                                logger.trace("PK {}, targetIndex {} column {} using explodeMapKey stored on PK: {}", pk, targetIndex, targetColumnNames.get(targetIndex), origin);
+                            break;
+                        case EXPLODE_VALUE:
+                            origin = pk.getExplodeMapValue();
+                            if (logTrace)
+                                logger.trace("PK {}, targetIndex {} column {} using explodeMapValue stored on PK: {}", pk, targetIndex, targetColumnNames.get(targetIndex), origin);
+                            break;
+                        case NONE:
+                            throw new RuntimeException("Target column \"" + targetColumnNames.get(targetIndex) + "\" at index " + targetIndex + " cannot be found on Origin, and is neither a constant column nor an explode map column");
+                        default:
+                            originIndex = rowPlan.getOriginIndex(targetIndex);
+                            origin = originSession.getCqlTable().getData(originIndex, originRow);
+                            if (logTrace)
+                                logger.trace("PK {}, targetIndex {} column {} using value from origin table at index {}: {}", pk, targetIndex, targetColumnNames.get(targetIndex), originIndex, origin);
                     }
 
                     if (logDebug)
@@ -265,6 +535,7 @@ public class DiffJobSession extends CopyJobSession {
                         diffData.append("Target column:").append(targetColumnNames.get(targetIndex))
                                 .append("-origin[").append(originContent).append("]")
                                 .append("-target[").append(targetContent).append("]; ");
+                        if (null != columnKinds) columnKinds[targetIndex] = MismatchStatistics.Kind.MISMATCH;
                     }
                 } catch (Exception e) {
                     String exceptionName;
@@ -275,6 +546,7 @@ public class DiffJobSession extends CopyJobSession {
                         exceptionName = e + "@" + myClassMethodLine;
                     }
                     diffData.append("Target column:").append(targetColumnNames.get(targetIndex)).append(" Exception ").append(exceptionName).append(" targetIndex:").append(targetIndex).append(" originIndex:").append(originIndex).append("; ");
+                    if (null != columnKinds) columnKinds[targetIndex] = MismatchStatistics.Kind.EXCEPTION;
                 }
             } finally {
                 ThreadContext.put(THREAD_CONTEXT_LABEL, previousLabel);
@@ -283,4 +555,14 @@ public class DiffJobSession extends CopyJobSession {
         return diffData.toString();
     }
 
+    // A record with an outstanding Target read, of the full row or, with metadata-only validation, of its metadata
+    protected static class PendingDiff {
+        private final Record record;
+        private final boolean fullRow;
+
+        protected PendingDiff(Record record, boolean fullRow) {
+            this.record = record;
+            this.fullRow = fullRow;
+        }
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.data.RangeDigest;
+import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.cdm.properties.KnownProperties;
+
+import java.io.IOException;
+
+/**
+ * Digests of the rows migrated into each token range, persisted as min,max,rowCount,digest lines.
+ * Migrate replaces the entries of the ranges it copies, and drops those of ranges that fail, so the
+ * manifest only describes ranges whose last copy completed.
+ */
+public class DigestManifest extends TokenRangeStore<RangeDigest> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected RangeDigest parseValue(String value) {
+        return RangeDigest.parse(value);
+    }
+
+    @Override
+    protected String getHeader() {
+        return "min,max,row count,row digest";
+    }
+
+    public static DigestManifest load(String fileName) throws IOException {
+        DigestManifest rtn = new DigestManifest();
+        rtn.read(fileName);
+        return rtn;
+    }
+
+    public static String getManifestFile(IPropertyHelper propertyHelper) {
+        return getFile(propertyHelper, KnownProperties.TOKEN_RANGE_MANIFEST_FILE, "manifest");
+    }
+}
@@ -25,7 +25,7 @@ public class JobCounter {
 
     // Enumeration for counter types
     public enum CounterType {
-        READ, WRITE, VALID, ERROR, MISMATCH, MISSING, CORRECTED_MISSING, CORRECTED_MISMATCH, SKIPPED, UNFLUSHED, LARGE
+        READ, WRITE, VALID, ERROR, MISMATCH, MISSING, CORRECTED_MISSING, CORRECTED_MISMATCH, ORPHAN, CORRECTED_ORPHAN, SKIPPED, UNFLUSHED, LARGE, TARGET_READ, VALID_RANGE, MISMATCH_RANGE, UNCHANGED
     }
 
     // Logger instance
@@ -178,11 +178,17 @@ public class JobCounter {
     public void printFinal() {
         logger.info("################################################################################################");
         if (counterMap.containsKey(CounterType.READ))               logger.info("Final Read Record Count: {}", counterMap.get(CounterType.READ).getGlobalCounter());
+        if (counterMap.containsKey(CounterType.TARGET_READ))        logger.info("Final Target Read Record Count: {}", counterMap.get(CounterType.TARGET_READ).getGlobalCounter());
+        if (counterMap.containsKey(CounterType.VALID_RANGE))        logger.info("Final Valid Range Count: {}", counterMap.get(CounterType.VALID_RANGE).getGlobalCounter());
+        if (counterMap.containsKey(CounterType.MISMATCH_RANGE))     logger.info("Final Mismatch Range Count: {}", counterMap.get(CounterType.MISMATCH_RANGE).getGlobalCounter());
         if (counterMap.containsKey(CounterType.MISMATCH))           logger.info("Final Mismatch Record Count: {}", counterMap.get(CounterType.MISMATCH).getGlobalCounter());
         if (counterMap.containsKey(CounterType.CORRECTED_MISMATCH)) logger.info("Final Corrected Mismatch Record Count: {}", counterMap.get(CounterType.CORRECTED_MISMATCH).getGlobalCounter());
         if (counterMap.containsKey(CounterType.MISSING))            logger.info("Final Missing Record Count: {}", counterMap.get(CounterType.MISSING).getGlobalCounter());
         if (counterMap.containsKey(CounterType.CORRECTED_MISSING))  logger.info("Final Corrected Missing Record Count: {}", counterMap.get(CounterType.CORRECTED_MISSING).getGlobalCounter());
+        if (counterMap.containsKey(CounterType.ORPHAN))             logger.info("Final Orphan Record Count: {}", counterMap.get(CounterType.ORPHAN).getGlobalCounter());
+        if (counterMap.containsKey(CounterType.CORRECTED_ORPHAN))   logger.info("Final Deleted Orphan Record Count: {}", counterMap.get(CounterType.CORRECTED_ORPHAN).getGlobalCounter());
         if (counterMap.containsKey(CounterType.VALID))              logger.info("Final Valid Record Count: {}", counterMap.get(CounterType.VALID).getGlobalCounter());
+        if (counterMap.containsKey(CounterType.UNCHANGED))          logger.info("Final Unchanged Record Count: {}", counterMap.get(CounterType.UNCHANGED).getGlobalCounter());
         if (counterMap.containsKey(CounterType.SKIPPED))            logger.info("Final Skipped Record Count: {}", counterMap.get(CounterType.SKIPPED).getGlobalCounter());
         if (counterMap.containsKey(CounterType.WRITE))              logger.info("Final Write Record Count: {}", counterMap.get(CounterType.WRITE).getGlobalCounter());
         if (counterMap.containsKey(CounterType.ERROR))              logger.info("Final Error Record Count: {}", counterMap.get(CounterType.ERROR).getGlobalCounter());
@@ -0,0 +1,129 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.cql.statement.TargetSelectByPartitionRangeStatement;
+import com.datastax.cdm.data.PKBloomFilter;
+import com.datastax.cdm.data.RangeDigest;
+import com.datastax.cdm.data.RowDigester;
+import com.datastax.cdm.feature.Feature;
+import com.datastax.cdm.feature.Featureset;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.spark.SparkConf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * Verifies Target against the manifest written by Migrate: each token range is scanned on Target
+ * only, and its rows are digested and compared with the digest of the rows that were migrated into
+ * it. Ranges whose digests differ are returned so that they can be passed on to DiffData.
+ */
+public class ManifestJobSession extends AbstractJobSession<SplitPartitions.Partition> {
+    public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final RowDigester rowDigester;
+    private DigestManifest manifest;
+
+    public ManifestJobSession(CqlSession originSession, CqlSession targetSession, SparkConf sc) {
+        super(originSession, targetSession, sc);
+        this.jobCounter.setRegisteredTypes(JobCounter.CounterType.TARGET_READ,
+                JobCounter.CounterType.VALID_RANGE, JobCounter.CounterType.MISMATCH_RANGE, JobCounter.CounterType.ERROR);
+
+        Feature explodeMapFeature = this.originSession.getCqlTable().getFeature(Featureset.EXPLODE_MAP);
+        if (null != explodeMapFeature && explodeMapFeature.isEnabled()) {
+            throw new RuntimeException("Manifest verification is not supported with Explode Map, as one Origin row becomes many Target rows");
+        }
+        if (!PKBloomFilter.isTokenAligned(this.originSession.getCqlTable(), this.targetSession.getCqlTable())) {
+            throw new RuntimeException("Manifest verification requires the Target partition key to hash to the same token as the Origin partition key");
+        }
+        rowDigester = new RowDigester(this.originSession.getCqlTable(), this.targetSession.getCqlTable());
+
+        logger.info("CQL -- target select: {}", this.targetSession.getTargetSelectByPartitionRangeStatement().getCQL());
+    }
+
+    /**
+     * Verifies the slice against its digest in the manifest file, which is read on first use.
+     * VerifyManifest instead reads the manifest once on the driver and calls {@link #verifySlice}.
+     */
+    @Override
+    public void processSlice(SplitPartitions.Partition slice) {
+        if (null != verifySlice(slice, getManifest().get(slice))) {
+            logger.warn("Token range min: {} max: {} does not match the manifest, and needs to be validated with DiffData", slice.getMin(), slice.getMax());
+        }
+    }
+
+    private synchronized DigestManifest getManifest() {
+        if (null == manifest) {
+            String manifestFile = DigestManifest.getManifestFile(propertyHelper);
+            try {
+                manifest = DigestManifest.load(manifestFile);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not read manifest file " + manifestFile, e);
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * @return the slice if its digest differs from the expected one or could not be computed, otherwise null
+     */
+    public SplitPartitions.Partition verifySlice(SplitPartitions.Partition slice, RangeDigest expected) {
+        BigInteger min = slice.getMin();
+        BigInteger max = slice.getMax();
+        ThreadContext.put(THREAD_CONTEXT_LABEL, getThreadLabel(min, max));
+        logger.info("ThreadID: {} Processing min: {} max: {}", Thread.currentThread().getId(), min, max);
+        TargetSelectByPartitionRangeStatement targetSelectStatement = targetSession.getTargetSelectByPartitionRangeStatement();
+        int maxAttempts = maxRetries + 1;
+        for (int attempts = 1; attempts <= maxAttempts; attempts++) {
+            try {
+                jobCounter.threadReset();
+
+                RangeDigest actual = new RangeDigest();
+                ResultSet resultSet = targetSelectStatement.execute(targetSelectStatement.bind(min, max));
+                for (Row targetRow : resultSet) {
+                    rateLimiterTarget.acquire(1);
+                    jobCounter.threadIncrement(JobCounter.CounterType.TARGET_READ);
+                    actual.add(rowDigester.hashTarget(targetRow));
+                }
+
+                if (actual.equals(expected)) {
+                    jobCounter.threadIncrement(JobCounter.CounterType.VALID_RANGE);
+                    return null;
+                }
+                jobCounter.threadIncrement(JobCounter.CounterType.MISMATCH_RANGE);
+                logger.error("Digest mismatch for token range min: {} max: {} -- manifest: {} target: {}", min, max, expected, actual);
+                return slice;
+            } catch (Exception e) {
+                logger.error("Error with PartitionRange -- ThreadID: {} Processing min: {} max: {} -- Attempt# {}",
+                        Thread.currentThread().getId(), min, max, attempts, e);
+                if (attempts == maxAttempts) {
+                    jobCounter.threadIncrement(JobCounter.CounterType.ERROR);
+                }
+            } finally {
+                jobCounter.globalIncrement();
+                printCounts(false);
+            }
+        }
+        // a range that could not be verified still needs to be diffed
+        return slice;
+    }
+}
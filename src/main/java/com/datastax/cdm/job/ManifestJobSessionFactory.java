@@ -0,0 +1,34 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import org.apache.spark.SparkConf;
+
+public class ManifestJobSessionFactory implements IJobSessionFactory<SplitPartitions.Partition> {
+    private static ManifestJobSession jobSession = null;
+
+    public AbstractJobSession<SplitPartitions.Partition> getInstance(CqlSession originSession, CqlSession targetSession, SparkConf sc) {
+        if (jobSession == null) {
+            synchronized (ManifestJobSession.class) {
+                if (jobSession == null) {
+                    jobSession = new ManifestJobSession(originSession, targetSession, sc);
+                }
+            }
+        }
+        return jobSession;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.cql.statement.OriginSelectByPartitionRangeStatement;
+import com.datastax.cdm.cql.statement.TargetSelectByPKStatement;
+import com.datastax.cdm.cql.statement.TargetUpsertStatement;
+import com.datastax.cdm.data.PKFactory;
+import com.datastax.cdm.data.Record;
+import com.datastax.cdm.feature.Guardrail;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.spark.SparkConf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Migrates a token range and validates it in the same pass: once a group of writes completes, the
+ * rows are read back from Target and compared with the Origin rows still held in memory, using the
+ * DiffData comparison. Missing and mismatched rows are corrected inline.
+ */
+public class MigrateVerifyJobSession extends DiffJobSession {
+    public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+    private final Integer fetchSize;
+
+    public MigrateVerifyJobSession(CqlSession originSession, CqlSession targetSession, SparkConf sc) {
+        super(originSession, targetSession, sc, true);
+        this.jobCounter.setRegisteredTypes(JobCounter.CounterType.READ, JobCounter.CounterType.WRITE, JobCounter.CounterType.VALID, JobCounter.CounterType.MISMATCH, JobCounter.CounterType.CORRECTED_MISMATCH, JobCounter.CounterType.MISSING, JobCounter.CounterType.CORRECTED_MISSING, JobCounter.CounterType.SKIPPED, JobCounter.CounterType.ERROR);
+
+        // a counter increment cannot be validated by reading back the row it was applied to
+        if (this.originSession.getCqlTable().isCounterTable()) {
+            throw new RuntimeException("Migrate and verify is not supported for counter tables; run Migrate and DiffData instead");
+        }
+        this.fetchSize = this.originSession.getCqlTable().getFetchSizeInRows();
+    }
+
+    @Override
+    protected boolean isDiffColumnSubsetSupported() {
+        return false;
+    }
+
+    @Override
+    public void processSlice(SplitPartitions.Partition slice) {
+        this.getDataAndVerify(slice.getMin(), slice.getMax());
+    }
+
+    public void getDataAndVerify(BigInteger min, BigInteger max) {
+        ThreadContext.put(THREAD_CONTEXT_LABEL, getThreadLabel(min, max));
+        logger.info("ThreadID: {} Processing min: {} max: {}", Thread.currentThread().getId(), min, max);
+        boolean done = false;
+        int maxAttempts = maxRetries + 1;
+        for (int attempts = 1; attempts <= maxAttempts && !done; attempts++) {
+            try {
+                jobCounter.threadReset();
+
+                PKFactory pkFactory = originSession.getPKFactory();
+                OriginSelectByPartitionRangeStatement originSelectByPartitionRangeStatement = originSession.getOriginSelectByPartitionRangeStatement();
+                TargetUpsertStatement targetUpsertStatement = targetSession.getTargetUpsertStatement();
+                TargetSelectByPKStatement targetSelectByPKStatement = targetSession.getTargetSelectByPKStatement();
+                ResultSet resultSet = originSelectByPartitionRangeStatement.execute(originSelectByPartitionRangeStatement.bind(min, max));
+
+                List<Record> written = new ArrayList<>(fetchSize);
+                List<CompletionStage<AsyncResultSet>> writeResults = new ArrayList<>(fetchSize);
+                for (Row originRow : resultSet) {
+                    rateLimiterOrigin.acquire(1);
+                    jobCounter.threadIncrement(JobCounter.CounterType.READ);
+
+                    Record record = new Record(pkFactory.getTargetPK(originRow), originRow, null);
+                    if (originSelectByPartitionRangeStatement.shouldFilterRecord(record)) {
+                        jobCounter.threadIncrement(JobCounter.CounterType.SKIPPED);
+                        continue;
+                    }
+
+                    for (Record r : pkFactory.toValidRecordList(record)) {
+                        if (guardrailEnabled) {
+                            String guardrailCheck = guardrailFeature.guardrailChecks(r);
+                            if (guardrailCheck != null && guardrailCheck != Guardrail.CLEAN_CHECK) {
+                                logger.error("Guardrails failed for PrimaryKey {}; {}", r.getPk(), guardrailCheck);
+                                jobCounter.threadIncrement(JobCounter.CounterType.SKIPPED);
+                                continue;
+                            }
+                        }
+
+                        BoundStatement boundUpsert = targetUpsertStatement.bindRecord(r);
+                        if (null == boundUpsert) {
+                            jobCounter.threadIncrement(JobCounter.CounterType.SKIPPED);
+                            continue;
+                        }
+
+                        rateLimiterTarget.acquire(1);
+                        writeResults.add(targetUpsertStatement.executeAsync(boundUpsert));
+                        written.add(r);
+                        if (written.size() >= fetchSize) {
+                            verifyAndClear(written, writeResults, targetSelectByPKStatement);
+                        }
+                    }
+                }
+                verifyAndClear(written, writeResults, targetSelectByPKStatement);
+                done = true;
+            } catch (Exception e) {
+                logger.error("Error with PartitionRange -- ThreadID: {} Processing min: {} max: {} -- Attempt# {}",
+                        Thread.currentThread().getId(), min, max, attempts, e);
+                if (attempts == maxAttempts) {
+                    jobCounter.threadIncrement(JobCounter.CounterType.ERROR, jobCounter.getCount(JobCounter.CounterType.READ) - jobCounter.getCount(JobCounter.CounterType.WRITE) - jobCounter.getCount(JobCounter.CounterType.SKIPPED));
+                    logFailedPartitionsInFile(partitionFile, min, max);
+                }
+            } finally {
+                jobCounter.globalIncrement();
+                printCounts(false);
+            }
+        }
+    }
+
+    // Waits for the writes, then reads the written rows back and compares them with their Origin rows
+    private void verifyAndClear(List<Record> written, List<CompletionStage<AsyncResultSet>> writeResults, TargetSelectByPKStatement targetSelectByPKStatement) {
+        for (CompletionStage<AsyncResultSet> writeResult : writeResults) {
+            // the retry policy, if defined, retries the write on timeouts
+            writeResult.toCompletableFuture().join();
+        }
+        jobCounter.threadIncrement(JobCounter.CounterType.WRITE, written.size());
+
+        CompletionWindow<PendingDiff> pendingDiffs = new CompletionWindow<>(targetReadWindow);
+        for (Record r : written) {
+            rateLimiterTarget.acquire(1);
+            CompletionStage<AsyncResultSet> targetResult = (null != targetSelectMetadataStatement)
+                    ? targetSelectMetadataStatement.getAsyncResult(r.getPk())
+                    : targetSelectByPKStatement.getAsyncResult(r.getPk());
+            if (null == targetResult) {
+                jobCounter.threadIncrement(JobCounter.CounterType.SKIPPED);
+                continue;
+            }
+            r.setAsyncTargetRow(targetResult);
+            pendingDiffs.add(new PendingDiff(r, null == targetSelectMetadataStatement), targetResult);
+            pendingDiffs.drain(pending -> diffRecord(pending, pendingDiffs));
+        }
+        pendingDiffs.drainAll(pending -> diffRecord(pending, pendingDiffs));
+
+        written.clear();
+        writeResults.clear();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Counts the differences found by DiffData per target column and per kind, and keeps the first
+ * few primary keys of each as examples. Recording a difference costs an array increment, plus a
+ * PK formatting while the examples are not yet full. Instances of different token ranges are merged
+ * on the driver into one summary.
+ */
+public class MismatchStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Kind {
+        MISMATCH,
+        EXCEPTION
+    }
+
+    private final List<String> columnNames;
+    private final int maxExamples;
+    private final long[] counts;
+    private final Map<Integer, List<String>> examples = new HashMap<>();
+    private long missingCount;
+    private final List<String> missingExamples = new ArrayList<>();
+
+    /**
+     * @param columnNames target column names, in table order
+     * @param maxExamples number of example PKs kept for missing rows and for each column and kind
+     */
+    public MismatchStatistics(List<String> columnNames, int maxExamples) {
+        this.columnNames = new ArrayList<>(columnNames);
+        this.maxExamples = Math.max(0, maxExamples);
+        this.counts = new long[Kind.values().length * columnNames.size()];
+    }
+
+    public void addMissing(Object pk) {
+        missingCount++;
+        addExample(missingExamples, pk);
+    }
+
+    public void add(Kind kind, int columnIndex, Object pk) {
+        int index = kind.ordinal() * columnNames.size() + columnIndex;
+        counts[index]++;
+        if (maxExamples > 0) {
+            addExample(examples.computeIfAbsent(index, k -> new ArrayList<>()), pk);
+        }
+    }
+
+    public long getMissingCount() {
+        return missingCount;
+    }
+
+    public long getCount(Kind kind, String columnName) {
+        return counts[kind.ordinal() * columnNames.size() + columnNames.indexOf(columnName)];
+    }
+
+    public List<String> getExamples(Kind kind, String columnName) {
+        return examples.getOrDefault(kind.ordinal() * columnNames.size() + columnNames.indexOf(columnName), Collections.emptyList());
+    }
+
+    public List<String> getMissingExamples() {
+        return missingExamples;
+    }
+
+    public MismatchStatistics merge(MismatchStatistics other) {
+        if (null == other)
+            return this;
+        if (!columnNames.equals(other.columnNames))
+            throw new IllegalArgumentException("Cannot merge statistics of columns " + other.columnNames + " into " + columnNames);
+
+        missingCount += other.missingCount;
+        other.missingExamples.forEach(pk -> addExample(missingExamples, pk));
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        if (maxExamples > 0) {
+            other.examples.forEach((index, pks) -> pks.forEach(pk -> addExample(examples.computeIfAbsent(index, k -> new ArrayList<>()), pk)));
+        }
+        return this;
+    }
+
+    /**
+     * @return one line for missing rows, and one per column with differences
+     */
+    public List<String> getSummary() {
+        List<String> rtn = new ArrayList<>();
+        rtn.add("Missing rows: " + missingCount + (missingExamples.isEmpty() ? "" : " e.g. " + missingExamples));
+        for (int columnIndex = 0; columnIndex < columnNames.size(); columnIndex++) {
+            StringBuilder sb = new StringBuilder();
+            for (Kind kind : Kind.values()) {
+                int index = kind.ordinal() * columnNames.size() + columnIndex;
+                if (counts[index] > 0) {
+                    sb.append(sb.length() == 0 ? "" : "; ").append(kind).append(": ").append(counts[index]);
+                    if (examples.containsKey(index))
+                        sb.append(" e.g. ").append(examples.get(index));
+                }
+            }
+            if (sb.length() > 0)
+                rtn.add("Column " + columnNames.get(columnIndex) + " -- " + sb);
+        }
+        return rtn;
+    }
+
+    private void addExample(List<String> list, Object pk) {
+        if (list.size() < maxExamples) {
+            list.add(String.valueOf(pk));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.cql.statement.OriginSelectByPKStatement;
+import com.datastax.cdm.cql.statement.TargetDeleteStatement;
+import com.datastax.cdm.cql.statement.TargetSelectByPartitionRangeStatement;
+import com.datastax.cdm.data.EnhancedPK;
+import com.datastax.cdm.data.PKFactory;
+import com.datastax.cdm.feature.ConstantColumns;
+import com.datastax.cdm.feature.Featureset;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.spark.SparkConf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Reverse validation: walks the target token ranges and reports target rows that have no
+ * corresponding origin row, optionally deleting them.
+ */
+public class OrphanJobSession extends AbstractJobSession<SplitPartitions.Partition> {
+    protected final Boolean autoCorrectOrphan;
+    private final int readWindow;
+    public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    public OrphanJobSession(CqlSession originSession, CqlSession targetSession, SparkConf sc) {
+        super(originSession, targetSession, sc);
+        this.jobCounter.setRegisteredTypes(JobCounter.CounterType.READ, JobCounter.CounterType.VALID, JobCounter.CounterType.ORPHAN, JobCounter.CounterType.CORRECTED_ORPHAN, JobCounter.CounterType.SKIPPED);
+
+        // A target row with a constant key value that differs from ours was not written by this
+        // migration, so it cannot be judged against the origin
+        ConstantColumns constantColumnsFeature = (ConstantColumns) this.targetSession.getCqlTable().getFeature(Featureset.CONSTANT_COLUMNS);
+        if (null != constantColumnsFeature && constantColumnsFeature.isEnabled()
+                && constantColumnsFeature.getNames().stream().anyMatch(this.targetSession.getCqlTable().getPKNames(false)::contains)) {
+            throw new RuntimeException("Orphan detection is not supported when the Target primary key includes constant columns");
+        }
+
+        autoCorrectOrphan = propertyHelper.getBoolean(KnownProperties.AUTOCORRECT_ORPHAN);
+        logger.info("PARAM -- Autocorrect Orphan: {}", autoCorrectOrphan);
+
+        Integer window = propertyHelper.getInteger(KnownProperties.DIFF_TARGET_READ_WINDOW);
+        this.readWindow = (null == window || window <= 0) ? this.targetSession.getCqlTable().getFetchSizeInRows() : window;
+        logger.info("PARAM -- Read Window: {}", readWindow);
+
+        logger.info("CQL -- target PK select: {}", this.targetSession.getTargetSelectPKByPartitionRangeStatement().getCQL());
+        logger.info("CQL -- origin select: {}", this.originSession.getOriginSelectByPKStatement().getCQL());
+        if (autoCorrectOrphan)
+            logger.info("CQL -- target delete: {}", this.targetSession.getTargetDeleteStatement().getCQL());
+    }
+
+    @Override
+    public void processSlice(SplitPartitions.Partition slice) {
+        this.getDataAndCheck(slice.getMin(), slice.getMax());
+    }
+
+    public void getDataAndCheck(BigInteger min, BigInteger max) {
+        ThreadContext.put(THREAD_CONTEXT_LABEL, getThreadLabel(min, max));
+        logger.info("ThreadID: {} Processing min: {} max: {}", Thread.currentThread().getId(), min, max);
+        boolean done = false;
+        int maxAttempts = maxRetries + 1;
+        for (int attempts = 1; attempts <= maxAttempts && !done; attempts++) {
+            try {
+                jobCounter.threadReset();
+
+                PKFactory pkFactory = targetSession.getPKFactory();
+                TargetSelectByPartitionRangeStatement targetSelectPKStatement = targetSession.getTargetSelectPKByPartitionRangeStatement();
+                OriginSelectByPKStatement originSelectByPKStatement = originSession.getOriginSelectByPKStatement();
+                TargetDeleteStatement targetDeleteStatement = autoCorrectOrphan ? targetSession.getTargetDeleteStatement() : null;
+
+                // lookups are checked, and orphans deleted, as they complete, waiting only when a window of them is outstanding
+                CompletionWindow<PendingRequest> pendingLookups = new CompletionWindow<>(readWindow);
+                CompletionWindow<PendingRequest> pendingDeletes = autoCorrectOrphan ? new CompletionWindow<>(readWindow) : null;
+                for (Row targetPKRow : targetSelectPKStatement.execute(targetSelectPKStatement.bind(min, max))) {
+                    rateLimiterTarget.acquire(1);
+                    jobCounter.threadIncrement(JobCounter.CounterType.READ);
+
+                    EnhancedPK targetPK = pkFactory.getTargetPKFromTarget(targetPKRow);
+                    EnhancedPK originPK = pkFactory.getOriginPKFromTarget(targetPKRow);
+                    if (null == originPK || originPK.isError()) {
+                        jobCounter.threadIncrement(JobCounter.CounterType.SKIPPED);
+                        logger.error("Could not build Origin primary key for target key: {}; error is: {}", targetPK, (null == originPK ? "null" : originPK.getMessages()));
+                        continue;
+                    }
+
+                    rateLimiterOrigin.acquire(1);
+                    CompletionStage<AsyncResultSet> originResult = originSelectByPKStatement.getAsyncResult(originPK);
+                    if (null == originResult) {
+                        jobCounter.threadIncrement(JobCounter.CounterType.SKIPPED);
+                        continue;
+                    }
+                    pendingLookups.add(new PendingRequest(targetPK, originResult), originResult);
+                    pendingLookups.drain(lookup -> check(lookup, targetDeleteStatement, pendingDeletes));
+                }
+                pendingLookups.drainAll(lookup -> check(lookup, targetDeleteStatement, pendingDeletes));
+                if (null != pendingDeletes)
+                    pendingDeletes.drainAll(this::completeDelete);
+                done = true;
+            } catch (Exception e) {
+                logger.error("Error with PartitionRange -- ThreadID: {} Processing min: {} max: {} -- Attempt# {}",
+                        Thread.currentThread().getId(), min, max, attempts, e);
+                if (attempts == maxAttempts) {
+                    logFailedPartitionsInFile(partitionFile, min, max);
+                }
+            } finally {
+                jobCounter.globalIncrement();
+                printCounts(false);
+            }
+        }
+    }
+
+    private void check(PendingRequest lookup, TargetDeleteStatement targetDeleteStatement, CompletionWindow<PendingRequest> pendingDeletes) {
+        try {
+            checkCompleted(lookup, targetDeleteStatement, pendingDeletes);
+        } catch (Exception e) {
+            logger.error("Could not perform orphan check for key {}: {}", lookup.targetPK, e);
+        }
+    }
+
+    // Only called once the Origin lookup has completed, so reading its result does not block
+    private void checkCompleted(PendingRequest lookup, TargetDeleteStatement targetDeleteStatement, CompletionWindow<PendingRequest> pendingDeletes) {
+        if (null != lookup.result.toCompletableFuture().join().one()) {
+            jobCounter.threadIncrement(JobCounter.CounterType.VALID);
+            return;
+        }
+
+        jobCounter.threadIncrement(JobCounter.CounterType.ORPHAN);
+        logger.error("Orphan target row found for key: {}", lookup.targetPK);
+        if (null != targetDeleteStatement) {
+            rateLimiterTarget.acquire(1);
+            CompletionStage<AsyncResultSet> deleteResult = targetDeleteStatement.deleteAsync(lookup.targetPK);
+            pendingDeletes.add(new PendingRequest(lookup.targetPK, deleteResult), deleteResult);
+            pendingDeletes.drain(this::completeDelete);
+        }
+    }
+
+    // Called once the Target delete of the orphan has completed
+    private void completeDelete(PendingRequest delete) {
+        try {
+            delete.result.toCompletableFuture().get();
+            jobCounter.threadIncrement(JobCounter.CounterType.CORRECTED_ORPHAN);
+            logger.error("Deleted orphan row in target: {}", delete.targetPK);
+        } catch (Exception e) {
+            logger.error("Could not delete orphan row in target: {}", delete.targetPK, e);
+        }
+    }
+
+    // An Origin lookup or a Target delete of a Target key
+    private static class PendingRequest {
+        private final EnhancedPK targetPK;
+        private final CompletionStage<AsyncResultSet> result;
+
+        private PendingRequest(EnhancedPK targetPK, CompletionStage<AsyncResultSet> result) {
+            this.targetPK = targetPK;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.cdm.properties.KnownProperties;
+
+import java.io.IOException;
+
+/**
+ * Write timestamp high-watermarks of token ranges, persisted as min,max,watermark lines. A range
+ * is only matched when it has exactly the same bounds, so changing the number of parts or the
+ * partition file starts the affected ranges over with a full validation.
+ */
+public class RangeWatermarks extends TokenRangeStore<Long> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected Long parseValue(String value) {
+        return Long.parseLong(value.trim());
+    }
+
+    @Override
+    protected String getHeader() {
+        return "min,max,writetime watermark in microseconds";
+    }
+
+    public static RangeWatermarks load(String fileName) throws IOException {
+        RangeWatermarks rtn = new RangeWatermarks();
+        rtn.read(fileName);
+        return rtn;
+    }
+
+    public static String getWatermarkFile(IPropertyHelper propertyHelper) {
+        return getFile(propertyHelper, KnownProperties.DIFF_WATERMARK_FILE, "watermarks");
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import org.apache.commons.math3.distribution.NormalDistribution;
+
+import java.io.Serializable;
+
+/**
+ * Accumulates the outcome of validating randomly chosen token ranges, and estimates the
+ * mismatch and missing rates of the whole table from them.
+ * <p>
+ * Each token range is a cluster of rows, and rows within a range are not independent of one
+ * another (a bad load tends to affect neighbouring rows), so the variance of the rate is computed
+ * with the ratio estimator across ranges. That variance is turned into a design effect, and the
+ * bounds are Wilson score intervals over the resulting effective sample size; this keeps the
+ * bounds sensible when no mismatches have been seen yet.
+ * <p>
+ * Instances are returned from executors and merged on the driver, hence Serializable.
+ */
+public class SampleStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long ranges = 0;
+    private long rows = 0;
+    private double sumRowsSquared = 0;
+    private final Metric mismatch = new Metric();
+    private final Metric missing = new Metric();
+
+    private static class Metric implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private long count = 0;
+        private double sumCountSquared = 0;
+        private double sumCountRows = 0;
+
+        private void add(long rangeCount, long rangeRows) {
+            count += rangeCount;
+            sumCountSquared += (double) rangeCount * rangeCount;
+            sumCountRows += (double) rangeCount * rangeRows;
+        }
+
+        private void merge(Metric other) {
+            count += other.count;
+            sumCountSquared += other.sumCountSquared;
+            sumCountRows += other.sumCountRows;
+        }
+    }
+
+    /**
+     * Records the outcome of validating a single token range.
+     * @param rangeRows number of rows compared in the range (valid + mismatched + missing)
+     * @param rangeMismatches number of rows that differed
+     * @param rangeMissing number of rows missing from target
+     */
+    public void addRange(long rangeRows, long rangeMismatches, long rangeMissing) {
+        if (rangeRows < 0 || rangeMismatches < 0 || rangeMissing < 0 || rangeMismatches + rangeMissing > rangeRows)
+            throw new IllegalArgumentException("Invalid range counts rows=" + rangeRows + ", mismatches=" + rangeMismatches + ", missing=" + rangeMissing);
+        ranges++;
+        rows += rangeRows;
+        sumRowsSquared += (double) rangeRows * rangeRows;
+        mismatch.add(rangeMismatches, rangeRows);
+        missing.add(rangeMissing, rangeRows);
+    }
+
+    public SampleStatistics merge(SampleStatistics other) {
+        if (null != other) {
+            ranges += other.ranges;
+            rows += other.rows;
+            sumRowsSquared += other.sumRowsSquared;
+            mismatch.merge(other.mismatch);
+            missing.merge(other.missing);
+        }
+        return this;
+    }
+
+    public long getRanges() { return ranges; }
+    public long getRows() { return rows; }
+    public long getMismatches() { return mismatch.count; }
+    public long getMissing() { return missing.count; }
+
+    public double getMismatchRate() { return rate(mismatch); }
+    public double getMissingRate() { return rate(missing); }
+
+    /**
+     * @param confidencePercent confidence level, between 1 and 99
+     * @return lower and upper bound of the mismatch rate
+     */
+    public double[] getMismatchBounds(int confidencePercent) { return bounds(mismatch, confidencePercent); }
+    public double[] getMissingBounds(int confidencePercent) { return bounds(missing, confidencePercent); }
+
+    /**
+     * @return true when at least two ranges have been sampled, and both the mismatch and missing
+     * intervals are no wider than +/- margin
+     */
+    public boolean isPrecise(int confidencePercent, double margin) {
+        if (ranges < 2 || rows == 0)
+            return false;
+        return halfWidth(bounds(mismatch, confidencePercent)) <= margin
+                && halfWidth(bounds(missing, confidencePercent)) <= margin;
+    }
+
+    public String getSummary(int confidencePercent) {
+        double[] mismatchBounds = getMismatchBounds(confidencePercent);
+        double[] missingBounds = getMissingBounds(confidencePercent);
+        return String.format("Sampled %d rows over %d token ranges; at %d%% confidence, " +
+                        "mismatch rate %.4f%% [%.4f%%, %.4f%%] (%d rows), missing rate %.4f%% [%.4f%%, %.4f%%] (%d rows)",
+                rows, ranges, confidencePercent,
+                100 * getMismatchRate(), 100 * mismatchBounds[0], 100 * mismatchBounds[1], getMismatches(),
+                100 * getMissingRate(), 100 * missingBounds[0], 100 * missingBounds[1], getMissing());
+    }
+
+    protected static double zScore(int confidencePercent) {
+        if (confidencePercent < 1 || confidencePercent > 99)
+            throw new IllegalArgumentException("Confidence must be between 1 and 99 percent, got " + confidencePercent);
+        double alpha = 1.0 - confidencePercent / 100.0;
+        return new NormalDistribution().inverseCumulativeProbability(1.0 - alpha / 2.0);
+    }
+
+    private double rate(Metric metric) {
+        return rows == 0 ? 0.0 : (double) metric.count / rows;
+    }
+
+    private double[] bounds(Metric metric, int confidencePercent) {
+        if (rows == 0)
+            return new double[]{0.0, 1.0};
+
+        double z = zScore(confidencePercent);
+        double p = rate(metric);
+        double n = rows;
+        double effectiveN = n / designEffect(metric, p);
+
+        double z2 = z * z;
+        double denominator = 1 + z2 / effectiveN;
+        double centre = (p + z2 / (2 * effectiveN)) / denominator;
+        double half = z / denominator * Math.sqrt(p * (1 - p) / effectiveN + z2 / (4 * effectiveN * effectiveN));
+        return new double[]{Math.max(0.0, centre - half), Math.min(1.0, centre + half)};
+    }
+
+    // Ratio of the between-range variance to the variance had the rows been sampled independently
+    private double designEffect(Metric metric, double p) {
+        double binomialVariance = p * (1 - p) / rows;
+        if (ranges < 2 || binomialVariance <= 0)
+            return 1.0;
+        double sumSquaredResiduals = metric.sumCountSquared - 2 * p * metric.sumCountRows + p * p * sumRowsSquared;
+        double clusterVariance = ranges / (ranges - 1.0) * Math.max(0.0, sumSquaredResiduals) / ((double) rows * rows);
+        return Math.max(1.0, clusterVariance / binomialVariance);
+    }
+
+    private static double halfWidth(double[] bounds) {
+        return (bounds[1] - bounds[0]) / 2;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.datastax.cdm.job;
 
+import com.datastax.cdm.data.PKFile;
 import com.datastax.cdm.properties.KnownProperties;
 import com.datastax.cdm.properties.PropertyHelper;
 import org.apache.commons.lang3.StringUtils;
@@ -23,13 +24,20 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 public class SplitPartitions {
 
@@ -66,23 +74,83 @@ public class SplitPartitions {
         return partitions;
     }
 
+    /**
+     * Splits a file of primary keys into parts of roughly equal byte size, each starting and ending on a
+     * line boundary. Only the offsets are computed here; each part is read by the executor that processes
+     * it, so the file must be readable at the same path by every executor. A gzip-compressed file (.gz)
+     * cannot be split, and is read as a single part; a binary file (see PKFile) is split between blocks.
+     */
     public static List<PKRows> getRowPartsFromFile(int numSplits, String inputFilename) throws IOException {
         logger.info("ThreadID: {} Splitting rows in file: {} using a split-size of {}"
                 , Thread.currentThread().getId(), inputFilename, numSplits);
-        List<String> pkRows = new ArrayList<String>();
-        BufferedReader reader = getfileReader(inputFilename);
-        String pkRow = null;
-        while ((pkRow = reader.readLine()) != null) {
-            if (pkRow.startsWith("#")) {
-                continue;
+        File file = new File(inputFilename);
+        if (!file.isFile()) {
+            throw new RuntimeException("No '" + inputFilename + "' file found!! Add this file in the current folder & rerun!");
+        }
+        long length = file.length();
+        List<PKRows> parts = new ArrayList<>();
+        if (length == 0) {
+            return parts;
+        }
+        int splits = Math.max(numSplits, 1);
+        if (PKFile.isBinary(inputFilename)) {
+            return getBlockParts(splits, inputFilename, length);
+        }
+        if (PKRows.isCompressed(inputFilename)) {
+            logger.info("File {} is compressed and cannot be split, it will be read as a single part", inputFilename);
+            parts.add(new PKRows(inputFilename, 0, length));
+            return parts;
+        }
+
+        try (RandomAccessFile reader = new RandomAccessFile(file, "r")) {
+            long start = 0;
+            for (int i = 1; i <= splits && start < length; i++) {
+                long end = (i == splits) ? length : nextLineStart(reader, Math.max(start, length / splits * i));
+                if (end > start) {
+                    parts.add(new PKRows(inputFilename, start, end));
+                    start = end;
+                }
             }
-            pkRows.add(pkRow);
         }
-        int partSize = pkRows.size() / numSplits;
-        if (partSize == 0) {
-            partSize = pkRows.size();
+        return parts;
+    }
+
+    private static List<PKRows> getBlockParts(int splits, String inputFilename, long length) throws IOException {
+        List<Long> offsets = PKFile.getBlockOffsets(inputFilename);
+        List<PKRows> parts = new ArrayList<>();
+        if (offsets.isEmpty()) {
+            return parts;
+        }
+        long partSize = (length - offsets.get(0)) / splits;
+        long start = offsets.get(0);
+        for (long offset : offsets) {
+            if (offset - start > 0 && offset - start >= partSize) {
+                parts.add(new PKRows(inputFilename, start, offset));
+                start = offset;
+            }
+        }
+        parts.add(new PKRows(inputFilename, start, length));
+        return parts;
+    }
+
+    // Returns the offset of the first line that starts at or after position
+    private static long nextLineStart(RandomAccessFile file, long position) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        file.seek(position - 1);
+        byte[] buffer = new byte[8192];
+        long offset = position - 1;
+        int read;
+        while ((read = file.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
         }
-        return batches(pkRows, partSize).map(l -> (new PKRows(l))).collect(Collectors.toList());
+        return file.length();
     }
 
     public static <T> Stream<List<T>> batches(List<T> source, int length) {
@@ -96,6 +164,45 @@ public class SplitPartitions {
                 n -> source.subList(n * length, n == fullChunks ? size : (n + 1) * length));
     }
 
+    /**
+     * Splits partitions at the given ring tokens so that no resulting range spans more than one
+     * vnode; each range can then be served by a single replica set. A vnode owns (previous, token],
+     * so a partition is cut after each ring token that falls strictly inside it.
+     */
+    public static List<Partition> alignToRing(Collection<Partition> partitions, Collection<BigInteger> ringTokens) {
+        NavigableSet<BigInteger> ring = new TreeSet<>(ringTokens);
+        List<Partition> aligned = new ArrayList<>();
+        for (Partition partition : partitions) {
+            BigInteger curMin = partition.getMin();
+            for (BigInteger token : ring.subSet(partition.getMin(), true, partition.getMax(), false)) {
+                aligned.add(new Partition(curMin, token));
+                curMin = token.add(BigInteger.ONE);
+            }
+            aligned.add(new Partition(curMin, partition.getMax()));
+        }
+        return aligned;
+    }
+
+    /**
+     * Writes partitions as min,max lines in the format read by getSubPartitionsFromFile, replacing
+     * any existing content. No file is created when there is nothing to write, but an existing file
+     * is emptied so that stale ranges are not processed again.
+     *
+     * @return true if the file was written
+     */
+    public static boolean writePartitionFile(String fileName, Collection<Partition> partitions) throws IOException {
+        File file = new File(fileName);
+        if (partitions.isEmpty() && !file.exists()) {
+            return false;
+        }
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file, false)))) {
+            for (Partition partition : partitions) {
+                writer.println(partition.getMin() + "," + partition.getMax());
+            }
+        }
+        return true;
+    }
+
     private static List<Partition> getSubPartitions(int numSplits, BigInteger min, BigInteger max, int coveragePercent) {
         if (coveragePercent < 1 || coveragePercent > 100) {
             coveragePercent = 100;
@@ -149,16 +256,90 @@ public class SplitPartitions {
         return filePath;
     }
 
+    /**
+     * A line-aligned byte range [start, end) of a file of primary keys, one key per line.
+     */
     public static class PKRows implements Serializable {
-        private static final long serialVersionUID = 1L;
-        private List<String> pkRows;
+        private static final long serialVersionUID = 2L;
+        private static final int BUFFER_SIZE = 64 * 1024;
 
-        public List<String> getPkRows() {
-            return pkRows;
+        private final String fileName;
+        private final long start;
+        private final long end;
+
+        public PKRows(String fileName, long start, long end) {
+            this.fileName = fileName;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
         }
 
-        public PKRows(List<String> rows) {
-            pkRows = new ArrayList<>(rows);
+        /**
+         * Opens a reader over the lines of this part, which the caller must close.
+         */
+        public BufferedReader getReader() throws IOException {
+            InputStream in;
+            if (isCompressed(fileName)) {
+                in = new GZIPInputStream(new FileInputStream(fileName), BUFFER_SIZE);
+            } else {
+                FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+                channel.position(start);
+                in = new BoundedInputStream(Channels.newInputStream(channel), end - start);
+            }
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+
+        static boolean isCompressed(String fileName) {
+            return fileName.toLowerCase().endsWith(".gz");
+        }
+
+        public String toString() {
+            return "Processing rows of file " + fileName + " from byte " + start + " to " + end;
+        }
+    }
+
+    // Stops reading once limit bytes have been returned
+    private static class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        private BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
         }
     }
 
@@ -0,0 +1,118 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.cdm.properties.KnownProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A value per token range, persisted as min,max,value lines. A range is only matched when it has
+ * exactly the same bounds. Subclasses define how a value is parsed from and formatted to the rest
+ * of its line.
+ */
+public abstract class TokenRangeStore<V> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    public static Logger logger = LoggerFactory.getLogger(TokenRangeStore.class.getName());
+
+    private final Map<String, V> values = new TreeMap<>();
+
+    protected abstract V parseValue(String value);
+
+    protected String formatValue(V value) {
+        return String.valueOf(value);
+    }
+
+    // the comment written as the first line of the file
+    protected abstract String getHeader();
+
+    public V get(SplitPartitions.Partition range) {
+        return values.get(key(range.getMin(), range.getMax()));
+    }
+
+    public void put(SplitPartitions.Partition range, V value) {
+        values.put(key(range.getMin(), range.getMax()), value);
+    }
+
+    public void remove(SplitPartitions.Partition range) {
+        values.remove(key(range.getMin(), range.getMax()));
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public List<SplitPartitions.Partition> getRanges() {
+        List<SplitPartitions.Partition> rtn = new ArrayList<>();
+        for (String key : values.keySet()) {
+            String[] bounds = key.split(",");
+            rtn.add(new SplitPartitions.Partition(new BigInteger(bounds[0]), new BigInteger(bounds[1])));
+        }
+        return rtn;
+    }
+
+    // Adds the entries of the file, if it exists, skipping comments and lines that cannot be parsed
+    protected void read(String fileName) throws IOException {
+        if (!new File(fileName).exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",", 3);
+                try {
+                    values.put(key(new BigInteger(parts[0].trim()), new BigInteger(parts[1].trim())), parseValue(parts[2]));
+                } catch (Exception e) {
+                    logger.error("Skipping {} entry: {}", getClass().getSimpleName(), line, e);
+                }
+            }
+        }
+    }
+
+    public void save(String fileName) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(fileName, false)))) {
+            writer.println("# " + getHeader());
+            for (Map.Entry<String, V> entry : values.entrySet()) {
+                writer.println(entry.getKey() + "," + formatValue(entry.getValue()));
+            }
+        }
+    }
+
+    // The file set by the property, or ./<keyspace.table>_<suffix>.csv when it is not set
+    protected static String getFile(IPropertyHelper propertyHelper, String property, String suffix) {
+        String filePath = propertyHelper.getString(property);
+        if (StringUtils.isAllBlank(filePath)) {
+            filePath = "./" + propertyHelper.getString(KnownProperties.ORIGIN_KEYSPACE_TABLE) + "_" + suffix + ".csv";
+        }
+        return filePath;
+    }
+
+    private static String key(BigInteger min, BigInteger max) {
+        return min + "," + max;
+    }
+}
@@ -107,6 +107,7 @@ public class KnownProperties {
     public static final String AUTOCORRECT_MISSING              = "spark.cdm.autocorrect.missing";    // false
     public static final String AUTOCORRECT_MISMATCH             = "spark.cdm.autocorrect.mismatch";   // false
     public static final String AUTOCORRECT_MISSING_COUNTER      = "spark.cdm.autocorrect.missing.counter";  // false
+    public static final String AUTOCORRECT_ORPHAN               = "spark.cdm.autocorrect.orphan";     // false
 
     public static final String PERF_NUM_PARTS                   = "spark.cdm.perfops.numParts";             // 10000, was spark.splitSize
     public static final String PERF_BATCH_SIZE                  = "spark.cdm.perfops.batchSize";             // 5
@@ -119,6 +120,9 @@ public class KnownProperties {
     public static final String MAX_RETRIES                      = "spark.cdm.perfops.errorLimit";
     public static final String PRINT_STATS_AFTER                = "spark.cdm.perfops.printStatsAfter";
     public static final String PRINT_STATS_PER_PART             = "spark.cdm.perfops.printStatsPerPart";
+    public static final String PERF_PK_WINDOW                   = "spark.cdm.perfops.pkWindow";              // 0
+    public static final String PERF_PK_GROUP_SIZE               = "spark.cdm.perfops.pkGroupSize";           // 1
+    public static final String PERF_PK_TOKEN_ORDER              = "spark.cdm.perfops.pkTokenOrder";          // false
 
     static {
            types.put(AUTOCORRECT_MISSING, PropertyType.BOOLEAN);
@@ -127,6 +131,8 @@ public class KnownProperties {
         defaults.put(AUTOCORRECT_MISMATCH, "false");
            types.put(AUTOCORRECT_MISSING_COUNTER, PropertyType.BOOLEAN);
         defaults.put(AUTOCORRECT_MISSING_COUNTER, "false");
+           types.put(AUTOCORRECT_ORPHAN, PropertyType.BOOLEAN);
+        defaults.put(AUTOCORRECT_ORPHAN, "false");
 
            types.put(PERF_NUM_PARTS, PropertyType.NUMBER);
         defaults.put(PERF_NUM_PARTS, "10000");
@@ -149,14 +155,25 @@ public class KnownProperties {
         defaults.put(PERF_FETCH_SIZE, "1000");
            types.put(MAX_RETRIES, PropertyType.NUMBER);
         defaults.put(MAX_RETRIES, "0");
+           types.put(PERF_PK_WINDOW, PropertyType.NUMBER);
+        defaults.put(PERF_PK_WINDOW, "0");
+           types.put(PERF_PK_GROUP_SIZE, PropertyType.NUMBER);
+        defaults.put(PERF_PK_GROUP_SIZE, "1");
+           types.put(PERF_PK_TOKEN_ORDER, PropertyType.BOOLEAN);
+        defaults.put(PERF_PK_TOKEN_ORDER, "false");
     }
 
     //==========================================================================
     // Error handling
     //==========================================================================
-    public static final String TOKEN_RANGE_PARTITION_FILE = "spark.cdm.tokenrange.partitionFile";
+    public static final String TOKEN_RANGE_PARTITION_FILE   = "spark.cdm.tokenrange.partitionFile";
+    public static final String TOKEN_RANGE_MANIFEST_ENABLED = "spark.cdm.tokenrange.manifest.enabled"; // false
+    public static final String TOKEN_RANGE_MANIFEST_FILE    = "spark.cdm.tokenrange.manifestFile";
     static {
         types.put(TOKEN_RANGE_PARTITION_FILE, PropertyType.STRING);
+        types.put(TOKEN_RANGE_MANIFEST_ENABLED, PropertyType.BOOLEAN);
+        defaults.put(TOKEN_RANGE_MANIFEST_ENABLED, "false");
+        types.put(TOKEN_RANGE_MANIFEST_FILE, PropertyType.STRING);
     }
     //==========================================================================
     // Guardrails and Transformations
@@ -215,6 +232,65 @@ public class KnownProperties {
            types.put(FILTER_COLUMN_VALUE, PropertyType.STRING);
     }
 
+    //==========================================================================
+    // Validation (DiffData) Parameters
+    //==========================================================================
+    public static final String SAMPLE_ENABLED                = "spark.cdm.diff.sample.enabled";             // false
+    public static final String SAMPLE_PER_PARTITION_LIMIT    = "spark.cdm.diff.sample.perPartitionLimit";   // 0
+    public static final String SAMPLE_CONFIDENCE_PERCENT     = "spark.cdm.diff.sample.confidencePercent";   // 95
+    public static final String SAMPLE_MARGIN_BASIS_POINTS    = "spark.cdm.diff.sample.marginBasisPoints";   // 10
+    public static final String SAMPLE_RANGES_PER_ROUND       = "spark.cdm.diff.sample.rangesPerRound";      // 100
+    public static final String BLOOM_FILTER_ENABLED          = "spark.cdm.diff.bloomFilter.enabled";        // false
+    public static final String BLOOM_FILTER_COMPARE_CONTENT  = "spark.cdm.diff.bloomFilter.compareContent"; // false
+    public static final String BLOOM_FILTER_EXPECTED_ROWS    = "spark.cdm.diff.bloomFilter.expectedRowsPerPart"; // 1000000
+    public static final String BLOOM_FILTER_FPP_BASIS_POINTS = "spark.cdm.diff.bloomFilter.fppBasisPoints"; // 100
+    public static final String DIFF_TARGET_READ_WINDOW       = "spark.cdm.diff.targetReadWindow";           // 0
+    public static final String DIFF_METADATA_ONLY            = "spark.cdm.diff.metadataOnly.enabled";       // false
+    public static final String DIFF_METADATA_COMPARE_TTL     = "spark.cdm.diff.metadataOnly.compareTTL";    // false
+    public static final String DIFF_METADATA_TTL_TOLERANCE   = "spark.cdm.diff.metadataOnly.ttlToleranceSeconds"; // 60
+    public static final String DIFF_COLUMNS_INCLUDE          = "spark.cdm.diff.columns.include";            // col1,col2
+    public static final String DIFF_COLUMNS_EXCLUDE          = "spark.cdm.diff.columns.exclude";            // blob_col
+    public static final String DIFF_INCREMENTAL_ENABLED      = "spark.cdm.diff.incremental.enabled";        // false
+    public static final String DIFF_WATERMARK_FILE           = "spark.cdm.diff.incremental.watermarkFile"; // ./<keyspace>.<table>_watermarks.csv
+    public static final String DIFF_STATISTICS_EXAMPLES      = "spark.cdm.diff.statistics.examples";        // 10
+    public static final String DIFF_PK_FILE                  = "spark.cdm.diff.pkFile";                     // /path/to/keys.bin
+    static {
+           types.put(SAMPLE_ENABLED, PropertyType.BOOLEAN);
+        defaults.put(SAMPLE_ENABLED, "false");
+           types.put(SAMPLE_PER_PARTITION_LIMIT, PropertyType.NUMBER);
+        defaults.put(SAMPLE_PER_PARTITION_LIMIT, "0");
+           types.put(SAMPLE_CONFIDENCE_PERCENT, PropertyType.NUMBER);
+        defaults.put(SAMPLE_CONFIDENCE_PERCENT, "95");
+           types.put(SAMPLE_MARGIN_BASIS_POINTS, PropertyType.NUMBER);
+        defaults.put(SAMPLE_MARGIN_BASIS_POINTS, "10");
+           types.put(SAMPLE_RANGES_PER_ROUND, PropertyType.NUMBER);
+        defaults.put(SAMPLE_RANGES_PER_ROUND, "100");
+           types.put(BLOOM_FILTER_ENABLED, PropertyType.BOOLEAN);
+        defaults.put(BLOOM_FILTER_ENABLED, "false");
+           types.put(BLOOM_FILTER_COMPARE_CONTENT, PropertyType.BOOLEAN);
+        defaults.put(BLOOM_FILTER_COMPARE_CONTENT, "false");
+           types.put(BLOOM_FILTER_EXPECTED_ROWS, PropertyType.NUMBER);
+        defaults.put(BLOOM_FILTER_EXPECTED_ROWS, "1000000");
+           types.put(BLOOM_FILTER_FPP_BASIS_POINTS, PropertyType.NUMBER);
+        defaults.put(BLOOM_FILTER_FPP_BASIS_POINTS, "100");
+           types.put(DIFF_TARGET_READ_WINDOW, PropertyType.NUMBER);
+        defaults.put(DIFF_TARGET_READ_WINDOW, "0");
+           types.put(DIFF_METADATA_ONLY, PropertyType.BOOLEAN);
+        defaults.put(DIFF_METADATA_ONLY, "false");
+           types.put(DIFF_METADATA_COMPARE_TTL, PropertyType.BOOLEAN);
+        defaults.put(DIFF_METADATA_COMPARE_TTL, "false");
+           types.put(DIFF_METADATA_TTL_TOLERANCE, PropertyType.NUMBER);
+        defaults.put(DIFF_METADATA_TTL_TOLERANCE, "60");
+           types.put(DIFF_COLUMNS_INCLUDE, PropertyType.STRING_LIST);
+           types.put(DIFF_COLUMNS_EXCLUDE, PropertyType.STRING_LIST);
+           types.put(DIFF_INCREMENTAL_ENABLED, PropertyType.BOOLEAN);
+        defaults.put(DIFF_INCREMENTAL_ENABLED, "false");
+           types.put(DIFF_WATERMARK_FILE, PropertyType.STRING);
+           types.put(DIFF_STATISTICS_EXAMPLES, PropertyType.NUMBER);
+        defaults.put(DIFF_STATISTICS_EXAMPLES, "10");
+           types.put(DIFF_PK_FILE, PropertyType.STRING);
+    }
+
     //==========================================================================
     // Constant Column Feature
     //==========================================================================
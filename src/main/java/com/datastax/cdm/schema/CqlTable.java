@@ -26,6 +26,7 @@ import com.datastax.oss.driver.api.core.metadata.Metadata;
 import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
 import com.datastax.oss.driver.api.core.type.*;
 import com.datastax.oss.driver.api.core.type.codec.CodecNotFoundException;
 import com.datastax.oss.driver.api.core.type.codec.registry.MutableCodecRegistry;
@@ -34,10 +35,14 @@ import com.datastax.cdm.data.CqlConversion;
 import com.datastax.cdm.data.DataUtility;
 import com.datastax.cdm.properties.KnownProperties;
 import com.datastax.cdm.properties.PropertyHelper;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.driver.internal.core.metadata.token.RandomToken;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -153,6 +158,16 @@ public class CqlTable extends BaseTable {
     public ConsistencyLevel getWriteConsistencyLevel() { return writeConsistencyLevel; }
 
     public boolean hasRandomPartitioner() { return hasRandomPartitioner; }
+
+    // Returns the partitioner token of a partition key, given the serialized value of each partition key column
+    public BigInteger getToken(ByteBuffer... partitionKey) {
+        Token token = fetchMetadataFromSession(cqlSession).getTokenMap().get().newToken(partitionKey);
+        if (token instanceof Murmur3Token)
+            return BigInteger.valueOf(((Murmur3Token) token).getValue());
+        if (token instanceof RandomToken)
+            return ((RandomToken) token).getValue();
+        throw new RuntimeException("Token " + token + " of table " + getKeyspaceTable() + " is not a Murmur3 or Random partitioner token");
+    }
     public Integer getFetchSizeInRows() { return propertyHelper.getInteger(KnownProperties.PERF_FETCH_SIZE); }
     public Integer getBatchSize() {
         Integer prop = propertyHelper.getInteger(KnownProperties.PERF_BATCH_SIZE);
@@ -212,6 +227,32 @@ public class CqlTable extends BaseTable {
         return rtn;
     }
 
+    // Restricts the columns to those named, keeping table order; primary key columns are always kept.
+    // As column indexes change, this must be called before the other table is set and features are
+    // initialized.
+    public void retainColumns(Collection<String> columnNamesToRetain) {
+        if (null != this.otherCqlTable)
+            throw new IllegalStateException("Columns cannot be changed once the other table is set");
+
+        List<Integer> retainedIndexes = IntStream.range(0, this.columnNames.size())
+                .filter(i -> this.pkNames.contains(this.columnNames.get(i)) || columnNamesToRetain.contains(this.columnNames.get(i)))
+                .boxed()
+                .collect(Collectors.toList());
+        this.columnNames = retainedIndexes.stream().map(this.columnNames::get).collect(Collectors.toList());
+        this.columnCqlTypes = retainedIndexes.stream().map(this.columnCqlTypes::get).collect(Collectors.toList());
+        List<Class> retainedBindClasses = retainedIndexes.stream().map(this.bindClasses::get).collect(Collectors.toList());
+        this.bindClasses.clear();
+        this.bindClasses.addAll(retainedBindClasses);
+
+        this.pkIndexes.clear();
+        this.pkNames.stream().map(columnNames::indexOf).forEach(this.pkIndexes::add);
+        this.counterIndexes.clear();
+        IntStream.range(0, columnCqlTypes.size())
+                .filter(i -> columnCqlTypes.get(i).equals(DataTypes.COUNTER))
+                .forEach(this.counterIndexes::add);
+        this.isCounterTable = !this.counterIndexes.isEmpty();
+    }
+
     @Override
     public List<String> getColumnNames(boolean format) {
         if (format) return formatNames(this.columnNames);
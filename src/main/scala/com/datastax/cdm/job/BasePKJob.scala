@@ -19,8 +19,8 @@ import java.util
 
 abstract class BasePKJob extends BaseJob[SplitPartitions.PKRows] {
   override def getParts(pieces: Int): util.Collection[SplitPartitions.PKRows] = {
-    // This takes a file with N rows and divides it into pieces of size N/pieces
-    // Each PKRows object contains a list of Strings that contain the PK to be parsed
+    // This takes a file of N bytes and divides it into line-aligned pieces of about N/pieces bytes
+    // Each PKRows object holds only the byte range; its rows are read by the executor that processes it
     SplitPartitions.getRowPartsFromFile(pieces, this.partitionFileName)
   }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job
+
+import java.math.BigInteger
+import java.util
+import scala.jdk.CollectionConverters._
+
+object CountData extends BasePartitionJob {
+  setup("Row Count Validation Job", new CountJobSessionFactory())
+  execute()
+  finish()
+
+  // Counts each vnode-aligned range on Origin and Target, and replaces the partition file with the
+  // ranges whose counts differ so that DiffData can be run against just those ranges
+  override def execute(): Unit = {
+    val ranges = SplitPartitions.alignToRing(parts, getOriginRing())
+    abstractLogger.info("PARAM Calculated -- Total Ring-Aligned Partitions: " + ranges.size())
+
+    val mismatched: Array[SplitPartitions.Partition] = sContext.parallelize(ranges.asScala.toSeq, ranges.size).map(slice =>
+      originConnection.withSessionDo(sourceSession =>
+        targetConnection.withSessionDo(destinationSession =>
+          jobFactory.getInstance(sourceSession, destinationSession, sc).asInstanceOf[CountJobSession]
+            .countSlice(slice)))).filter(null != _).collect()
+
+    if (SplitPartitions.writePartitionFile(partitionFileName, mismatched.toSeq.asJava))
+      abstractLogger.info("Wrote " + mismatched.length + " mismatched token ranges to partition file: " + partitionFileName)
+    else
+      abstractLogger.info("All token ranges have matching row counts")
+  }
+
+  private def getOriginRing(): util.List[BigInteger] = {
+    try {
+      originConnection.withSessionDo(session => {
+        val tokenMap = session.getMetadata.getTokenMap.get()
+        tokenMap.getTokenRanges.asScala.map(range => new BigInteger(tokenMap.format(range.getEnd))).toList.asJava
+      })
+    } catch {
+      case e: Exception =>
+        abstractLogger.warn("Could not read the Origin token ring, ranges will not be vnode-aligned", e)
+        new util.ArrayList[BigInteger]()
+    }
+  }
+}
@@ -15,17 +15,75 @@
  */
 package com.datastax.cdm.job
 
+import com.datastax.cdm.properties.KnownProperties
+
+import java.util
+import scala.jdk.CollectionConverters._
+
 object DiffData extends BasePartitionJob {
   setup("Data Validation Job", new DiffJobSessionFactory())
-  execute()
+  if (propertyHelper.getBoolean(KnownProperties.SAMPLE_ENABLED)) executeSample()
+  else if (propertyHelper.getBoolean(KnownProperties.DIFF_INCREMENTAL_ENABLED)) executeIncremental()
+  else execute()
   finish()
 
+  // Validates every token range, and merges the per-column differences found in each into one summary
   override def execute(): Unit = {
-    slices.foreach(slice => {
-      originConnection.withSessionDo(sourceSession =>
+    if (!parts.isEmpty) {
+      val statistics = slices.map(slice =>
+        originConnection.withSessionDo(sourceSession =>
+          targetConnection.withSessionDo(destinationSession =>
+            jobFactory.getInstance(sourceSession, destinationSession, sc).asInstanceOf[DiffJobSession]
+              .diffSliceWithStatistics(slice)))).reduce((a, b) => a.merge(b))
+      statistics.getSummary.asScala.foreach(line => abstractLogger.info("Final Mismatch Statistics -- " + line))
+    }
+  }
+
+  // Validates the token ranges in random order, a round at a time, and stops as soon as the
+  // mismatch and missing rates are estimated to within the requested margin
+  def executeSample(): Unit = {
+    val confidencePercent: Int = propertyHelper.getInteger(KnownProperties.SAMPLE_CONFIDENCE_PERCENT)
+    val margin: Double = propertyHelper.getInteger(KnownProperties.SAMPLE_MARGIN_BASIS_POINTS) / 10000.0
+    val rangesPerRound: Int = propertyHelper.getInteger(KnownProperties.SAMPLE_RANGES_PER_ROUND)
+    abstractLogger.info("PARAM -- Sample Confidence Percent: " + confidencePercent)
+    abstractLogger.info("PARAM -- Sample Margin: " + margin)
+    abstractLogger.info("PARAM -- Sample Ranges per Round: " + rangesPerRound)
+
+    val ranges = new util.ArrayList[SplitPartitions.Partition](parts)
+    util.Collections.shuffle(ranges)
+    val rounds = SplitPartitions.batches(ranges, rangesPerRound).iterator().asScala
+    val sample = new SampleStatistics()
+    while (rounds.hasNext && !sample.isPrecise(confidencePercent, margin)) {
+      val round = rounds.next()
+      sample.merge(sContext.parallelize(round.asScala.toSeq, round.size).map(slice =>
+        originConnection.withSessionDo(sourceSession =>
+          targetConnection.withSessionDo(destinationSession =>
+            jobFactory.getInstance(sourceSession, destinationSession, sc).asInstanceOf[DiffJobSession]
+              .sampleSlice(slice)))).reduce((a, b) => a.merge(b)))
+      abstractLogger.info("Sample Progress -- " + sample.getSummary(confidencePercent))
+    }
+
+    if (!sample.isPrecise(confidencePercent, margin))
+      abstractLogger.warn("All " + ranges.size + " token ranges were validated before the requested margin was reached")
+    abstractLogger.info("Final Sample Estimate -- " + sample.getSummary(confidencePercent))
+  }
+
+  // Validates only the rows written since each token range was last validated without differences,
+  // and records the start of this run as the new watermark of the ranges that pass
+  def executeIncremental(): Unit = {
+    val watermarkFile = RangeWatermarks.getWatermarkFile(propertyHelper)
+    val watermarks = RangeWatermarks.load(watermarkFile)
+    val runWatermark: Long = System.currentTimeMillis() * 1000
+    abstractLogger.info("PARAM -- Watermark File: " + watermarkFile + " with " + watermarks.size + " token ranges")
+
+    val results: Array[(SplitPartitions.Partition, java.lang.Long)] = slices.map(slice =>
+      (slice, originConnection.withSessionDo(sourceSession =>
         targetConnection.withSessionDo(destinationSession =>
-          jobFactory.getInstance(sourceSession, destinationSession, sc)
-            .processSlice(slice)))
-    })
+          jobFactory.getInstance(sourceSession, destinationSession, sc).asInstanceOf[DiffJobSession]
+            .diffSliceIncremental(slice, watermarks.get(slice), runWatermark))))).collect()
+
+    results.filter(null != _._2).foreach(result => watermarks.put(result._1, result._2))
+    watermarks.save(watermarkFile)
+    abstractLogger.info("Wrote watermarks for " + watermarks.size + " token ranges to: " + watermarkFile)
   }
 }
@@ -15,9 +15,13 @@
  */
 package com.datastax.cdm.job
 
+import com.datastax.cdm.data.RangeDigest
+import com.datastax.cdm.properties.KnownProperties
+
 object Migrate extends BasePartitionJob {
   setup("Migrate Job", new CopyJobSessionFactory())
-  execute()
+  if (propertyHelper.getBoolean(KnownProperties.TOKEN_RANGE_MANIFEST_ENABLED)) executeWithManifest()
+  else execute()
   finish()
 
   override def execute(): Unit = {
@@ -28,7 +32,22 @@ object Migrate extends BasePartitionJob {
             .processSlice(slice)))
     })
   }
-}
 
+  // Copies the token ranges as usual, and records the digest of the rows written to each range in the
+  // manifest, so that VerifyManifest can later check Target without reading Origin
+  def executeWithManifest(): Unit = {
+    val manifestFile = DigestManifest.getManifestFile(propertyHelper)
+    val manifest = DigestManifest.load(manifestFile)
+    abstractLogger.info("PARAM -- Manifest File: " + manifestFile)
 
+    val results: Array[(SplitPartitions.Partition, RangeDigest)] = slices.map(slice =>
+      (slice, originConnection.withSessionDo(sourceSession =>
+        targetConnection.withSessionDo(destinationSession =>
+          jobFactory.getInstance(sourceSession, destinationSession, sc).asInstanceOf[CopyJobSession]
+            .getDataAndInsert(slice.getMin, slice.getMax))))).collect()
 
+    results.foreach(result => if (null == result._2) manifest.remove(result._1) else manifest.put(result._1, result._2))
+    manifest.save(manifestFile)
+    abstractLogger.info("Wrote digests for " + manifest.size + " token ranges to: " + manifestFile)
+  }
+}
@@ -15,9 +15,14 @@
  */
 package com.datastax.cdm.job
 
+import com.datastax.cdm.properties.KnownProperties
+
+import scala.jdk.CollectionConverters._
+
 object MigrateRowsFromFile extends BasePKJob {
   setup("Migrate Rows from File Job", new CopyPKJobSessionFactory())
-  execute()
+  if (propertyHelper.getBoolean(KnownProperties.PERF_PK_TOKEN_ORDER)) executeTokenOrdered()
+  else execute()
   finish()
 
   override def execute(): Unit = {
@@ -28,4 +33,20 @@ object MigrateRowsFromFile extends BasePKJob {
             .processSlice(slice)))
     })
   }
+
+  // Sorts the keys of every slice by the Origin token of their partition, into as many token ranges as there
+  // are slices, so that each task reads one range of partitions in token order from a single replica set
+  def executeTokenOrdered(): Unit = {
+    abstractLogger.info("PARAM -- PK Token Order: true")
+    val tokenKeys = slices.flatMap(slice =>
+      originConnection.withSessionDo(sourceSession =>
+        targetConnection.withSessionDo(destinationSession =>
+          jobFactory.getInstance(sourceSession, destinationSession, sc).asInstanceOf[CopyPKJobSession]
+            .getTokenKeys(slice).asScala.map(key => (BigInt(key.getToken), key.getValues)))))
+    tokenKeys.sortByKey(ascending = true, numPartitions = slices.getNumPartitions).foreachPartition(keys =>
+      originConnection.withSessionDo(sourceSession =>
+        targetConnection.withSessionDo(destinationSession =>
+          jobFactory.getInstance(sourceSession, destinationSession, sc).asInstanceOf[CopyPKJobSession]
+            .processTokenOrderedKeys(keys.map(_._2).asJava))))
+  }
 }
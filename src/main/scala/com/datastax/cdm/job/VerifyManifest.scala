@@ -0,0 +1,54 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job
+
+import com.datastax.cdm.properties.KnownProperties
+
+import scala.jdk.CollectionConverters._
+
+object VerifyManifest extends BasePartitionJob {
+  setup("Manifest Verification Job", new ManifestJobSessionFactory())
+  execute()
+  finish()
+
+  // Digests each token range listed in the manifest written by Migrate, reading Target only, and
+  // replaces the partition file with the ranges whose digests differ so that DiffData can be run
+  // against just those ranges
+  override def execute(): Unit = {
+    val manifestFile = DigestManifest.getManifestFile(propertyHelper)
+    val manifest = DigestManifest.load(manifestFile)
+    val ranges = manifest.getRanges
+    abstractLogger.info("PARAM -- Manifest File: " + manifestFile + " with " + manifest.size + " token ranges")
+    if (ranges.isEmpty) {
+      abstractLogger.warn("No token ranges to verify; run Migrate with " + KnownProperties.TOKEN_RANGE_MANIFEST_ENABLED + " set to true first")
+    } else {
+      verify(manifest, ranges)
+    }
+  }
+
+  private def verify(manifest: DigestManifest, ranges: java.util.List[SplitPartitions.Partition]): Unit = {
+    val mismatched: Array[SplitPartitions.Partition] = sContext.parallelize(ranges.asScala.toSeq, ranges.size).map(slice =>
+      originConnection.withSessionDo(sourceSession =>
+        targetConnection.withSessionDo(destinationSession =>
+          jobFactory.getInstance(sourceSession, destinationSession, sc).asInstanceOf[ManifestJobSession]
+            .verifySlice(slice, manifest.get(slice))))).filter(null != _).collect()
+
+    if (SplitPartitions.writePartitionFile(partitionFileName, mismatched.toSeq.asJava))
+      abstractLogger.info("Wrote " + mismatched.length + " mismatched token ranges to partition file: " + partitionFileName)
+    else
+      abstractLogger.info("All token ranges match their manifest digests")
+  }
+}
@@ -29,6 +29,7 @@ import com.datastax.oss.driver.api.core.type.DataType;
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import com.datastax.oss.driver.api.core.type.codec.registry.MutableCodecRegistry;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -84,6 +85,7 @@ public class CommonMocks {
 
     @Mock public PreparedStatement preparedStatement;
     @Mock public BoundStatement boundStatement;
+    @Mock(answer = Answers.RETURNS_SELF) public BoundStatementBuilder boundStatementBuilder;
     @Mock public CompletionStage<AsyncResultSet> completionStage;
 
     @Mock public EnhancedPK pk;
@@ -467,6 +469,8 @@ public class CommonMocks {
 
     public void setStatementAndBindWhens() {
         when(preparedStatement.bind()).thenReturn(boundStatement);
+        when(preparedStatement.boundStatementBuilder()).thenReturn(boundStatementBuilder);
+        when(boundStatementBuilder.build()).thenReturn(boundStatement);
         when(preparedStatement.bind(anyLong(), anyLong())).thenReturn(boundStatement);
         when(preparedStatement.bind(any(BigInteger.class), any(BigInteger.class))).thenReturn(boundStatement);
 
@@ -476,6 +480,7 @@ public class CommonMocks {
         when(boundStatement.setPageSize(any(Integer.class))).thenReturn(boundStatement);
 
         when(pkFactory.bindWhereClause(any(PKFactory.Side.class), any(EnhancedPK.class), eq(boundStatement), anyInt())).thenReturn(boundStatement);
+        when(pkFactory.bindWhereClause(any(PKFactory.Side.class), any(EnhancedPK.class), eq(boundStatementBuilder), anyInt())).thenReturn(boundStatementBuilder);
     }
 
     public void setPKAndRecordWhens() {
@@ -32,7 +32,6 @@ import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
 class TEXTFormat_InstantCodecTest {
@@ -44,7 +43,7 @@ class TEXTFormat_InstantCodecTest {
     private static final String FORMAT = "yyMMddHHmmss";
     private static final String TIMEZONE = "Europe/Dublin";
     DateTimeFormatter formatter = DateTimeFormatter.ofPattern(FORMAT);
-    ZoneOffset zoneOffset = ZoneId.of(TIMEZONE).getRules().getOffset(Instant.now());
+    ZoneId zoneId = ZoneId.of(TIMEZONE);
 
     @BeforeEach
     void setUp() {
@@ -81,7 +80,7 @@ class TEXTFormat_InstantCodecTest {
     @Test
     void encode_ShouldEncodeInstantToTextByteBuffer_WhenValueIsNotNull() {
         String valueAsString = "220412215715";
-        Instant value = LocalDateTime.parse(valueAsString, formatter).toInstant(zoneOffset);
+        Instant value = LocalDateTime.parse(valueAsString, formatter).atZone(zoneId).toInstant();
         ByteBuffer expected = TypeCodecs.TEXT.encode(valueAsString, CqlConversion.PROTOCOL_VERSION);
 
         ByteBuffer result = codec.encode(value, CqlConversion.PROTOCOL_VERSION);
@@ -91,7 +90,7 @@ class TEXTFormat_InstantCodecTest {
     @Test
     void decode_ShouldDecodeTextByteBufferAndReturnAsInstant() {
         String valueAsString = "220412215715";
-        Instant value = LocalDateTime.parse(valueAsString, formatter).toInstant(zoneOffset);
+        Instant value = LocalDateTime.parse(valueAsString, formatter).atZone(zoneId).toInstant();
         ByteBuffer byteBuffer = TypeCodecs.TEXT.encode(valueAsString, CqlConversion.PROTOCOL_VERSION);
 
         Instant result = codec.decode(byteBuffer, CqlConversion.PROTOCOL_VERSION);
@@ -101,7 +100,7 @@ class TEXTFormat_InstantCodecTest {
     @Test
     void format_ShouldFormatInstantValueAsText() {
         String valueAsString = "220412215715";
-        Instant value = LocalDateTime.parse(valueAsString, formatter).toInstant(zoneOffset);
+        Instant value = LocalDateTime.parse(valueAsString, formatter).atZone(zoneId).toInstant();
         String result = codec.format(value);
         Assertions.assertEquals(valueAsString, result);
     }
@@ -109,7 +108,7 @@ class TEXTFormat_InstantCodecTest {
     @Test
     void parse_ShouldParseTextAndReturnAsInstant() {
         String valueAsString = "220412215715";
-        Instant value = LocalDateTime.parse(valueAsString, formatter).toInstant(zoneOffset);
+        Instant value = LocalDateTime.parse(valueAsString, formatter).atZone(zoneId).toInstant();
         Instant result = codec.parse(valueAsString);
         Assertions.assertEquals(value,result);
     }
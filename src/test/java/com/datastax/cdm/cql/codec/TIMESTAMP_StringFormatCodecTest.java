@@ -31,7 +31,6 @@ import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
 class TIMESTAMP_StringFormatCodecTest {
@@ -41,7 +40,7 @@ class TIMESTAMP_StringFormatCodecTest {
     private static final String FORMAT = "yyMMddHHmmss";
     private static final String TIMEZONE = "Europe/Dublin";
     DateTimeFormatter formatter = DateTimeFormatter.ofPattern(FORMAT);
-    ZoneOffset zoneOffset = ZoneId.of(TIMEZONE).getRules().getOffset(Instant.now());
+    ZoneId zoneId = ZoneId.of(TIMEZONE);
 
     @BeforeEach
     void setUp() {
@@ -78,7 +77,7 @@ class TIMESTAMP_StringFormatCodecTest {
     @Test
     void encode_ShouldEncodeStringValueToByteBuffer_WhenValueIsNotNull() {
         String valueAsString = "220412215715";
-        Instant value = LocalDateTime.parse(valueAsString, formatter).toInstant(zoneOffset);
+        Instant value = LocalDateTime.parse(valueAsString, formatter).atZone(zoneId).toInstant();
         ByteBuffer expected = TypeCodecs.TIMESTAMP.encode(value, CqlConversion.PROTOCOL_VERSION);
 
         ByteBuffer result = codec.encode(valueAsString, CqlConversion.PROTOCOL_VERSION);
@@ -88,7 +87,7 @@ class TIMESTAMP_StringFormatCodecTest {
     @Test
     void decode_ShouldDecodeByteBufferToValueAndReturnAsString() {
         String valueAsString = "220412215715";
-        Instant value = LocalDateTime.parse(valueAsString, formatter).toInstant(zoneOffset);
+        Instant value = LocalDateTime.parse(valueAsString, formatter).atZone(zoneId).toInstant();
         ByteBuffer byteBuffer = TypeCodecs.TIMESTAMP.encode(value, CqlConversion.PROTOCOL_VERSION);
 
         String result = codec.decode(byteBuffer, CqlConversion.PROTOCOL_VERSION);
@@ -98,7 +97,7 @@ class TIMESTAMP_StringFormatCodecTest {
     @Test
     void format_ShouldFormatInstantValueAsString() {
         String valueAsString = "220412215715";
-        Instant value = LocalDateTime.parse(valueAsString, formatter).toInstant(zoneOffset);
+        Instant value = LocalDateTime.parse(valueAsString, formatter).atZone(zoneId).toInstant();
         String expected = TypeCodecs.TIMESTAMP.format(value);
 
         String result = codec.format(valueAsString);
@@ -108,7 +107,7 @@ class TIMESTAMP_StringFormatCodecTest {
     @Test
     void parse_ShouldParseStringToValueAndReturnAsString() {
         String valueAsString = "220412215715";
-        Instant value = LocalDateTime.parse(valueAsString, formatter).toInstant(zoneOffset);
+        Instant value = LocalDateTime.parse(valueAsString, formatter).atZone(zoneId).toInstant();
         String result = codec.parse(TypeCodecs.TIMESTAMP.format(value));
         Assertions.assertEquals(valueAsString, result);
     }
@@ -0,0 +1,99 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.codec;
+
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.properties.PropertyHelper;
+import org.apache.spark.SparkConf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+class TimestampStringFormatTest {
+
+    private static final String DUBLIN = "Europe/Dublin";
+
+    private TimestampStringFormat timestampFormat(String format, String zone) {
+        SparkConf sc = new SparkConf();
+        sc.set(KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT, format);
+        sc.set(KnownProperties.TRANSFORM_CODECS_TIMESTAMP_STRING_FORMAT_ZONE, zone);
+        PropertyHelper.destroyInstance();
+        PropertyHelper propertyHelper = PropertyHelper.getInstance();
+        propertyHelper.initializeSparkConf(sc);
+        return new TimestampStringFormat(propertyHelper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PropertyHelper.destroyInstance();
+    }
+
+    private void assertSameAsFormatter(String format, String zone, String value) {
+        TimestampStringFormat timestampFormat = timestampFormat(format, zone);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        Instant expected = LocalDateTime.parse(value, formatter).atZone(ZoneId.of(zone)).toInstant();
+        Instant parsed = timestampFormat.parse(value);
+        Assertions.assertEquals(expected, parsed, value);
+        Assertions.assertEquals(formatter.format(expected.atZone(ZoneId.of(zone))), timestampFormat.format(parsed), value);
+    }
+
+    @Test
+    void offsetFollowsDaylightSaving() {
+        TimestampStringFormat timestampFormat = timestampFormat("yyyyMMddHHmmss", DUBLIN);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Instant.parse("2023-01-15T12:00:00Z"), timestampFormat.parse("20230115120000")),
+                () -> Assertions.assertEquals(Instant.parse("2023-07-15T11:00:00Z"), timestampFormat.parse("20230715120000")),
+                () -> Assertions.assertEquals(Instant.parse("2023-01-16T12:00:00Z"), timestampFormat.parse("20230116120000")),
+                () -> Assertions.assertEquals("20230715120000", timestampFormat.format(Instant.parse("2023-07-15T11:00:00Z"))),
+                () -> Assertions.assertEquals("20230115120000", timestampFormat.format(Instant.parse("2023-01-15T12:00:00Z"))),
+                () -> Assertions.assertEquals(ZoneOffset.ofHours(1), timestampFormat.offsetAt(Instant.parse("2023-07-01T00:00:00Z"))),
+                () -> Assertions.assertEquals(ZoneOffset.UTC, timestampFormat.offsetAt(Instant.parse("2023-12-01T00:00:00Z")))
+        );
+    }
+
+    @Test
+    void sameAsFormatter() {
+        Assertions.assertAll(
+                () -> assertSameAsFormatter("yyyy-MM-dd HH:mm:ss.SSS", DUBLIN, "2023-03-26 12:34:56.789"),
+                () -> assertSameAsFormatter("yyyy-MM-dd'T'HH:mm:ss", "UTC", "1999-12-31T23:59:59"),
+                () -> assertSameAsFormatter("yyMMddHHmm", "America/New_York", "2211061530"),
+                () -> assertSameAsFormatter("dd MMM yyyy HH:mm", DUBLIN, "04 Jul 2021 08:00"),
+                // no 31st of April, which the formatter resolves to the 30th
+                () -> assertSameAsFormatter("yyyy-MM-dd HH:mm:ss", DUBLIN, "2023-04-31 10:00:00"),
+                // times in the spring-forward gap and the autumn overlap
+                () -> assertSameAsFormatter("yyyy-MM-dd HH:mm:ss", DUBLIN, "2023-03-26 01:30:00"),
+                () -> assertSameAsFormatter("yyyy-MM-dd HH:mm:ss", DUBLIN, "2023-10-29 01:30:00")
+        );
+    }
+
+    @Test
+    void invalidValues() {
+        TimestampStringFormat timestampFormat = timestampFormat("yyyy-MM-dd HH:mm:ss", DUBLIN);
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(DateTimeParseException.class, () -> timestampFormat.parse("2023-0a-01 10:00:00")),
+                () -> Assertions.assertThrows(DateTimeParseException.class, () -> timestampFormat.parse("2023/01/01 10:00:00")),
+                () -> Assertions.assertThrows(DateTimeParseException.class, () -> timestampFormat.parse("2023-13-01 10:00:00")),
+                () -> Assertions.assertThrows(DateTimeParseException.class, () -> timestampFormat.parse("2023-01-01"))
+        );
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.statement;
+
+import com.datastax.cdm.cql.CommonMocks;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CountByPartitionRangeStatementTest extends CommonMocks {
+
+    @BeforeEach
+    public void setup() {
+        commonSetup();
+    }
+
+    private String countCQL(String keyspaceTableName, String partitionKey) {
+        return "SELECT COUNT(*) FROM " + keyspaceTableName
+                + " WHERE TOKEN(" + partitionKey + ") >= ? AND TOKEN(" + partitionKey + ") <= ?";
+    }
+
+    @Test
+    public void smoke_basicCQL() {
+        assertAll(
+                () -> assertEquals(countCQL(originKeyspaceTableName, String.join(",", originPartitionKey)),
+                        new CountByPartitionRangeStatement(propertyHelper, originSession).getCQL()),
+                () -> assertEquals(countCQL(targetKeyspaceTableName, String.join(",", targetPartitionKey)),
+                        new CountByPartitionRangeStatement(propertyHelper, targetSession).getCQL())
+        );
+    }
+
+    @Test
+    public void originFilterCondition() {
+        when(originFilterConditionFeature.isEnabled()).thenReturn(true);
+        when(originFilterConditionFeature.getFilterCondition()).thenReturn(" AND a > 1");
+        assertAll(
+                () -> assertEquals(countCQL(originKeyspaceTableName, String.join(",", originPartitionKey)) + " AND a > 1 ALLOW FILTERING",
+                        new CountByPartitionRangeStatement(propertyHelper, originSession).getCQL()),
+                () -> assertEquals(countCQL(targetKeyspaceTableName, String.join(",", targetPartitionKey)),
+                        new CountByPartitionRangeStatement(propertyHelper, targetSession).getCQL())
+        );
+    }
+
+    @Test
+    public void bind_withNullBinds() {
+        CountByPartitionRangeStatement statement = new CountByPartitionRangeStatement(propertyHelper, targetSession);
+        assertAll(
+                () -> assertThrows(RuntimeException.class, () -> statement.bind(null, BigInteger.ONE), "null first"),
+                () -> assertThrows(RuntimeException.class, () -> statement.bind(BigInteger.ONE, null), "null second")
+        );
+    }
+
+    @Test
+    public void countAsync() {
+        BigInteger providedMin = BigInteger.valueOf(12345L);
+        BigInteger providedMax = BigInteger.valueOf(67890L);
+        CountByPartitionRangeStatement statement = new CountByPartitionRangeStatement(propertyHelper, targetSession);
+
+        assertSame(completionStage, statement.countAsync(providedMin, providedMax));
+        assertAll(
+                () -> verify(preparedStatement).bind(providedMin.longValueExact(), providedMax.longValueExact()),
+                () -> verify(boundStatement).setConsistencyLevel(readCL),
+                () -> verify(targetCqlSession).executeAsync(boundStatement)
+        );
+    }
+
+    @Test
+    public void bind_whenRandomPartitioner() {
+        when(targetTable.hasRandomPartitioner()).thenReturn(true);
+        BigInteger providedMin = BigInteger.valueOf(12345L);
+        BigInteger providedMax = BigInteger.valueOf(67890L);
+
+        new CountByPartitionRangeStatement(propertyHelper, targetSession).bind(providedMin, providedMax);
+        verify(preparedStatement).bind(providedMin, providedMax);
+    }
+
+    @Test
+    public void getCount() {
+        AsyncResultSet resultSet = mock(AsyncResultSet.class);
+        Row row = mock(Row.class);
+        when(resultSet.one()).thenReturn(row);
+        when(row.getLong(0)).thenReturn(42L);
+        assertEquals(42L, CountByPartitionRangeStatement.getCount(CompletableFuture.completedFuture(resultSet)));
+
+        when(resultSet.one()).thenReturn(null);
+        assertThrows(RuntimeException.class, () -> CountByPartitionRangeStatement.getCount(CompletableFuture.completedFuture(resultSet)));
+    }
+}
@@ -76,6 +76,12 @@ public class OriginSelectByPKStatementTest extends CommonMocks {
         assertNull(originSelectByPKStatement.getRecord(pk));
     }
 
+    @Test
+    public void testGetAsyncResult() {
+        assertSame(completionStage, originSelectByPKStatement.getAsyncResult(pk));
+        verify(originCqlSession).executeAsync(boundStatement);
+    }
+
     @Test
     public void testBind_success() {
         originSelectByPKStatement.bind(pk);
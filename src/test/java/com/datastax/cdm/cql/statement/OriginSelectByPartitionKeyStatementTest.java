@@ -0,0 +1,115 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.statement;
+
+import com.datastax.cdm.cql.CommonMocks;
+import com.datastax.cdm.data.EnhancedPK;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.schema.CqlTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OriginSelectByPartitionKeyStatementTest extends CommonMocks {
+
+    OriginSelectByPartitionKeyStatement statement;
+
+    @BeforeEach
+    public void setup() {
+        commonSetup();
+        tableWhens(originPrimaryKey, 3);
+    }
+
+    private void tableWhens(List<String> primaryKey, int groupSize) {
+        when(originTable.getPKNames(false)).thenReturn(primaryKey);
+        when(originTable.getPKNames(true)).thenReturn(CqlTable.formatNames(primaryKey));
+        when(originTable.getPKClasses()).thenReturn(Collections.nCopies(primaryKey.size(), String.class));
+        when(propertyHelper.getInteger(KnownProperties.PERF_PK_GROUP_SIZE)).thenReturn(groupSize);
+        statement = new OriginSelectByPartitionKeyStatement(propertyHelper, originSession);
+    }
+
+    private EnhancedPK key(String... values) {
+        EnhancedPK key = mock(EnhancedPK.class);
+        when(key.getPKValues()).thenReturn(Arrays.asList((Object[]) values));
+        return key;
+    }
+
+    @Test
+    public void smoke_basicCQL() {
+        String expected = "SELECT " + String.join(",", originColumnNames) +
+                " FROM " + originKeyspaceTableName +
+                " WHERE part_key1=? AND part_key2=? AND cluster_key IN (?,?,?)";
+        assertAll(
+                () -> assertEquals(expected, statement.getCQL()),
+                () -> assertEquals(3, statement.getGroupSize())
+        );
+    }
+
+    @Test
+    public void multipleClusteringColumns() {
+        tableWhens(Arrays.asList("part_key1", "part_key2", "cluster_key", "value1"), 2);
+        assertTrue(statement.getCQL().endsWith(" WHERE part_key1=? AND part_key2=? AND (cluster_key,value1) IN ((?,?),(?,?))"));
+    }
+
+    @Test
+    public void noClusteringColumns() {
+        tableWhens(originPartitionKey, 0);
+        assertAll(
+                () -> assertTrue(statement.getCQL().endsWith(" WHERE part_key1=? AND part_key2=?")),
+                () -> assertEquals(1, statement.getGroupSize())
+        );
+    }
+
+    @Test
+    public void bind_padsWithLastKey() {
+        statement.bind(Arrays.asList(key("p1", "p2", "c1"), key("p1", "p2", "c2")));
+        assertAll(
+                () -> verify(boundStatementBuilder).set(0, "p1", String.class),
+                () -> verify(boundStatementBuilder).set(1, "p2", String.class),
+                () -> verify(boundStatementBuilder).set(2, "c1", String.class),
+                () -> verify(boundStatementBuilder).set(3, "c2", String.class),
+                () -> verify(boundStatementBuilder).set(4, "c2", String.class),
+                () -> verify(boundStatementBuilder, times(5)).set(anyInt(), any(), any(Class.class)),
+                () -> verify(boundStatementBuilder).setConsistencyLevel(readCL),
+                () -> verify(boundStatementBuilder).setPageSize(fetchSizeInRows)
+        );
+    }
+
+    @Test
+    public void getAsyncResult() {
+        assertSame(completionStage, statement.getAsyncResult(Collections.singletonList(key("p1", "p2", "c1"))));
+        verify(originCqlSession).executeAsync(boundStatement);
+    }
+
+    @Test
+    public void bind_invalid() {
+        EnhancedPK k = key("p1", "p2", "c1");
+        assertAll(
+                () -> assertThrows(RuntimeException.class, () -> statement.bind((Object[]) null), "null"),
+                () -> assertThrows(RuntimeException.class, () -> statement.bind(k), "not a list"),
+                () -> assertThrows(RuntimeException.class, () -> statement.bind(Collections.emptyList()), "empty"),
+                () -> assertThrows(RuntimeException.class, () -> statement.bind(Arrays.asList(k, k, k, k)), "too many"),
+                () -> assertThrows(RuntimeException.class, () -> statement.bind(Collections.singletonList(key("p1", "p2"))), "wrong size")
+        );
+    }
+}
@@ -16,6 +16,7 @@
 package com.datastax.cdm.cql.statement;
 
 import com.datastax.cdm.cql.CommonMocks;
+import com.datastax.cdm.properties.KnownProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -71,6 +72,22 @@ public class OriginSelectByPartitionRangeStatementTest extends CommonMocks {
         assertEquals(sb.toString(),cql);
     }
 
+    @Test
+    public void perPartitionLimit() {
+        originSelectByPartitionRangeStatement = new OriginSelectByPartitionRangeStatement(propertyHelper, originSession, 10);
+
+        assertTrue(originSelectByPartitionRangeStatement.getCQL().endsWith(" <= ? PER PARTITION LIMIT 10 ALLOW FILTERING"));
+    }
+
+    @Test
+    public void perPartitionLimit_notFromSampleProperties() {
+        when(propertyHelper.getBoolean(KnownProperties.SAMPLE_ENABLED)).thenReturn(true);
+        when(propertyHelper.getInteger(KnownProperties.SAMPLE_PER_PARTITION_LIMIT)).thenReturn(10);
+        originSelectByPartitionRangeStatement = new OriginSelectByPartitionRangeStatement(propertyHelper, originSession);
+
+        assertFalse(originSelectByPartitionRangeStatement.getCQL().contains("PER PARTITION LIMIT"));
+    }
+
     @Test
     public void bind_withNullBinds() {
         assertAll(
@@ -0,0 +1,58 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.statement;
+
+import com.datastax.cdm.cql.CommonMocks;
+import com.datastax.cdm.data.PKFactory;
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TargetDeleteStatementTest extends CommonMocks {
+
+    TargetDeleteStatement targetDeleteStatement;
+
+    @BeforeEach
+    public void setup() {
+        commonSetup();
+        when(targetTable.getWriteConsistencyLevel()).thenReturn(ConsistencyLevel.LOCAL_QUORUM);
+        targetDeleteStatement = new TargetDeleteStatement(propertyHelper, targetSession);
+    }
+
+    @Test
+    public void smoke_basicCQL() {
+        String expected = "DELETE FROM " + targetKeyspaceTableName + " WHERE " + keyEqualsBindJoinedWithAND(targetPrimaryKey);
+        assertEquals(expected, targetDeleteStatement.getCQL());
+    }
+
+    @Test
+    public void deleteAsync() {
+        assertSame(completionStage, targetDeleteStatement.deleteAsync(pk));
+        assertAll(
+                () -> verify(boundStatement).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM),
+                () -> verify(pkFactory).bindWhereClause(PKFactory.Side.TARGET, pk, boundStatement, 0),
+                () -> verify(targetCqlSession).executeAsync(boundStatement)
+        );
+    }
+
+    @Test
+    public void bind_nullPK() {
+        assertThrows(RuntimeException.class, () -> targetDeleteStatement.deleteAsync(null));
+    }
+}
@@ -21,6 +21,7 @@ import com.datastax.oss.driver.api.core.type.DataTypes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -114,7 +115,18 @@ public class TargetInsertStatementTest extends CommonMocks {
     public void bind_withStandardInput() {
         BoundStatement result = targetInsertStatement.bind(originRow, targetRow, null,null,null,null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
+    }
+
+    @Test
+    public void bind_passesSerializedOriginValues() {
+        ByteBuffer bytes = ByteBuffer.wrap(new byte[]{1});
+        when(originRow.getBytesUnsafe(anyInt())).thenReturn(bytes);
+
+        BoundStatement result = targetInsertStatement.bind(originRow, targetRow, null,null,null,null);
+        assertNotNull(result);
+        verify(boundStatementBuilder, times(targetColumnNames.size())).setBytesUnsafe(anyInt(), eq(bytes));
+        verify(boundStatementBuilder, never()).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -125,7 +137,7 @@ public class TargetInsertStatementTest extends CommonMocks {
 
         BoundStatement result = targetInsertStatement.bind(originRow, targetRow, 3600,null,null,null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size()+1)).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size()+1)).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -136,7 +148,7 @@ public class TargetInsertStatementTest extends CommonMocks {
 
         BoundStatement result = targetInsertStatement.bind(originRow, targetRow, null,10000L,null,null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size()+1)).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size()+1)).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -148,7 +160,7 @@ public class TargetInsertStatementTest extends CommonMocks {
 
         BoundStatement result = targetInsertStatement.bind(originRow, targetRow, 3600,10000L,null,null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size()+2)).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size()+2)).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -158,7 +170,7 @@ public class TargetInsertStatementTest extends CommonMocks {
 
         BoundStatement result = targetInsertStatement.bind(originRow, targetRow, null,null,getSampleData(explodeMapKeyType),getSampleData(explodeMapValueType));
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -168,7 +180,7 @@ public class TargetInsertStatementTest extends CommonMocks {
 
         BoundStatement result = targetInsertStatement.bind(originRow, targetRow, null,null,getSampleData(explodeMapKeyType),getSampleData(explodeMapValueType));
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size()-constantColumns.size())).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size()-constantColumns.size())).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -179,7 +191,7 @@ public class TargetInsertStatementTest extends CommonMocks {
 
         BoundStatement result = targetInsertStatement.bind(originRow, targetRow, null,null,getSampleData(explodeMapKeyType),getSampleData(explodeMapValueType));
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size()-1)).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size()-1)).set(anyInt(), any(), any(Class.class));
     }
 
 
@@ -215,7 +227,7 @@ public class TargetInsertStatementTest extends CommonMocks {
         assertEquals(vectorColType, targetInsertStatement.targetColumnTypes.get(5));
         BoundStatement result = targetInsertStatement.bind(originRow, targetRow, null, null,null, null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
     }
 
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.statement;
+
+import com.datastax.cdm.cql.CommonMocks;
+import com.datastax.cdm.schema.CqlTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TargetSelectByPartitionRangeStatementTest extends CommonMocks {
+
+    TargetSelectByPartitionRangeStatement targetSelectByPartitionRangeStatement;
+
+    @BeforeEach
+    public void setup() {
+        commonSetup();
+        targetSelectByPartitionRangeStatement = new TargetSelectByPartitionRangeStatement(propertyHelper, targetSession, targetColumnNames);
+    }
+
+    private String expectedCQL(List<String> columnNames) {
+        String keys = String.join(",", targetPartitionKey);
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT ")
+                .append(String.join(",", CqlTable.formatNames(columnNames)))
+                .append(" FROM ")
+                .append(targetKeyspaceTableName)
+                .append(" WHERE ")
+                .append("TOKEN(").append(keys).append(") >= ? AND TOKEN(").append(keys).append(") <= ?");
+        return sb.toString();
+    }
+
+    @Test
+    public void smoke_basicCQL() {
+        assertEquals(expectedCQL(targetColumnNames), targetSelectByPartitionRangeStatement.getCQL());
+    }
+
+    @Test
+    public void primaryKeyColumns() {
+        targetSelectByPartitionRangeStatement = new TargetSelectByPartitionRangeStatement(propertyHelper, targetSession, targetPrimaryKey);
+        assertEquals(expectedCQL(targetPrimaryKey), targetSelectByPartitionRangeStatement.getCQL());
+    }
+
+    @Test
+    public void bind_withNullBinds() {
+        assertAll(
+                () -> assertThrows(RuntimeException.class, () -> targetSelectByPartitionRangeStatement.bind(null, BigInteger.ONE), "null first"),
+                () -> assertThrows(RuntimeException.class, () -> targetSelectByPartitionRangeStatement.bind(BigInteger.ONE, null), "null second")
+        );
+    }
+
+    @Test
+    public void bind_andExecute() {
+        BigInteger providedMin = BigInteger.valueOf(12345L);
+        BigInteger providedMax = BigInteger.valueOf(67890L);
+
+        assertSame(targetResultSet, targetSelectByPartitionRangeStatement.execute(targetSelectByPartitionRangeStatement.bind(providedMin, providedMax)));
+        assertAll(
+                () -> verify(preparedStatement).bind(providedMin.longValueExact(), providedMax.longValueExact()),
+                () -> verify(boundStatement).setConsistencyLevel(readCL),
+                () -> verify(boundStatement).setPageSize(fetchSizeInRows)
+        );
+    }
+
+    @Test
+    public void bind_whenRandomPartitioner() {
+        when(targetTable.hasRandomPartitioner()).thenReturn(true);
+        BigInteger providedMin = BigInteger.valueOf(12345L);
+        BigInteger providedMax = BigInteger.valueOf(67890L);
+
+        targetSelectByPartitionRangeStatement.bind(providedMin, providedMax);
+        verify(preparedStatement).bind(providedMin, providedMax);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.cql.statement;
+
+import com.datastax.cdm.cql.CommonMocks;
+import com.datastax.cdm.data.PKFactory;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.schema.CqlTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TargetSelectMetadataByPKStatementTest extends CommonMocks {
+
+    TargetSelectMetadataByPKStatement statement;
+
+    @BeforeEach
+    public void setup() {
+        commonSetup();
+        when(targetTable.getPKNames(false)).thenReturn(targetPrimaryKey);
+        when(writetimeTTLFeature.getWritetimeNames()).thenReturn(Arrays.asList("value1", filterCol));
+        when(writetimeTTLFeature.getTtlNames()).thenReturn(Collections.singletonList("value1"));
+        when(propertyHelper.getInteger(KnownProperties.DIFF_METADATA_TTL_TOLERANCE)).thenReturn(60);
+        statement = new TargetSelectMetadataByPKStatement(propertyHelper, targetSession);
+    }
+
+    private void compareTTL() {
+        when(propertyHelper.getBoolean(KnownProperties.DIFF_METADATA_COMPARE_TTL)).thenReturn(true);
+        statement = new TargetSelectMetadataByPKStatement(propertyHelper, targetSession);
+    }
+
+    // target row of the PK columns, WRITETIME(value1), WRITETIME(filter_col) and (when comparing TTL) TTL(value1)
+    private void targetMetadata(long writetime1, long writetime2, int ttl) {
+        int n = targetPrimaryKey.size();
+        when(targetRow.getLong(n)).thenReturn(writetime1);
+        when(targetRow.getLong(n + 1)).thenReturn(writetime2);
+        when(targetRow.getInt(n + 2)).thenReturn(ttl);
+    }
+
+    @Test
+    public void smoke_basicCQL() {
+        String expected = "SELECT " + String.join(",", CqlTable.formatNames(targetPrimaryKey))
+                + ",WRITETIME(value1),WRITETIME(" + filterCol + ")"
+                + " FROM " + targetKeyspaceTableName
+                + " WHERE " + keyEqualsBindJoinedWithAND(targetPrimaryKey);
+        assertEquals(expected, statement.getCQL());
+
+        compareTTL();
+        assertTrue(statement.getCQL().contains(",WRITETIME(" + filterCol + "),TTL(value1) FROM "));
+    }
+
+    @Test
+    public void noCorrespondingColumns() {
+        when(writetimeTTLFeature.getWritetimeNames()).thenReturn(Collections.singletonList("not_on_target"));
+        assertThrows(RuntimeException.class, () -> new TargetSelectMetadataByPKStatement(propertyHelper, targetSession));
+    }
+
+    @Test
+    public void getAsyncResult() {
+        assertSame(completionStage, statement.getAsyncResult(pk));
+        assertAll(
+                () -> verify(boundStatement).setConsistencyLevel(readCL),
+                () -> verify(pkFactory).bindWhereClause(PKFactory.Side.TARGET, pk, boundStatement, 0),
+                () -> verify(targetCqlSession).executeAsync(boundStatement)
+        );
+    }
+
+    @Test
+    public void matches_writetime() {
+        targetMetadata(1000L, 2000L, 0);
+        when(pk.getWriteTimestamp()).thenReturn(2000L);
+        assertAll(
+                () -> assertEquals(2000L, statement.getLargestWriteTimeStamp(targetRow)),
+                () -> assertNull(statement.getLargestTTL(targetRow)),
+                () -> assertTrue(statement.matches(pk, targetRow))
+        );
+
+        when(pk.getWriteTimestamp()).thenReturn(1999L);
+        assertFalse(statement.matches(pk, targetRow));
+    }
+
+    @Test
+    public void matches_ttl() {
+        compareTTL();
+        targetMetadata(1000L, 2000L, 3600);
+        when(pk.getWriteTimestamp()).thenReturn(2000L);
+
+        when(pk.getTTL()).thenReturn(3630);
+        assertTrue(statement.matches(pk, targetRow));
+
+        when(pk.getTTL()).thenReturn(3700);
+        assertFalse(statement.matches(pk, targetRow));
+
+        when(pk.getTTL()).thenReturn(null);
+        assertFalse(statement.matches(pk, targetRow));
+    }
+
+    @Test
+    public void matches_nullColumns() {
+        compareTTL();
+        int n = targetPrimaryKey.size();
+        targetMetadata(0L, 2000L, 0);
+        when(targetRow.isNull(n)).thenReturn(true);
+        when(targetRow.isNull(n + 2)).thenReturn(true);
+        when(pk.getWriteTimestamp()).thenReturn(2000L);
+        assertAll(
+                () -> assertEquals(2000L, statement.getLargestWriteTimeStamp(targetRow)),
+                () -> assertNull(statement.getLargestTTL(targetRow))
+        );
+
+        // an Origin row without TTL reports 0
+        when(pk.getTTL()).thenReturn(0);
+        assertTrue(statement.matches(pk, targetRow));
+
+        when(pk.getTTL()).thenReturn(3600);
+        assertFalse(statement.matches(pk, targetRow));
+
+        when(targetRow.isNull(n + 1)).thenReturn(true);
+        assertNull(statement.getLargestWriteTimeStamp(targetRow));
+        assertFalse(statement.matches(pk, targetRow));
+    }
+}
@@ -122,7 +122,7 @@ public class TargetUpdateStatementTest extends CommonMocks {
     public void bind_withStandardInput() {
         BoundStatement result = targetUpdateStatement.bind(originRow, targetRow, null,null,null,null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -133,7 +133,7 @@ public class TargetUpdateStatementTest extends CommonMocks {
 
         BoundStatement result = targetUpdateStatement.bind(originRow, targetRow, 3600,null,null,null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size()+1)).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size()+1)).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -144,7 +144,7 @@ public class TargetUpdateStatementTest extends CommonMocks {
 
         BoundStatement result = targetUpdateStatement.bind(originRow, targetRow, null,10000L,null,null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size()+1)).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size()+1)).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -156,7 +156,7 @@ public class TargetUpdateStatementTest extends CommonMocks {
 
         BoundStatement result = targetUpdateStatement.bind(originRow, targetRow, 3600,10000L,null,null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size()+2)).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size()+2)).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -170,7 +170,7 @@ public class TargetUpdateStatementTest extends CommonMocks {
         targetUpdateStatement = new TargetUpdateStatement(propertyHelper, targetSession);
         BoundStatement result = targetUpdateStatement.bind(originRow, targetRow, null,null,null,null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -179,7 +179,7 @@ public class TargetUpdateStatementTest extends CommonMocks {
         targetUpdateStatement = new TargetUpdateStatement(propertyHelper, targetSession);
         BoundStatement result = targetUpdateStatement.bind(originRow, targetRow, null,null,getSampleData(explodeMapKeyType),getSampleData(explodeMapValueType));
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size())).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -191,7 +191,7 @@ public class TargetUpdateStatementTest extends CommonMocks {
 
         BoundStatement result = targetUpdateStatement.bind(originRow, targetRow, null,null,null,null);
         assertNotNull(result);
-        verify(boundStatement, times(targetColumnNames.size()-1)).set(anyInt(), any(), any(Class.class));
+        verify(boundStatementBuilder, times(targetColumnNames.size()-1)).set(anyInt(), any(), any(Class.class));
     }
 
     @Test
@@ -15,14 +15,22 @@
  */
 package com.datastax.cdm.data;
 
+import com.datastax.cdm.cql.codec.INT_StringCodec;
+import com.datastax.oss.driver.api.core.data.UdtValue;
 import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.UserDefinedType;
+import com.datastax.oss.driver.api.core.type.codec.CodecNotFoundException;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.internal.core.type.UserDefinedTypeBuilder;
+import com.datastax.oss.driver.internal.core.type.codec.registry.DefaultCodecRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
-import java.util.Collections;
-import java.util.List;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -50,6 +58,94 @@ class CqlConversionTest {
         );
     }
 
+    private DefaultCodecRegistry stringCodecRegistry() {
+        DefaultCodecRegistry registry = new DefaultCodecRegistry("test");
+        registry.register(new INT_StringCodec(null));
+        return registry;
+    }
+
+    @Test
+    void convert_direct() {
+        DefaultCodecRegistry registry = stringCodecRegistry();
+        CqlConversion intToBigint = new CqlConversion(DataTypes.INT, DataTypes.BIGINT, registry);
+        CqlConversion tinyintToVarint = new CqlConversion(DataTypes.TINYINT, DataTypes.VARINT, registry);
+        CqlConversion floatToDouble = new CqlConversion(DataTypes.FLOAT, DataTypes.DOUBLE, registry);
+        CqlConversion timestampToBigint = new CqlConversion(DataTypes.TIMESTAMP, DataTypes.BIGINT, registry);
+        CqlConversion bigintToTimestamp = new CqlConversion(DataTypes.BIGINT, DataTypes.TIMESTAMP, registry);
+        CqlConversion listOfSmallint = new CqlConversion(DataTypes.listOf(DataTypes.SMALLINT), DataTypes.listOf(DataTypes.INT), registry);
+        assertAll(
+                () -> assertEquals(Collections.singletonList(CqlConversion.Type.CODEC), intToBigint.getConversionTypeList()),
+                () -> assertEquals(42L, intToBigint.convert(42)),
+                () -> assertEquals(BigInteger.valueOf(7), tinyintToVarint.convert((byte) 7)),
+                () -> assertEquals(1.5d, floatToDouble.convert(1.5f)),
+                () -> assertEquals(1234L, timestampToBigint.convert(Instant.ofEpochMilli(1234))),
+                () -> assertEquals(Instant.ofEpochMilli(1234), bigintToTimestamp.convert(1234L)),
+                () -> assertEquals(Arrays.asList(1, 2), listOfSmallint.convert(Arrays.asList((short) 1, (short) 2))),
+                () -> assertThrows(IllegalArgumentException.class, () -> intToBigint.convert("42"), "value of the wrong class"),
+                () -> assertNull(CqlConversion.directConverter(DataTypes.TEXT, DataTypes.INT))
+        );
+    }
+
+    @Test
+    void convert_missingCodec() {
+        CqlConversion textToBigint = new CqlConversion(DataTypes.TEXT, DataTypes.BIGINT, new DefaultCodecRegistry("test"));
+        assertThrows(CodecNotFoundException.class, () -> textToBigint.convert("42"));
+    }
+
+    @Test
+    void convert_mapSides() {
+        DefaultCodecRegistry registry = stringCodecRegistry();
+        CqlConversion valuesOnly = new CqlConversion(DataTypes.mapOf(DataTypes.TEXT, DataTypes.SMALLINT), DataTypes.mapOf(DataTypes.TEXT, DataTypes.INT), registry);
+        CqlConversion keysOnly = new CqlConversion(DataTypes.mapOf(DataTypes.SMALLINT, DataTypes.TEXT), DataTypes.mapOf(DataTypes.INT, DataTypes.TEXT), registry);
+        CqlConversion unchanged = new CqlConversion(DataTypes.mapOf(DataTypes.TEXT, DataTypes.INT), DataTypes.mapOf(DataTypes.TEXT, DataTypes.INT), registry);
+        Map<String, Short> byName = new HashMap<>();
+        byName.put("a", (short) 1);
+        byName.put("b", (short) 2);
+        Map<String, Integer> unchangedInput = Collections.singletonMap("a", 1);
+        assertAll(
+                () -> assertEquals(new HashMap<String, Integer>() {{ put("a", 1); put("b", 2); }}, valuesOnly.convert(byName)),
+                () -> assertEquals(Collections.singletonMap(1, "a"), keysOnly.convert(Collections.singletonMap((short) 1, "a"))),
+                () -> assertSame(unchangedInput, unchanged.convert(unchangedInput))
+        );
+    }
+
+    @Test
+    void convert_udt() {
+        UserDefinedType fromInner = new UserDefinedTypeBuilder("origin_ks", "inner").withField("a", DataTypes.INT).build();
+        UserDefinedType toInner = new UserDefinedTypeBuilder("target_ks", "inner").withField("a", DataTypes.BIGINT).build();
+        UserDefinedType fromUdt = new UserDefinedTypeBuilder("origin_ks", "address")
+                .withField("street", DataTypes.TEXT).withField("zip", DataTypes.INT).withField("inner", fromInner)
+                .withField("nums", DataTypes.listOf(DataTypes.SMALLINT)).withField("note", DataTypes.TEXT).build();
+        UserDefinedType toUdt = new UserDefinedTypeBuilder("target_ks", "address")
+                .withField("street", DataTypes.TEXT).withField("zip", DataTypes.BIGINT).withField("inner", toInner)
+                .withField("nums", DataTypes.listOf(DataTypes.INT)).withField("note", DataTypes.TEXT).build();
+        CqlConversion conversion = new CqlConversion(DataTypes.listOf(fromUdt), DataTypes.listOf(toUdt), new DefaultCodecRegistry("test"));
+
+        UdtValue from = fromUdt.newValue()
+                .setString(0, "main")
+                .setInt(1, 12345)
+                .setUdtValue(2, fromInner.newValue().setInt(0, 5))
+                .setList(3, Arrays.asList((short) 1, (short) 2), Short.class);
+        UdtValue to = ((List<UdtValue>) conversion.convert(Collections.singletonList(from))).get(0);
+        assertAll(
+                () -> assertEquals(Arrays.asList(CqlConversion.Type.LIST, CqlConversion.Type.UDT), conversion.getConversionTypeList()),
+                () -> assertEquals(toUdt, to.getType()),
+                () -> assertEquals("main", to.getString(0)),
+                () -> assertEquals(12345L, to.getLong(1)),
+                () -> assertEquals(5L, to.getUdtValue(2).getLong(0)),
+                () -> assertEquals(Arrays.asList(1, 2), to.getList(3, Integer.class)),
+                () -> assertTrue(to.isNull(4))
+        );
+    }
+
+    @Test
+    void convert_udtFieldCountMismatch() {
+        UserDefinedType fromUdt = new UserDefinedTypeBuilder("origin_ks", "udt").withField("a", DataTypes.INT).build();
+        UserDefinedType toUdt = new UserDefinedTypeBuilder("target_ks", "udt").withField("a", DataTypes.INT).withField("b", DataTypes.INT).build();
+        CqlConversion conversion = new CqlConversion(fromUdt, toUdt, new DefaultCodecRegistry("test"));
+        assertThrows(IllegalArgumentException.class, () -> conversion.convert(fromUdt.newValue().setInt(0, 1)));
+    }
+
 //    @Test
 //    void testConvertWhenConversionTypeIsNone() {
 //        CqlConversion.Type conversionType = CqlConversion.Type.NONE;
@@ -0,0 +1,51 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.UserDefinedType;
+import com.datastax.oss.driver.internal.core.type.UserDefinedTypeBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CqlDataTest {
+
+    private final UserDefinedType udtType = new UserDefinedTypeBuilder("ks", "udt").withField("f", DataTypes.TEXT).build();
+
+    @Test
+    public void hasSameEncoding() {
+        UserDefinedType otherKeyspaceUdt = new UserDefinedTypeBuilder("other_ks", "udt").withField("f", DataTypes.TEXT).frozen().build();
+        UserDefinedType renamedFieldUdt = new UserDefinedTypeBuilder("ks", "udt").withField("g", DataTypes.TEXT).build();
+        UserDefinedType otherFieldTypeUdt = new UserDefinedTypeBuilder("ks", "udt").withField("f", DataTypes.INT).build();
+        assertAll(
+                () -> assertTrue(CqlData.hasSameEncoding(DataTypes.TEXT, DataTypes.TEXT)),
+                () -> assertFalse(CqlData.hasSameEncoding(DataTypes.TEXT, DataTypes.INT)),
+                () -> assertFalse(CqlData.hasSameEncoding(DataTypes.TEXT, null)),
+                () -> assertFalse(CqlData.hasSameEncoding(DataTypes.TEXT, DataTypes.listOf(DataTypes.TEXT))),
+                () -> assertTrue(CqlData.hasSameEncoding(DataTypes.listOf(DataTypes.INT), DataTypes.frozenListOf(DataTypes.INT))),
+                () -> assertFalse(CqlData.hasSameEncoding(DataTypes.listOf(DataTypes.INT), DataTypes.setOf(DataTypes.INT))),
+                () -> assertFalse(CqlData.hasSameEncoding(DataTypes.mapOf(DataTypes.INT, DataTypes.INT), DataTypes.mapOf(DataTypes.INT, DataTypes.BIGINT))),
+                () -> assertTrue(CqlData.hasSameEncoding(DataTypes.mapOf(DataTypes.INT, udtType), DataTypes.frozenMapOf(DataTypes.INT, otherKeyspaceUdt))),
+                () -> assertFalse(CqlData.hasSameEncoding(udtType, renamedFieldUdt)),
+                () -> assertFalse(CqlData.hasSameEncoding(udtType, otherFieldTypeUdt)),
+                () -> assertFalse(CqlData.hasSameEncoding(DataTypes.tupleOf(DataTypes.INT), DataTypes.tupleOf(DataTypes.INT, DataTypes.INT))),
+                () -> assertFalse(CqlData.hasSameEncoding(DataTypes.vectorOf(DataTypes.FLOAT, 3), DataTypes.vectorOf(DataTypes.FLOAT, 4)))
+        );
+    }
+}
@@ -16,6 +16,7 @@
 package com.datastax.cdm.data;
 
 import com.datastax.cdm.cql.CommonMocks;
+import com.datastax.cdm.properties.KnownProperties;
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,9 +25,15 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class DataUtilityTest extends CommonMocks {
     public Logger logger = LoggerFactory.getLogger(this.getClass().getName());
@@ -97,4 +104,43 @@ public class DataUtilityTest extends CommonMocks {
             assertNotEquals(extraColumn, entry.getValue());
         }
     }
+
+    @Test
+    public void applyDiffColumnSubset_notSet() {
+        assertFalse(DataUtility.applyDiffColumnSubset(propertyHelper, originTable, targetTable));
+        verify(originTable, never()).retainColumns(any());
+        verify(targetTable, never()).retainColumns(any());
+    }
+
+    @Test
+    public void applyDiffColumnSubset_exclude() {
+        when(propertyHelper.getStringList(KnownProperties.DIFF_COLUMNS_EXCLUDE)).thenReturn(Arrays.asList(vectorCol, "parameter-value"));
+
+        assertTrue(DataUtility.applyDiffColumnSubset(propertyHelper, originTable, targetTable));
+        assertAll(
+                () -> verify(originTable).retainColumns(new HashSet<>(Arrays.asList("part_key1", "part_key2", "cluster_key",
+                        "value1", filterCol, "PaRaMeTeR-Value-MiXedCaSE"))),
+                () -> verify(targetTable).retainColumns(new HashSet<>(Arrays.asList("part_key1", "part_key2", "cluster_key",
+                        "value1", filterCol, "parameter_value_standard_case")))
+        );
+    }
+
+    @Test
+    public void applyDiffColumnSubset_includeKeepsFeatureColumns() {
+        when(propertyHelper.getStringList(KnownProperties.DIFF_COLUMNS_INCLUDE)).thenReturn(Collections.singletonList("value1"));
+        when(propertyHelper.getString(KnownProperties.FILTER_COLUMN_NAME)).thenReturn(filterCol);
+        targetColumnNames.add("target_only");
+
+        assertTrue(DataUtility.applyDiffColumnSubset(propertyHelper, originTable, targetTable));
+        assertAll(
+                () -> verify(originTable).retainColumns(new HashSet<>(Arrays.asList("value1", filterCol))),
+                () -> verify(targetTable).retainColumns(new HashSet<>(Arrays.asList("value1", filterCol, "target_only")))
+        );
+    }
+
+    @Test
+    public void applyDiffColumnSubset_unknownColumn() {
+        when(propertyHelper.getStringList(KnownProperties.DIFF_COLUMNS_INCLUDE)).thenReturn(Collections.singletonList("no_such_column"));
+        assertThrows(RuntimeException.class, () -> DataUtility.applyDiffColumnSubset(propertyHelper, originTable, targetTable));
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.cdm.schema.CqlTable;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.api.core.type.codec.registry.MutableCodecRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+public class PKBloomFilterTest {
+
+    @Mock PKFactory pkFactory;
+    @Mock CqlTable originTable;
+    @Mock CqlTable targetTable;
+    @Mock MutableCodecRegistry codecRegistry;
+    @Mock EnhancedPK pk;
+    @Mock Row targetRow;
+
+    // target PK is (part_key, const_col, cluster_key), and const_col is a constant column
+    List<String> targetPK = Arrays.asList("part_key", "const_col", "cluster_key");
+    List<DataType> targetPKTypes = Arrays.asList(DataTypes.TEXT, DataTypes.TEXT, DataTypes.INT);
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(pkFactory.getPKIndexesToBind(PKFactory.Side.TARGET)).thenReturn(Arrays.asList(0, 2));
+        when(targetTable.getPKNames(false)).thenReturn(targetPK);
+        when(targetTable.indexOf(anyString())).thenAnswer(invocation -> targetPK.indexOf(invocation.getArgument(0, String.class)));
+        when(targetTable.getDataType(anyInt())).thenAnswer(invocation -> targetPKTypes.get(invocation.getArgument(0, Integer.class)));
+        when(targetTable.getCodecRegistry()).thenReturn(codecRegistry);
+        when(codecRegistry.codecFor(any(DataType.class))).thenAnswer(invocation ->
+                DataTypes.INT.equals(invocation.getArgument(0)) ? TypeCodecs.INT : TypeCodecs.TEXT);
+    }
+
+    private void putTargetRow(PKBloomFilter filter, String partKey, int clusterKey) {
+        when(targetRow.getBytesUnsafe(0)).thenReturn(TypeCodecs.TEXT.encode(partKey, CqlConversion.PROTOCOL_VERSION));
+        when(targetRow.getBytesUnsafe(2)).thenReturn(TypeCodecs.INT.encode(clusterKey, CqlConversion.PROTOCOL_VERSION));
+        filter.put(targetRow);
+    }
+
+    private EnhancedPK originPK(String partKey, Integer clusterKey) {
+        when(pk.getPKValues()).thenReturn(Arrays.asList(partKey, "'constant'", clusterKey));
+        return pk;
+    }
+
+    @Test
+    void mightContain() {
+        PKBloomFilter filter = new PKBloomFilter(pkFactory, targetTable, 100, 0.0001);
+        putTargetRow(filter, "a", 1);
+        putTargetRow(filter, "b", 2);
+
+        assertAll(
+                () -> assertTrue(filter.mightContain(originPK("a", 1))),
+                () -> assertTrue(filter.mightContain(originPK("b", 2))),
+                () -> assertFalse(filter.mightContain(originPK("a", 2))),
+                () -> assertFalse(filter.mightContain(originPK("c", 1))),
+                () -> assertFalse(filter.mightContain(originPK("a", null))),
+                () -> assertTrue(filter.expectedFpp() < 0.0001)
+        );
+    }
+
+    @Test
+    void nullValuesAreDistinct() {
+        PKBloomFilter filter = new PKBloomFilter(pkFactory, targetTable, 0, 0.0001);
+        when(targetRow.getBytesUnsafe(0)).thenReturn(TypeCodecs.TEXT.encode("a", CqlConversion.PROTOCOL_VERSION));
+        when(targetRow.getBytesUnsafe(2)).thenReturn(null);
+        filter.put(targetRow);
+
+        assertAll(
+                () -> assertTrue(filter.mightContain(originPK("a", null))),
+                () -> assertFalse(filter.mightContain(originPK("a", 0)))
+        );
+    }
+
+    @Test
+    void isTokenAligned() {
+        List<String> originColumns = Arrays.asList("pk", "value");
+        List<String> targetColumns = Arrays.asList("renamed_pk", "value");
+        when(originTable.getPartitionKeyNames(false)).thenReturn(Arrays.asList("pk"));
+        when(originTable.indexOf(anyString())).thenAnswer(invocation -> originColumns.indexOf(invocation.getArgument(0, String.class)));
+        when(originTable.getDataType(0)).thenReturn(DataTypes.TEXT);
+        when(targetTable.getPartitionKeyNames(false)).thenReturn(Arrays.asList("renamed_pk"));
+        when(targetTable.indexOf(anyString())).thenAnswer(invocation -> targetColumns.indexOf(invocation.getArgument(0, String.class)));
+        when(targetTable.getCorrespondingIndex(0)).thenReturn(0);
+        when(targetTable.getDataType(0)).thenReturn(DataTypes.TEXT);
+        assertTrue(PKBloomFilter.isTokenAligned(originTable, targetTable));
+
+        when(targetTable.getDataType(0)).thenReturn(DataTypes.ASCII);
+        assertFalse(PKBloomFilter.isTokenAligned(originTable, targetTable), "different type");
+
+        when(targetTable.getDataType(0)).thenReturn(DataTypes.TEXT);
+        when(targetTable.getCorrespondingIndex(0)).thenReturn(-1);
+        assertFalse(PKBloomFilter.isTokenAligned(originTable, targetTable), "not on origin");
+
+        when(targetTable.getCorrespondingIndex(0)).thenReturn(1);
+        assertFalse(PKBloomFilter.isTokenAligned(originTable, targetTable), "not the origin partition key");
+
+        when(targetTable.getPartitionKeyNames(false)).thenReturn(Arrays.asList("renamed_pk", "value"));
+        assertFalse(PKBloomFilter.isTokenAligned(originTable, targetTable), "different partition key size");
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.cdm.cql.CommonMocks;
+import com.datastax.cdm.schema.CqlTable;
+import com.datastax.oss.driver.api.core.type.DataType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PKFactoryTest extends CommonMocks {
+
+    PKFactory factory;
+
+    private void setup(boolean hasExplodeMap) {
+        commonSetup(hasExplodeMap, false, false);
+        tableWhens(originTable, originPrimaryKey, originColumnNames, originColumnTypes);
+        tableWhens(targetTable, targetPrimaryKey, targetColumnNames, targetColumnTypes);
+        factory = new PKFactory(null, originTable, targetTable);
+    }
+
+    private void tableWhens(CqlTable table, List<String> primaryKey, List<String> columnNames, List<DataType> columnTypes) {
+        when(table.getPKNames(false)).thenReturn(primaryKey);
+        when(table.getPKNames(true)).thenReturn(CqlTable.formatNames(primaryKey));
+        when(table.getPKClasses()).thenReturn(primaryKey.stream()
+                .map(name -> CqlData.getBindClass(columnTypes.get(columnNames.indexOf(name))))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void getPKIndexesToBind() {
+        setup(false);
+        assertAll(
+                () -> assertEquals(Arrays.asList(0, 1, 2), factory.getPKIndexesToBind(PKFactory.Side.ORIGIN)),
+                () -> assertEquals(Arrays.asList(0, 1, 2), factory.getPKIndexesToBind(PKFactory.Side.TARGET))
+        );
+    }
+
+    @Test
+    public void getPKIndexesToBind_explodeMap() {
+        setup(true);
+        assertEquals(Arrays.asList(0, 1, 2, 3), factory.getPKIndexesToBind(PKFactory.Side.TARGET));
+    }
+
+    @Test
+    public void bindWhereClause_builder() {
+        setup(false);
+        EnhancedPK pk = factory.toEnhancedPK(Arrays.asList("a", "b", "c"), targetTable.getPKClasses());
+        assertSame(boundStatementBuilder, factory.bindWhereClause(PKFactory.Side.TARGET, pk, boundStatementBuilder, 0));
+        assertAll(
+                () -> verify(boundStatementBuilder).set(eq(0), eq("a"), any(Class.class)),
+                () -> verify(boundStatementBuilder).set(eq(1), eq("b"), any(Class.class)),
+                () -> verify(boundStatementBuilder).set(eq(2), eq("c"), any(Class.class))
+        );
+    }
+
+    @Test
+    public void getPKsFromTarget() {
+        setup(false);
+        when(targetRow.get(anyInt(), any(Class.class))).thenAnswer(invocation -> "v" + invocation.getArgument(0, Integer.class));
+        assertAll(
+                () -> assertEquals(Arrays.asList("v0", "v1", "v2"), factory.getTargetPKFromTarget(targetRow).getPKValues()),
+                () -> assertEquals(Arrays.asList("v0", "v1", "v2"), factory.getOriginPKFromTarget(targetRow).getPKValues()),
+                () -> verify(targetCqlConversion, times(3)).convert(any())
+        );
+    }
+
+    @Test
+    public void getOriginPKFromTarget_notOnTargetPK() {
+        setup(false);
+        originPrimaryKey.add(originValueColumns.get(0));
+        tableWhens(originTable, originPrimaryKey, originColumnNames, originColumnTypes);
+        factory = new PKFactory(null, originTable, targetTable);
+        when(targetRow.get(anyInt(), any(Class.class))).thenReturn("v");
+        assertNull(factory.getOriginPKFromTarget(targetRow));
+    }
+}
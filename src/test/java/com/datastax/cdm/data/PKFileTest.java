@@ -0,0 +1,133 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PKFileTest {
+
+    private final PKFile.Header header = new PKFile.Header(Arrays.asList("part_key", "cluster_key"), Arrays.asList("text", "int"));
+
+    private static List<ByteBuffer> key(String partKey, Integer clusterKey) {
+        return Arrays.asList(ByteBuffer.wrap(partKey.getBytes(StandardCharsets.UTF_8)),
+                null == clusterKey ? null : ByteBuffer.allocate(4).putInt(0, clusterKey));
+    }
+
+    private static List<List<ByteBuffer>> readAll(String fileName, long start, long end) throws IOException {
+        List<List<ByteBuffer>> keys = new ArrayList<>();
+        try (PKFile.Reader reader = new PKFile.Reader(fileName, start, end)) {
+            List<ByteBuffer> values;
+            while ((values = reader.next()) != null)
+                keys.add(values);
+        }
+        return keys;
+    }
+
+    private String writeKeys(Path file, int blockKeys, int count) throws IOException {
+        PKFile.Writer writer = new PKFile.Writer(file.toString(), header, blockKeys);
+        for (int i = 0; i < count; i++)
+            writer.add(key("p" + i, i % 3 == 0 ? null : i));
+        writer.flush();
+        return file.toString();
+    }
+
+    @Test
+    public void writeAndRead(@TempDir Path tempDir) throws IOException {
+        String fileName = writeKeys(tempDir.resolve("sub").resolve("keys.bin"), 4, 10);
+        List<Long> offsets = PKFile.getBlockOffsets(fileName);
+        List<List<ByteBuffer>> keys = readAll(fileName, 0, Long.MAX_VALUE);
+        assertAll(
+                () -> assertTrue(PKFile.isBinary(fileName)),
+                () -> assertEquals(3, offsets.size()),
+                () -> assertEquals(10, keys.size()),
+                () -> assertEquals(key("p0", null), keys.get(0)),
+                () -> assertEquals(key("p9", null), keys.get(9)),
+                () -> assertEquals(key("p5", 5), keys.get(5))
+        );
+    }
+
+    @Test
+    public void readBlockRange(@TempDir Path tempDir) throws IOException {
+        String fileName = writeKeys(tempDir.resolve("keys.bin"), 4, 10);
+        List<Long> offsets = PKFile.getBlockOffsets(fileName);
+        List<List<ByteBuffer>> first = readAll(fileName, 0, offsets.get(1));
+        List<List<ByteBuffer>> rest = readAll(fileName, offsets.get(1), Files.size(Path.of(fileName)));
+        assertAll(
+                () -> assertEquals(4, first.size()),
+                () -> assertEquals(6, rest.size()),
+                () -> assertEquals(key("p4", 4), rest.get(0))
+        );
+    }
+
+    @Test
+    public void appendToExistingFile(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("keys.bin");
+        writeKeys(file, 100, 2);
+        writeKeys(file, 100, 3);
+        PKFile.Writer other = new PKFile.Writer(file.toString(), new PKFile.Header(Arrays.asList("other"), Arrays.asList("text")), 1);
+        assertAll(
+                () -> assertEquals(5, readAll(file.toString(), 0, Long.MAX_VALUE).size()),
+                () -> assertThrows(IOException.class, () -> other.add(Arrays.asList(ByteBuffer.allocate(1))), "different columns"),
+                () -> assertThrows(IllegalArgumentException.class, () -> other.add(key("a", 1)), "wrong number of values")
+        );
+    }
+
+    @Test
+    public void corruptBlock(@TempDir Path tempDir) throws IOException {
+        String fileName = writeKeys(tempDir.resolve("keys.bin"), 100, 5);
+        long checksumOffset = PKFile.getBlockOffsets(fileName).get(0) + 12;
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "rw")) {
+            file.seek(checksumOffset);
+            file.writeLong(42L);
+        }
+        assertThrows(IOException.class, () -> readAll(fileName, 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void notBinary(@TempDir Path tempDir) throws IOException {
+        Path text = Files.write(tempDir.resolve("keys.csv"), Arrays.asList("a %% 1"));
+        assertAll(
+                () -> assertFalse(PKFile.isBinary(text.toString())),
+                () -> assertFalse(PKFile.isBinary(tempDir.resolve("missing.bin").toString())),
+                () -> assertThrows(IOException.class, () -> PKFile.getBlockOffsets(text.toString())),
+                () -> assertThrows(IllegalArgumentException.class, () -> new PKFile.Header(Arrays.asList("a"), Arrays.asList()))
+        );
+    }
+
+    @Test
+    public void header() {
+        PKFile.Header same = new PKFile.Header(Arrays.asList("part_key", "cluster_key"), Arrays.asList("text", "int"));
+        assertAll(
+                () -> assertEquals(header, same),
+                () -> assertEquals(header.hashCode(), same.hashCode()),
+                () -> assertNotEquals(header, new PKFile.Header(Arrays.asList("part_key", "cluster_key"), Arrays.asList("text", "bigint"))),
+                () -> assertEquals("[part_key text, cluster_key int]", header.toString())
+        );
+    }
+}
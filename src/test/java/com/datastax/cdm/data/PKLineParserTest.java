@@ -0,0 +1,82 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.oss.driver.api.core.data.ByteUtils;
+import com.datastax.oss.driver.api.core.data.CqlDuration;
+import com.datastax.oss.driver.api.core.data.TupleValue;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PKLineParserTest {
+
+    @Test
+    public void parse_allTypes() throws Exception {
+        List<Class> classes = Arrays.asList(String.class, Integer.class, Long.class, Short.class, Byte.class,
+                Double.class, Float.class, Boolean.class, BigInteger.class, BigDecimal.class, UUID.class,
+                Instant.class, LocalDate.class, LocalTime.class, CqlDuration.class, ByteBuffer.class, InetAddress.class);
+        List<Object> values = Arrays.asList("a b", 1, 2L, (short) 3, (byte) 4, 5.5, 6.5f, true,
+                new BigInteger("12345678901234567890"), new BigDecimal("1.25"), UUID.randomUUID(),
+                Instant.parse("2023-04-06T08:43:06.123Z"), LocalDate.parse("2023-04-06"), LocalTime.parse("08:43:06"),
+                CqlDuration.from("1h30m"), ByteUtils.fromHexString("0xcafe"), InetAddress.getByName("127.0.0.1"));
+
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) line.append(PKLineParser.SEPARATOR);
+            Object value = values.get(i);
+            line.append(value instanceof ByteBuffer ? ByteUtils.toHexString((ByteBuffer) value) : value);
+        }
+        assertEquals(values, new PKLineParser(classes).parse(line.toString()));
+    }
+
+    @Test
+    public void parse_null() {
+        PKLineParser parser = new PKLineParser(Arrays.asList(String.class, Integer.class));
+        assertEquals(Arrays.asList("a", null), parser.parse("a %% (null)"));
+    }
+
+    @Test
+    public void parse_separatorLikeText() {
+        PKLineParser parser = new PKLineParser(Arrays.asList(String.class, String.class));
+        assertEquals(Arrays.asList("a%%b", " c "), parser.parse("a%%b %%  c "));
+    }
+
+    @Test
+    public void parse_invalid() {
+        PKLineParser parser = new PKLineParser(Arrays.asList(String.class, Integer.class));
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> parser.parse("a"), "too few"),
+                () -> assertThrows(IllegalArgumentException.class, () -> parser.parse("a %% 1 %% 2"), "too many"),
+                () -> assertThrows(NumberFormatException.class, () -> parser.parse("a %% b"), "not a number"),
+                () -> assertThrows(DateTimeParseException.class, () -> new PKLineParser(Collections.singletonList(Instant.class)).parse("yesterday")),
+                () -> assertThrows(IllegalArgumentException.class, () -> new PKLineParser(Collections.singletonList(TupleValue.class)).parse("(1,2)"), "unsupported")
+        );
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.cdm.schema.CqlTable;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.api.core.type.codec.registry.MutableCodecRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RowDigesterTest {
+
+    @Mock CqlTable originTable;
+    @Mock CqlTable targetTable;
+    @Mock MutableCodecRegistry codecRegistry;
+    @Mock Row originRow;
+    @Mock Row targetRow;
+
+    // target is (part_key, const_col, value), and const_col is a constant column; origin is (part_key, value)
+    List<String> targetColumns = Arrays.asList("part_key", "const_col", "value");
+    List<Integer> correspondingIndexes = Arrays.asList(0, -1, 1);
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(targetTable.getColumnNames(false)).thenReturn(targetColumns);
+        when(targetTable.getCorrespondingIndex(anyInt())).thenAnswer(invocation -> correspondingIndexes.get(invocation.getArgument(0, Integer.class)));
+        when(targetTable.getDataType(0)).thenReturn(DataTypes.TEXT);
+        when(targetTable.getDataType(2)).thenReturn(DataTypes.INT);
+        when(targetTable.getCodecRegistry()).thenReturn(codecRegistry);
+        when(codecRegistry.codecFor(any(DataType.class))).thenAnswer(invocation -> TypeCodecs.INT);
+        when(originTable.getDataType(0)).thenReturn(DataTypes.TEXT);
+        when(originTable.getDataType(1)).thenReturn(DataTypes.INT);
+    }
+
+    private void setRows(String partKey, Integer originValue, Integer targetValue) {
+        when(originRow.getBytesUnsafe(0)).thenReturn(TypeCodecs.TEXT.encode(partKey, CqlConversion.PROTOCOL_VERSION));
+        when(originRow.getBytesUnsafe(1)).thenReturn(TypeCodecs.INT.encode(originValue, CqlConversion.PROTOCOL_VERSION));
+        when(targetRow.getBytesUnsafe(0)).thenReturn(TypeCodecs.TEXT.encode(partKey, CqlConversion.PROTOCOL_VERSION));
+        when(targetRow.getBytesUnsafe(1)).thenReturn(TypeCodecs.TEXT.encode("constant", CqlConversion.PROTOCOL_VERSION));
+        when(targetRow.getBytesUnsafe(2)).thenReturn(TypeCodecs.INT.encode(targetValue, CqlConversion.PROTOCOL_VERSION));
+    }
+
+    @Test
+    void sameTypes_passThroughBytes() {
+        RowDigester digester = new RowDigester(originTable, targetTable);
+        setRows("a", 1, 1);
+        long originHash = digester.hashOrigin(originRow);
+
+        assertAll(
+                () -> assertEquals(originHash, digester.hashTarget(targetRow)),
+                () -> verify(originTable, never()).getAndConvertData(anyInt(), any(Row.class)),
+                () -> verify(targetRow, never()).getBytesUnsafe(1)
+        );
+
+        setRows("a", 1, 2);
+        assertNotEquals(digester.hashOrigin(originRow), digester.hashTarget(targetRow), "different value");
+        setRows("a", 1, null);
+        assertNotEquals(digester.hashOrigin(originRow), digester.hashTarget(targetRow), "null value");
+    }
+
+    @Test
+    void differentTypes_convertAndEncode() {
+        when(originTable.getDataType(1)).thenReturn(DataTypes.BIGINT);
+        RowDigester digester = new RowDigester(originTable, targetTable);
+        setRows("a", 0, 5);
+        when(originTable.getAndConvertData(1, originRow)).thenReturn(5);
+        assertEquals(digester.hashOrigin(originRow), digester.hashTarget(targetRow));
+
+        when(originRow.getBytesUnsafe(1)).thenReturn(null);
+        when(targetRow.getBytesUnsafe(2)).thenReturn(null);
+        assertEquals(digester.hashOrigin(originRow), digester.hashTarget(targetRow), "null is not converted");
+        verify(originTable).convertNull(1);
+    }
+
+    @Test
+    void rangeDigest_isOrderIndependent() {
+        RangeDigest forward = new RangeDigest();
+        RangeDigest backward = new RangeDigest();
+        for (long hash : new long[]{Long.MAX_VALUE, 3L, -7L}) forward.add(hash);
+        for (long hash : new long[]{-7L, 3L, Long.MAX_VALUE}) backward.add(hash);
+
+        assertAll(
+                () -> assertEquals(forward, backward),
+                () -> assertEquals(3L, forward.getRowCount()),
+                () -> assertEquals(forward, RangeDigest.parse(forward.toString())),
+                () -> assertNotEquals(forward, new RangeDigest(2L, forward.getDigest())),
+                () -> assertThrows(IllegalArgumentException.class, () -> RangeDigest.parse("3"))
+        );
+    }
+}
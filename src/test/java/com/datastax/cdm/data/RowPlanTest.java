@@ -0,0 +1,102 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.data;
+
+import com.datastax.cdm.cql.CommonMocks;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RowPlanTest extends CommonMocks {
+
+    @Test
+    public void ops_default() {
+        commonSetup();
+        RowPlan plan = new RowPlan(targetTable);
+        assertEquals(targetColumnNames.size(), plan.size());
+        for (int targetIndex = 0; targetIndex < plan.size(); targetIndex++) {
+            assertEquals(RowPlan.Op.COPY, plan.getOp(targetIndex), targetColumnNames.get(targetIndex));
+            assertEquals(originColumnNames.indexOf(targetColumnNames.get(targetIndex)), plan.getOriginIndex(targetIndex));
+        }
+        assertFalse(plan.isUsingTTL());
+        assertFalse(plan.isUsingWriteTime());
+    }
+
+    @Test
+    public void ops_explodeMapAndConstants() {
+        commonSetup(true, true, false);
+        RowPlan plan = new RowPlan(targetTable);
+        int keyIndex = targetColumnNames.indexOf(explodeMapKey);
+        int valueIndex = targetColumnNames.indexOf(explodeMapValue);
+        int constantIndex = targetColumnNames.indexOf(constantColumns.get(0));
+        assertAll(
+                () -> assertEquals(RowPlan.Op.EXPLODE_KEY, plan.getOp(keyIndex)),
+                () -> assertEquals(RowPlan.Op.EXPLODE_VALUE, plan.getOp(valueIndex)),
+                () -> assertEquals(RowPlan.Op.CONSTANT, plan.getOp(constantIndex)),
+                () -> assertEquals("k", plan.getTargetValue(keyIndex, originRow, "k", "v")),
+                () -> assertEquals("v", plan.getTargetValue(valueIndex, originRow, "k", "v")),
+                () -> assertNull(plan.getTargetValue(constantIndex, originRow, "k", "v")),
+                () -> assertEquals(0, plan.bind(boundStatementBuilder, 0, constantIndex, originRow, targetRow, "k", "v")),
+                () -> assertEquals(1, plan.bind(boundStatementBuilder, 0, keyIndex, originRow, targetRow, "k", "v"))
+        );
+        verify(boundStatementBuilder).set(eq(0), eq("k"), any(Class.class));
+    }
+
+    @Test
+    public void ops_convertWhenTypesDiffer() {
+        commonSetup();
+        originColumnTypes.set(originColumnNames.indexOf(originValueColumns.get(0)), DataTypes.INT);
+        RowPlan plan = new RowPlan(targetTable);
+        int targetIndex = targetColumnNames.indexOf(originValueColumns.get(0));
+        assertEquals(RowPlan.Op.CONVERT, plan.getOp(targetIndex));
+    }
+
+    @Test
+    public void bind_copyUsesSerializedBytes() {
+        commonSetup();
+        RowPlan plan = new RowPlan(targetTable);
+        ByteBuffer bytes = ByteBuffer.wrap(new byte[]{1, 2});
+        when(originRow.getBytesUnsafe(0)).thenReturn(bytes);
+        assertEquals(3, plan.bind(boundStatementBuilder, 2, 0, originRow, targetRow, null, null));
+        verify(boundStatementBuilder).setBytesUnsafe(2, bytes);
+        verify(boundStatementBuilder, never()).set(anyInt(), any(), any(Class.class));
+    }
+
+    @Test
+    public void bind_counter() {
+        commonSetup(false, false, true);
+        RowPlan plan = new RowPlan(targetTable);
+        int counterIndex = targetCounterIndexes.get(0);
+        assertEquals(RowPlan.Op.COUNTER, plan.getOp(counterIndex));
+
+        when(originTable.getData(eq(plan.getOriginIndex(counterIndex)), eq(originRow))).thenReturn(10L);
+        when(targetTable.getData(eq(counterIndex), eq(targetRow))).thenReturn(4L);
+        assertEquals(1, plan.bind(boundStatementBuilder, 0, counterIndex, originRow, targetRow, null, null));
+        verify(boundStatementBuilder).set(eq(0), eq(6L), any(Class.class));
+
+        // a missing origin counter keeps its bind position but is left unset
+        when(originTable.getData(eq(plan.getOriginIndex(counterIndex)), eq(originRow))).thenReturn(null);
+        assertEquals(2, plan.bind(boundStatementBuilder, 1, counterIndex, originRow, null, null, null));
+        verify(boundStatementBuilder, never()).set(eq(1), any(), any(Class.class));
+    }
+}
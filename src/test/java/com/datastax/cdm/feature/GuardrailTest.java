@@ -20,6 +20,8 @@ import com.datastax.cdm.properties.KnownProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -67,6 +69,22 @@ public class GuardrailTest extends CommonMocks {
         assertTrue(guardrailChecksResult.startsWith("Large columns"), "guardrailChecks");
     }
 
+    @Test
+    public void exceedCheck_serializedOriginValue() {
+        when(propertyHelper.getNumber(KnownProperties.GUARDRAIL_COLSIZE_KB)).thenReturn(1);
+        guardrail.loadProperties(propertyHelper);
+        guardrail.initializeAndValidate(originTable, targetTable);
+
+        int originIndex = originColumnNames.indexOf(originValueColumns.get(0));
+        when(originRow.getBytesUnsafe(originIndex)).thenReturn(ByteBuffer.allocate(Guardrail.BASE_FACTOR+1));
+
+        String guardrailChecksResult = guardrail.guardrailChecks(record);
+        assertAll(
+                () -> assertTrue(guardrailChecksResult.startsWith("Large columns (KB): " + originValueColumns.get(0)), "guardrailChecks"),
+                () -> verify(targetTable, never()).byteCount(eq(targetColumnNames.indexOf(originValueColumns.get(0))), any())
+        );
+    }
+
     @Test
     public void smoke_explodeMap() {
         defaultClassVariables();
@@ -0,0 +1,79 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletionWindowTest {
+
+    @Test
+    public void invalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new CompletionWindow<String>(0));
+    }
+
+    @Test
+    public void drain_consumesOnlyCompleted() {
+        CompletionWindow<String> window = new CompletionWindow<>(3);
+        List<String> consumed = new ArrayList<>();
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        CompletableFuture<Void> second = new CompletableFuture<>();
+        window.add("first", first);
+        window.add("second", second);
+
+        window.drain(consumed::add);
+        assertTrue(consumed.isEmpty());
+
+        second.complete(null);
+        window.drain(consumed::add);
+        assertAll(
+                () -> assertEquals(Arrays.asList("second"), consumed),
+                () -> assertEquals(1, window.getOutstanding())
+        );
+    }
+
+    @Test
+    public void drain_waitsWhenFull() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CompletionWindow<String> window = new CompletionWindow<>(2);
+            List<String> consumed = new ArrayList<>();
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            window.add("done", CompletableFuture.completedFuture(null));
+            window.add("failed", failed);
+            executor.schedule(() -> failed.completeExceptionally(new RuntimeException("read timeout")), 50, TimeUnit.MILLISECONDS);
+
+            window.drain(consumed::add);
+            assertEquals("done", consumed.get(0));
+            window.drainAll(consumed::add);
+            assertAll(
+                    () -> assertEquals(Arrays.asList("done", "failed"), consumed),
+                    () -> assertEquals(0, window.getOutstanding())
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
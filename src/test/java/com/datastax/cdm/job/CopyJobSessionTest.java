@@ -0,0 +1,46 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+public class CopyJobSessionTest extends JobSessionMocks {
+
+    @Test
+    public void originSelect_noPerPartitionLimitWhenSampling() {
+        sc.set(KnownProperties.SAMPLE_ENABLED, "true");
+        sc.set(KnownProperties.SAMPLE_PER_PARTITION_LIMIT, "5");
+        ResultSet originRange = rangeResultSet(originRows);
+        when(originSession.execute(any(Statement.class))).thenReturn(originRange);
+        CopyJobSession session = new CopyJobSession(originSession, targetSession, sc);
+        session.processSlice(new SplitPartitions.Partition(BigInteger.ZERO, BigInteger.TEN));
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.READ)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.WRITE)),
+                () -> verify(originSession, never()).prepare(contains("PER PARTITION LIMIT"))
+        );
+    }
+}
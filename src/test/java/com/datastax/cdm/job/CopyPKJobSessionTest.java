@@ -0,0 +1,237 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.data.CqlConversion;
+import com.datastax.cdm.data.PKFile;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CopyPKJobSessionTest extends JobSessionMocks {
+
+    private SplitPartitions.PKRows textFile(String... lines) throws IOException {
+        Path file = tempDir.resolve("keys.txt");
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return SplitPartitions.getRowPartsFromFile(1, file.toString()).get(0);
+    }
+
+    private CompletableFuture<AsyncResultSet> failed() {
+        CompletableFuture<AsyncResultSet> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("timeout"));
+        return failed;
+    }
+
+    // keys of a partition are read together, up to the recommended group size
+    private CopyPKJobSession groupedSession() {
+        sc.set(KnownProperties.PERF_PK_GROUP_SIZE, "20");
+        return new CopyPKJobSession(originSession, targetSession, sc);
+    }
+
+    @Test
+    public void textFile_groupsKeysOfAPartition() throws IOException {
+        CopyPKJobSession session = groupedSession();
+        session.processSlice(textFile("a %% 1", "a %% 2", "# comment", "b %% 3", "not a key"));
+        assertAll(
+                () -> assertEquals(4, count(session, JobCounter.CounterType.READ)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.WRITE)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.MISSING)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.ERROR)),
+                () -> verify(originSession, times(2)).executeAsync(any(Statement.class)),
+                () -> verify(targetSession, times(2)).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void textFile_eachKeyOnItsOwn() throws IOException {
+        CopyPKJobSession session = new CopyPKJobSession(originSession, targetSession, sc);
+        session.processSlice(textFile("a %% 1", "a %% 2"));
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.WRITE)),
+                () -> verify(originSession, times(2)).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void groupedRead_matchesReturnedRows() throws IOException {
+        CopyPKJobSession session = groupedSession();
+        // the read returns a/1 and b/3: b/3 was not requested, and a/2 and a/5 were not returned
+        session.processSlice(textFile("a %% 1", "a %% 2", "a %% 5"));
+        assertAll(
+                () -> assertEquals(1, count(session, JobCounter.CounterType.WRITE)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.MISSING)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.ERROR)),
+                () -> verify(originSession, times(1)).executeAsync(any(Statement.class)),
+                () -> verify(targetSession, times(1)).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void groupedRead_fullGroupIsReadAtOnce() throws IOException {
+        sc.set(KnownProperties.PERF_PK_GROUP_SIZE, "2");
+        CopyPKJobSession session = new CopyPKJobSession(originSession, targetSession, sc);
+        // a/1 and a/2 are read as soon as the group is full, a/5 at the end of the slice
+        session.processSlice(textFile("a %% 1", "a %% 2", "a %% 5"));
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.WRITE)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.MISSING)),
+                () -> verify(originSession, times(2)).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void groupedRead_eldestGroupIsReadWhenWindowIsFull() throws IOException {
+        sc.set(KnownProperties.PERF_PK_WINDOW, "3");
+        CopyPKJobSession session = groupedSession();
+        // the third key fills the window, so a/1 and a/2 are read before a/5 arrives and a/5 starts a new group
+        session.processSlice(textFile("a %% 1", "a %% 2", "b %% 3", "a %% 5"));
+        assertAll(
+                () -> assertEquals(3, count(session, JobCounter.CounterType.WRITE)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.MISSING)),
+                () -> verify(originSession, times(3)).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void pipeline_readsAndWritesEachKey() throws IOException {
+        CopyPKJobSession session = new CopyPKJobSession(originSession, targetSession, sc);
+        session.processSlice(textFile("a %% 1", "# comment", "not a key", "b %% 3"));
+        assertAll(
+                () -> assertEquals(3, count(session, JobCounter.CounterType.READ)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.WRITE)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.MISSING)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.ERROR)),
+                () -> verify(originSession, times(2)).executeAsync(any(Statement.class)),
+                () -> verify(targetSession, times(2)).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void pipeline_windowOfOne() throws IOException {
+        sc.set(KnownProperties.PERF_PK_WINDOW, "1");
+        CopyPKJobSession session = new CopyPKJobSession(originSession, targetSession, sc);
+        session.processSlice(textFile("a %% 1", "b %% 3", "c %% 5"));
+        assertEquals(3, count(session, JobCounter.CounterType.WRITE));
+    }
+
+    @Test
+    public void originReadFails() throws IOException {
+        originSession = cqlSession(failed());
+        CopyPKJobSession session = new CopyPKJobSession(originSession, targetSession, sc);
+        session.processSlice(textFile("a %% 1", "b %% 3"));
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.ERROR)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.WRITE)),
+                () -> verify(targetSession, never()).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void originRowNotFound() throws IOException {
+        originSession = cqlSession(CompletableFuture.completedFuture(resultSet(Collections.emptyList())));
+        CopyPKJobSession session = new CopyPKJobSession(originSession, targetSession, sc);
+        session.processSlice(textFile("a %% 1", "b %% 3"));
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.MISSING)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.WRITE)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.ERROR))
+        );
+    }
+
+    @Test
+    public void targetWriteFails() throws IOException {
+        targetSession = cqlSession(failed());
+        CopyPKJobSession session = new CopyPKJobSession(originSession, targetSession, sc);
+        session.processSlice(textFile("a %% 1", "b %% 3"));
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.ERROR)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.WRITE))
+        );
+    }
+
+    @Test
+    public void binaryFile() throws IOException {
+        CopyPKJobSession session = new CopyPKJobSession(originSession, targetSession, sc);
+        String fileName = tempDir.resolve("keys.bin").toString();
+        PKFile.Writer writer = new PKFile.Writer(fileName, PKFile.Header.of(session.originSession.getCqlTable()), 10);
+        writer.add(Arrays.asList(TypeCodecs.TEXT.encode("a", CqlConversion.PROTOCOL_VERSION), TypeCodecs.INT.encode(1, CqlConversion.PROTOCOL_VERSION)));
+        writer.add(Arrays.asList(TypeCodecs.TEXT.encode("b", CqlConversion.PROTOCOL_VERSION), TypeCodecs.INT.encode(3, CqlConversion.PROTOCOL_VERSION)));
+        writer.flush();
+
+        session.processSlice(SplitPartitions.getRowPartsFromFile(1, fileName).get(0));
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.READ)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.WRITE))
+        );
+    }
+
+    @Test
+    public void binaryFile_otherColumns() throws IOException {
+        CopyPKJobSession session = new CopyPKJobSession(originSession, targetSession, sc);
+        String fileName = tempDir.resolve("keys.bin").toString();
+        PKFile.Writer writer = new PKFile.Writer(fileName, new PKFile.Header(Collections.singletonList("id"), Collections.singletonList("int")), 10);
+        writer.add(Collections.singletonList(TypeCodecs.INT.encode(1, CqlConversion.PROTOCOL_VERSION)));
+        writer.flush();
+
+        SplitPartitions.PKRows slice = SplitPartitions.getRowPartsFromFile(1, fileName).get(0);
+        assertThrows(RuntimeException.class, () -> session.processSlice(slice));
+    }
+
+    @Test
+    public void tokenOrderedKeys() throws IOException {
+        CopyPKJobSession session = groupedSession();
+        List<CopyPKJobSession.TokenKey> tokenKeys = session.getTokenKeys(textFile("a %% 1", "b %% 3", "not a key", "a %% 2"));
+        assertEquals(Arrays.asList(BigInteger.valueOf(-'a'), BigInteger.valueOf(-'b'), BigInteger.valueOf(-'a')),
+                tokenKeys.stream().map(CopyPKJobSession.TokenKey::getToken).collect(Collectors.toList()));
+
+        tokenKeys.sort(Comparator.comparing(CopyPKJobSession.TokenKey::getToken));
+        session.processTokenOrderedKeys(tokenKeys.stream().map(CopyPKJobSession.TokenKey::getValues).iterator());
+        assertAll(
+                () -> assertEquals(4, count(session, JobCounter.CounterType.READ)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.WRITE)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.MISSING)),
+                // "b" is read on its own, and both keys of "a" with one read
+                () -> verify(originSession, times(2)).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void tokenOrderedKeys_undecodableKey() {
+        CopyPKJobSession session = new CopyPKJobSession(originSession, targetSession, sc);
+        // an int of two bytes
+        byte[][] values = new byte[][] {"a".getBytes(StandardCharsets.UTF_8), new byte[] {0, 1}};
+        session.processTokenOrderedKeys(Collections.singletonList(values).iterator());
+        assertAll(
+                () -> assertEquals(1, count(session, JobCounter.CounterType.MISSING)),
+                () -> verify(originSession, never()).executeAsync(any(Statement.class))
+        );
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.data.CqlConversion;
+import com.datastax.cdm.data.PKFile;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+public class DiffJobSessionTest extends JobSessionMocks {
+
+    SplitPartitions.Partition slice;
+
+    @BeforeEach
+    public void setup() {
+        slice = new SplitPartitions.Partition(BigInteger.ZERO, BigInteger.TEN);
+    }
+
+    private void enableSampling() {
+        sc.set(KnownProperties.SAMPLE_ENABLED, "true");
+        sc.set(KnownProperties.SAMPLE_PER_PARTITION_LIMIT, "5");
+    }
+
+    @Test
+    public void sampleSlice() {
+        enableSampling();
+        ResultSet originRange = rangeResultSet(originRows);
+        when(originSession.execute(any(Statement.class))).thenReturn(originRange);
+        DiffJobSession session = new DiffJobSession(originSession, targetSession, sc);
+        SampleStatistics sample = session.sampleSlice(slice);
+        assertAll(
+                () -> assertEquals(1, sample.getRanges()),
+                () -> assertEquals(2, sample.getRows()),
+                () -> assertEquals(2, sample.getMissing()),
+                () -> verify(originSession).prepare(contains(" PER PARTITION LIMIT 5 "))
+        );
+    }
+
+    @Test
+    public void processSlice_noPerPartitionLimit() {
+        enableSampling();
+        ResultSet originRange = rangeResultSet(originRows);
+        when(originSession.execute(any(Statement.class))).thenReturn(originRange);
+        DiffJobSession session = new DiffJobSession(originSession, targetSession, sc);
+        clearInvocations(originSession);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.MISSING)),
+                () -> verify(originSession, never()).prepare(contains("PER PARTITION LIMIT"))
+        );
+    }
+
+    @Test
+    public void sampleSlice_failedRangeExcluded() {
+        enableSampling();
+        when(originSession.execute(any(Statement.class))).thenThrow(new RuntimeException("read timeout"));
+        DiffJobSession session = new DiffJobSession(originSession, targetSession, sc);
+        SampleStatistics sample = session.sampleSlice(slice);
+        assertAll(
+                () -> assertEquals(0, sample.getRanges()),
+                () -> assertEquals(0, sample.getRows())
+        );
+    }
+
+    @Test
+    public void bloomFilter_existenceOnly() {
+        sc.set(KnownProperties.BLOOM_FILTER_ENABLED, "true");
+        ResultSet originRange = rangeResultSet(originRows);
+        Row targetPK = row("a", 1);
+        when(targetPK.getBytesUnsafe(0)).thenReturn(TypeCodecs.TEXT.encode("a", CqlConversion.PROTOCOL_VERSION));
+        when(targetPK.getBytesUnsafe(1)).thenReturn(TypeCodecs.INT.encode(1, CqlConversion.PROTOCOL_VERSION));
+        ResultSet targetPKs = rangeResultSet(Collections.singletonList(targetPK));
+        when(originSession.execute(any(Statement.class))).thenReturn(originRange);
+        when(targetSession.execute(any(Statement.class))).thenReturn(targetPKs);
+        DiffJobSession session = new DiffJobSession(originSession, targetSession, sc);
+        clearInvocations(targetSession);
+        session.processSlice(slice);
+        session.printCounts(true);
+        assertAll(
+                () -> assertEquals(1, count(session, JobCounter.CounterType.VALID)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.MISSING)),
+                () -> verify(targetSession, never()).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void pkFile_retryDoesNotRepeatKeys() throws IOException {
+        String pkFile = tempDir.resolve("keys.bin").toString();
+        sc.set(KnownProperties.DIFF_PK_FILE, pkFile);
+        sc.set(KnownProperties.MAX_RETRIES, "1");
+        for (Row row : originRows) {
+            ByteBuffer partKey = TypeCodecs.TEXT.encode(row.get(0, String.class), CqlConversion.PROTOCOL_VERSION);
+            ByteBuffer clusterKey = TypeCodecs.INT.encode(row.get(1, Integer.class), CqlConversion.PROTOCOL_VERSION);
+            when(row.getBytesUnsafe(0)).thenReturn(partKey);
+            when(row.getBytesUnsafe(1)).thenReturn(clusterKey);
+        }
+        // the first attempt fails after more missing keys than fit in one block of the PK file
+        Iterator<Row> failingRows = new Iterator<Row>() {
+            private int rows = 0;
+            public boolean hasNext() { return true; }
+            public Row next() {
+                if (++rows > 1001)
+                    throw new RuntimeException("read timeout");
+                return originRows.get(0);
+            }
+        };
+        ResultSet failingRange = mock(ResultSet.class);
+        when(failingRange.spliterator()).thenReturn(Spliterators.spliteratorUnknownSize(failingRows, 0));
+        ResultSet originRange = rangeResultSet(originRows);
+        when(originSession.execute(any(Statement.class))).thenReturn(failingRange, originRange);
+        DiffJobSession session = new DiffJobSession(originSession, targetSession, sc);
+        session.processSlice(slice);
+
+        List<String> keys = new ArrayList<>();
+        try (PKFile.Reader reader = new PKFile.Reader(pkFile, 0, Long.MAX_VALUE)) {
+            for (List<ByteBuffer> values = reader.next(); null != values; values = reader.next())
+                keys.add(TypeCodecs.TEXT.decode(values.get(0), CqlConversion.PROTOCOL_VERSION));
+        }
+        assertEquals(Arrays.asList("a", "b"), keys);
+    }
+
+    // row "a" was last written at 100 and row "b" at 300
+    private DiffJobSession incrementalSession() {
+        sc.set(KnownProperties.DIFF_INCREMENTAL_ENABLED, "true");
+        sc.set(KnownProperties.ORIGIN_WRITETIME_NAMES, "value");
+        when(originRows.get(0).getLong(anyInt())).thenReturn(100L);
+        when(originRows.get(1).getLong(anyInt())).thenReturn(300L);
+        ResultSet originRange = rangeResultSet(originRows);
+        when(originSession.execute(any(Statement.class))).thenReturn(originRange);
+        return new DiffJobSession(originSession, targetSession, sc);
+    }
+
+    @Test
+    public void diffSliceIncremental_olderRowsUnchanged() {
+        DiffJobSession session = incrementalSession();
+        Long watermark = session.diffSliceIncremental(slice, 200L, 500L);
+        assertAll(
+                () -> assertEquals(1, count(session, JobCounter.CounterType.UNCHANGED)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.MISSING)),
+                // only "b" is read from Target
+                () -> verify(targetSession, times(1)).executeAsync(any(Statement.class)),
+                // "b" is missing and not corrected
+                () -> assertEquals(200L, watermark)
+        );
+    }
+
+    @Test
+    public void diffSliceIncremental_advancesWhenCorrected() {
+        sc.set(KnownProperties.AUTOCORRECT_MISSING, "true");
+        DiffJobSession session = incrementalSession();
+        Long watermark = session.diffSliceIncremental(slice, 200L, 500L);
+        assertAll(
+                () -> assertEquals(1, count(session, JobCounter.CounterType.CORRECTED_MISSING)),
+                () -> assertEquals(500L, watermark)
+        );
+    }
+
+    @Test
+    public void diffSliceIncremental_firstRun() {
+        sc.set(KnownProperties.AUTOCORRECT_MISSING, "true");
+        DiffJobSession session = incrementalSession();
+        Long watermark = session.diffSliceIncremental(slice, null, 500L);
+        assertAll(
+                () -> assertEquals(0, count(session, JobCounter.CounterType.UNCHANGED)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.CORRECTED_MISSING)),
+                () -> assertEquals(500L, watermark)
+        );
+    }
+
+    @Test
+    public void diffSliceIncremental_failedSliceKeepsWatermark() {
+        sc.set(KnownProperties.AUTOCORRECT_MISSING, "true");
+        sc.set(KnownProperties.MAX_RETRIES, "1");
+        DiffJobSession session = incrementalSession();
+        when(originSession.execute(any(Statement.class))).thenThrow(new RuntimeException("read timeout"));
+        assertEquals(200L, session.diffSliceIncremental(slice, 200L, 500L));
+    }
+
+    private AsyncResultSet targetRead(Row row) {
+        AsyncResultSet targetResult = resultSet(Collections.singletonList(row));
+        when(targetResult.one()).thenReturn(row);
+        return targetResult;
+    }
+
+    @Test
+    public void metadataOnly_fullRowReadAsynchronously() {
+        sc.set(KnownProperties.DIFF_METADATA_ONLY, "true");
+        sc.set(KnownProperties.ORIGIN_WRITETIME_NAMES, "value");
+        for (Row row : originRows)
+            when(row.getLong(anyInt())).thenReturn(100L);
+        ResultSet originRange = rangeResultSet(originRows);
+        when(originSession.execute(any(Statement.class))).thenReturn(originRange);
+        Row sameMetadata = row("a", 1);
+        when(sameMetadata.getLong(anyInt())).thenReturn(100L);
+        Row otherMetadata = row("b", 3);
+        when(otherMetadata.getLong(anyInt())).thenReturn(200L);
+        // "a" has the metadata of its Origin row, and "b" does not, so it is read in full
+        CompletableFuture<AsyncResultSet> sameMetadataRead = CompletableFuture.completedFuture(targetRead(sameMetadata));
+        CompletableFuture<AsyncResultSet> otherMetadataRead = CompletableFuture.completedFuture(targetRead(otherMetadata));
+        CompletableFuture<AsyncResultSet> fullRowRead = CompletableFuture.completedFuture(targetRead(row("b", 3, "changed")));
+        when(targetSession.executeAsync(any(Statement.class))).thenReturn(sameMetadataRead, otherMetadataRead, fullRowRead);
+        DiffJobSession session = new DiffJobSession(originSession, targetSession, sc);
+        clearInvocations(targetSession);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(1, count(session, JobCounter.CounterType.VALID)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.MISMATCH)),
+                () -> verify(targetSession, times(3)).executeAsync(any(Statement.class)),
+                () -> verify(targetSession, never()).execute(any(Statement.class))
+        );
+    }
+}
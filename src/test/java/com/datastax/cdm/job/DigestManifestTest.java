@@ -0,0 +1,87 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.data.RangeDigest;
+import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.cdm.properties.KnownProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DigestManifestTest {
+
+    private SplitPartitions.Partition range(long min, long max) {
+        return new SplitPartitions.Partition(BigInteger.valueOf(min), BigInteger.valueOf(max));
+    }
+
+    @Test
+    void saveAndLoad(@TempDir Path tempDir) throws IOException {
+        String fileName = tempDir.resolve("manifest.csv").toString();
+        DigestManifest manifest = DigestManifest.load(fileName);
+        assertEquals(0, manifest.size());
+
+        manifest.put(range(-10, -1), new RangeDigest(3, -1L));
+        manifest.put(range(0, 9), new RangeDigest(1, 42L));
+        manifest.put(range(0, 9), new RangeDigest(2, 43L));
+        manifest.put(range(10, 19), new RangeDigest(5, 44L));
+        manifest.remove(range(10, 19));
+        manifest.save(fileName);
+
+        DigestManifest loaded = DigestManifest.load(fileName);
+        List<SplitPartitions.Partition> ranges = loaded.getRanges();
+        assertAll(
+                () -> assertEquals(2, loaded.size()),
+                () -> assertEquals(new RangeDigest(3, -1L), loaded.get(range(-10, -1))),
+                () -> assertEquals(new RangeDigest(2, 43L), loaded.get(range(0, 9))),
+                () -> assertNull(loaded.get(range(0, 10)), "bounds must match exactly"),
+                () -> assertEquals(2, ranges.size()),
+                () -> assertNotNull(loaded.get(ranges.get(0))),
+                () -> assertNotNull(loaded.get(ranges.get(1)))
+        );
+    }
+
+    @Test
+    void loadSkipsInvalidLines(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("manifest.csv");
+        Files.write(file, Arrays.asList("# comment", "1,2,3,00000000000000ff", "1,2,3", "a,b,c,d"));
+        DigestManifest loaded = DigestManifest.load(file.toString());
+        assertAll(
+                () -> assertEquals(1, loaded.size()),
+                () -> assertEquals(new RangeDigest(3, 255L), loaded.get(range(1, 2)))
+        );
+    }
+
+    @Test
+    void getManifestFile() {
+        IPropertyHelper propertyHelper = mock(IPropertyHelper.class);
+        when(propertyHelper.getString(KnownProperties.ORIGIN_KEYSPACE_TABLE)).thenReturn("ks.tbl");
+        assertEquals("./ks.tbl_manifest.csv", DigestManifest.getManifestFile(propertyHelper));
+
+        when(propertyHelper.getString(KnownProperties.TOKEN_RANGE_MANIFEST_FILE)).thenReturn("/tmp/manifest.csv");
+        assertEquals("/tmp/manifest.csv", DigestManifest.getManifestFile(propertyHelper));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.data.CqlConversion;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.properties.PropertyHelper;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.driver.internal.core.type.codec.registry.DefaultCodecRegistry;
+import org.apache.spark.SparkConf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Mocked Origin and Target sessions over a table (part_key text, cluster_key int, value text), for
+ * tests that run a whole job session against them.
+ */
+public class JobSessionMocks {
+
+    @TempDir
+    protected Path tempDir;
+
+    protected SparkConf sc;
+    protected CqlSession originSession;
+    protected CqlSession targetSession;
+    protected List<Row> originRows;
+    // the type of the value column of sessions built after it is set
+    protected DataType valueType = DataTypes.TEXT;
+
+    @BeforeEach
+    public void setupSessions() {
+        sc = new SparkConf();
+        sc.set(KnownProperties.ORIGIN_KEYSPACE_TABLE, "ks.tbl");
+        sc.set(KnownProperties.TARGET_KEYSPACE_TABLE, "ks.tbl");
+        // ranges that fail are appended to the partition file
+        sc.set(KnownProperties.TOKEN_RANGE_PARTITION_FILE, tempDir.resolve("partitions.csv").toString());
+        originRows = Arrays.asList(row("a", 1, "v1"), row("b", 3, "v3"));
+        originSession = cqlSession(CompletableFuture.completedFuture(resultSet(originRows)));
+        targetSession = cqlSession(CompletableFuture.completedFuture(resultSet(Collections.emptyList())));
+    }
+
+    @AfterEach
+    public void tearDownSessions() {
+        PropertyHelper.destroyInstance();
+    }
+
+    protected ColumnMetadata column(String name, DataType type) {
+        ColumnMetadata columnMetadata = mock(ColumnMetadata.class);
+        when(columnMetadata.getName()).thenReturn(CqlIdentifier.fromInternal(name));
+        when(columnMetadata.getType()).thenReturn(type);
+        return columnMetadata;
+    }
+
+    protected CqlSession cqlSession(CompletableFuture<AsyncResultSet> result) {
+        ColumnMetadata partKey = column("part_key", DataTypes.TEXT);
+        ColumnMetadata clusterKey = column("cluster_key", DataTypes.INT);
+        ColumnMetadata value = column("value", valueType);
+        Map<ColumnMetadata, ClusteringOrder> clusteringColumns = new LinkedHashMap<>();
+        clusteringColumns.put(clusterKey, ClusteringOrder.ASC);
+        Map<CqlIdentifier, ColumnMetadata> columns = new LinkedHashMap<>();
+        columns.put(partKey.getName(), partKey);
+        columns.put(clusterKey.getName(), clusterKey);
+        columns.put(value.getName(), value);
+
+        CqlSession cqlSession = mock(CqlSession.class);
+        Metadata metadata = mock(Metadata.class);
+        TokenMap tokenMap = mock(TokenMap.class);
+        KeyspaceMetadata keyspaceMetadata = mock(KeyspaceMetadata.class);
+        TableMetadata tableMetadata = mock(TableMetadata.class);
+        DriverContext context = mock(DriverContext.class);
+        when(cqlSession.getMetadata()).thenReturn(metadata);
+        when(cqlSession.getContext()).thenReturn(context);
+        when(context.getCodecRegistry()).thenReturn(new DefaultCodecRegistry("test"));
+        when(metadata.getTokenMap()).thenReturn(Optional.of(tokenMap));
+        when(tokenMap.getPartitionerName()).thenReturn("org.apache.cassandra.dht.Murmur3Partitioner");
+        // orders partitions "b" before "a", the reverse of the file order
+        when(tokenMap.newToken(any(ByteBuffer[].class))).thenAnswer(invocation ->
+                new Murmur3Token(-TypeCodecs.TEXT.decode(invocation.getArgument(0, ByteBuffer.class), CqlConversion.PROTOCOL_VERSION).charAt(0)));
+        when(metadata.getKeyspace("ks")).thenReturn(Optional.of(keyspaceMetadata));
+        when(keyspaceMetadata.getTable("tbl")).thenReturn(Optional.of(tableMetadata));
+        when(tableMetadata.getPartitionKey()).thenReturn(Collections.singletonList(partKey));
+        when(tableMetadata.getClusteringColumns()).thenReturn(clusteringColumns);
+        when(tableMetadata.getColumns()).thenReturn(columns);
+
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        BoundStatement boundStatement = mock(BoundStatement.class, RETURNS_SELF);
+        when(cqlSession.prepare(anyString())).thenReturn(preparedStatement);
+        BoundStatementBuilder boundStatementBuilder = mock(BoundStatementBuilder.class, RETURNS_SELF);
+        when(preparedStatement.bind()).thenReturn(boundStatement);
+        when(preparedStatement.bind(any())).thenReturn(boundStatement);
+        when(preparedStatement.boundStatementBuilder()).thenReturn(boundStatementBuilder);
+        when(boundStatementBuilder.build()).thenReturn(boundStatement);
+        when(cqlSession.executeAsync(any(Statement.class))).thenReturn(result);
+        return cqlSession;
+    }
+
+    protected Row row(Object... values) {
+        Row row = mock(Row.class);
+        when(row.get(anyInt(), any(Class.class))).thenAnswer(invocation -> values[invocation.getArgument(0, Integer.class)]);
+        return row;
+    }
+
+    protected AsyncResultSet resultSet(List<Row> rows) {
+        AsyncResultSet resultSet = mock(AsyncResultSet.class);
+        when(resultSet.currentPage()).thenReturn(rows);
+        when(resultSet.hasMorePages()).thenReturn(false);
+        return resultSet;
+    }
+
+    protected ResultSet rangeResultSet(List<Row> rows) {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.iterator()).thenAnswer(invocation -> rows.iterator());
+        when(resultSet.spliterator()).thenAnswer(invocation -> rows.spliterator());
+        return resultSet;
+    }
+
+    protected long count(AbstractJobSession<?> session, JobCounter.CounterType type) {
+        return session.jobCounter.getCount(type, true);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.data.RangeDigest;
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ManifestJobSessionTest extends JobSessionMocks {
+
+    SplitPartitions.Partition slice;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        slice = new SplitPartitions.Partition(BigInteger.ZERO, BigInteger.TEN);
+        String manifestFile = tempDir.resolve("manifest.csv").toString();
+        DigestManifest manifest = DigestManifest.load(manifestFile);
+        manifest.put(slice, new RangeDigest());
+        manifest.save(manifestFile);
+        sc.set(KnownProperties.TOKEN_RANGE_MANIFEST_FILE, manifestFile);
+        ResultSet emptyRange = rangeResultSet(Collections.emptyList());
+        when(targetSession.execute(any(Statement.class))).thenReturn(emptyRange);
+    }
+
+    @Test
+    public void processSlice_matchesManifest() {
+        ManifestJobSession session = new ManifestJobSession(originSession, targetSession, sc);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(1, count(session, JobCounter.CounterType.VALID_RANGE)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.MISMATCH_RANGE))
+        );
+    }
+
+    @Test
+    public void processSlice_notInManifest() {
+        ManifestJobSession session = new ManifestJobSession(originSession, targetSession, sc);
+        session.processSlice(new SplitPartitions.Partition(BigInteger.TEN, BigInteger.valueOf(20)));
+        assertEquals(1, count(session, JobCounter.CounterType.MISMATCH_RANGE));
+    }
+}
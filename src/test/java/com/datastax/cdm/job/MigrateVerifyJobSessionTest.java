@@ -0,0 +1,142 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class MigrateVerifyJobSessionTest extends JobSessionMocks {
+
+    SplitPartitions.Partition slice;
+
+    @BeforeEach
+    public void setup() {
+        slice = new SplitPartitions.Partition(BigInteger.ZERO, BigInteger.TEN);
+    }
+
+    // Target answers every write and every read back with this row
+    private void targetReturns(Row targetRow) {
+        AsyncResultSet targetResult = resultSet(null == targetRow ? Collections.emptyList() : Collections.singletonList(targetRow));
+        when(targetResult.one()).thenReturn(targetRow);
+        targetSession = cqlSession(CompletableFuture.completedFuture(targetResult));
+    }
+
+    private void originReturns(Row... rows) {
+        ResultSet originRange = rangeResultSet(Arrays.asList(rows));
+        when(originSession.execute(any(Statement.class))).thenReturn(originRange);
+    }
+
+    @Test
+    public void writtenRowIsReadBack() {
+        originReturns(row("a", 1, "v1"));
+        targetReturns(row("a", 1, "v1"));
+        MigrateVerifyJobSession session = new MigrateVerifyJobSession(originSession, targetSession, sc);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(1, count(session, JobCounter.CounterType.WRITE)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.VALID)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.MISMATCH)),
+                // one write and one read back
+                () -> verify(targetSession, times(2)).executeAsync(any(Statement.class)),
+                () -> verify(targetSession, never()).execute(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void mismatchIsCorrected() {
+        originReturns(row("a", 1, "v1"));
+        targetReturns(row("a", 1, "stale"));
+        MigrateVerifyJobSession session = new MigrateVerifyJobSession(originSession, targetSession, sc);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(1, count(session, JobCounter.CounterType.MISMATCH)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.CORRECTED_MISMATCH)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.VALID)),
+                () -> verify(targetSession).execute(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void missingIsCorrected() {
+        originReturns(originRows.toArray(new Row[0]));
+        targetReturns(null);
+        MigrateVerifyJobSession session = new MigrateVerifyJobSession(originSession, targetSession, sc);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.WRITE)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.MISSING)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.CORRECTED_MISSING)),
+                () -> verify(targetSession, times(2)).execute(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void eachGroupIsWrittenBeforeItIsReadBack() {
+        sc.set(KnownProperties.PERF_FETCH_SIZE, "1");
+        originReturns(originRows.toArray(new Row[0]));
+        targetReturns(null);
+        MigrateVerifyJobSession session = new MigrateVerifyJobSession(originSession, targetSession, sc);
+        session.processSlice(slice);
+        // with groups of one row, each write is followed by its read back before the next write
+        InOrder inOrder = inOrder(targetSession);
+        inOrder.verify(targetSession).executeAsync(any(Statement.class));
+        inOrder.verify(targetSession).executeAsync(any(Statement.class));
+        inOrder.verify(targetSession).execute(any(Statement.class));
+        inOrder.verify(targetSession).executeAsync(any(Statement.class));
+        assertEquals(2, count(session, JobCounter.CounterType.WRITE));
+    }
+
+    @Test
+    public void failedWriteIsNotCounted() {
+        CompletableFuture<AsyncResultSet> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("write timeout"));
+        targetSession = cqlSession(failed);
+        originReturns(originRows.toArray(new Row[0]));
+        MigrateVerifyJobSession session = new MigrateVerifyJobSession(originSession, targetSession, sc);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(0, count(session, JobCounter.CounterType.WRITE)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.ERROR)),
+                // the group is not read back when its writes fail
+                () -> verify(targetSession, times(2)).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void counterTableRejected() {
+        valueType = DataTypes.COUNTER;
+        originSession = cqlSession(CompletableFuture.completedFuture(resultSet(originRows)));
+        targetSession = cqlSession(CompletableFuture.completedFuture(resultSet(Collections.emptyList())));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> new MigrateVerifyJobSession(originSession, targetSession, sc));
+        assertTrue(e.getMessage().contains("counter tables"));
+    }
+}
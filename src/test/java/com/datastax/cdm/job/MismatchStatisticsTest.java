@@ -0,0 +1,82 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MismatchStatisticsTest {
+
+    List<String> columns = Arrays.asList("key", "value1", "value2");
+
+    @Test
+    void addAndMerge() {
+        MismatchStatistics first = new MismatchStatistics(columns, 2);
+        first.addMissing("[k1]");
+        first.add(MismatchStatistics.Kind.MISMATCH, 1, "[k2]");
+        first.add(MismatchStatistics.Kind.MISMATCH, 1, "[k3]");
+        first.add(MismatchStatistics.Kind.MISMATCH, 1, "[k4]");
+
+        MismatchStatistics second = new MismatchStatistics(columns, 2);
+        second.addMissing("[k5]");
+        second.add(MismatchStatistics.Kind.EXCEPTION, 2, "[k6]");
+        second.add(MismatchStatistics.Kind.MISMATCH, 1, "[k7]");
+
+        MismatchStatistics merged = first.merge(second).merge(null);
+        assertAll(
+                () -> assertSame(first, merged),
+                () -> assertEquals(2, merged.getMissingCount()),
+                () -> assertEquals(Arrays.asList("[k1]", "[k5]"), merged.getMissingExamples()),
+                () -> assertEquals(4, merged.getCount(MismatchStatistics.Kind.MISMATCH, "value1")),
+                () -> assertEquals(Arrays.asList("[k2]", "[k3]"), merged.getExamples(MismatchStatistics.Kind.MISMATCH, "value1")),
+                () -> assertEquals(1, merged.getCount(MismatchStatistics.Kind.EXCEPTION, "value2")),
+                () -> assertEquals(0, merged.getCount(MismatchStatistics.Kind.MISMATCH, "value2")),
+                () -> assertTrue(merged.getExamples(MismatchStatistics.Kind.MISMATCH, "key").isEmpty())
+        );
+    }
+
+    @Test
+    void getSummary() {
+        MismatchStatistics statistics = new MismatchStatistics(columns, 1);
+        statistics.add(MismatchStatistics.Kind.MISMATCH, 2, "[k1]");
+        statistics.add(MismatchStatistics.Kind.EXCEPTION, 2, "[k2]");
+        assertEquals(Arrays.asList("Missing rows: 0", "Column value2 -- MISMATCH: 1 e.g. [[k1]]; EXCEPTION: 1 e.g. [[k2]]"), statistics.getSummary());
+    }
+
+    @Test
+    void noExamples() {
+        MismatchStatistics statistics = new MismatchStatistics(columns, 0);
+        statistics.addMissing("[k1]");
+        statistics.add(MismatchStatistics.Kind.MISMATCH, 1, "[k2]");
+        statistics.merge(statistics);
+        assertAll(
+                () -> assertEquals(2, statistics.getMissingCount()),
+                () -> assertEquals(2, statistics.getCount(MismatchStatistics.Kind.MISMATCH, "value1")),
+                () -> assertEquals(Arrays.asList("Missing rows: 2", "Column value1 -- MISMATCH: 2"), statistics.getSummary())
+        );
+    }
+
+    @Test
+    void merge_differentColumns() {
+        MismatchStatistics statistics = new MismatchStatistics(columns, 1);
+        assertThrows(IllegalArgumentException.class, () -> statistics.merge(new MismatchStatistics(Collections.singletonList("key"), 1)));
+    }
+}
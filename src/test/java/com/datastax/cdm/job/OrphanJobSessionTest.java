@@ -0,0 +1,126 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class OrphanJobSessionTest extends JobSessionMocks {
+
+    SplitPartitions.Partition slice;
+    AsyncResultSet found;
+    AsyncResultSet notFound;
+
+    @BeforeEach
+    public void setup() {
+        slice = new SplitPartitions.Partition(BigInteger.ZERO, BigInteger.TEN);
+        ResultSet targetPKs = rangeResultSet(Arrays.asList(row("a", 1), row("b", 3)));
+        when(targetSession.execute(any(Statement.class))).thenReturn(targetPKs);
+        found = resultSet(Collections.singletonList(originRows.get(0)));
+        when(found.one()).thenReturn(originRows.get(0));
+        notFound = resultSet(Collections.emptyList());
+    }
+
+    @Test
+    public void orphanFound() {
+        when(originSession.executeAsync(any(Statement.class)))
+                .thenReturn(CompletableFuture.completedFuture(found), CompletableFuture.completedFuture(notFound));
+        OrphanJobSession session = new OrphanJobSession(originSession, targetSession, sc);
+        clearInvocations(targetSession);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.READ)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.VALID)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.ORPHAN)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.CORRECTED_ORPHAN)),
+                // only the range read, no delete
+                () -> verify(targetSession, times(1)).execute(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void orphanDeleted() {
+        sc.set(KnownProperties.AUTOCORRECT_ORPHAN, "true");
+        when(originSession.executeAsync(any(Statement.class))).thenReturn(CompletableFuture.completedFuture(notFound));
+        OrphanJobSession session = new OrphanJobSession(originSession, targetSession, sc);
+        clearInvocations(targetSession);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.ORPHAN)),
+                () -> assertEquals(2, count(session, JobCounter.CounterType.CORRECTED_ORPHAN)),
+                // the range read, and the deletes issued asynchronously
+                () -> verify(targetSession, times(1)).execute(any(Statement.class)),
+                () -> verify(targetSession, times(2)).executeAsync(any(Statement.class))
+        );
+    }
+
+    @Test
+    public void orphanDeleteFails() {
+        sc.set(KnownProperties.AUTOCORRECT_ORPHAN, "true");
+        CompletableFuture<AsyncResultSet> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("write timeout"));
+        when(originSession.executeAsync(any(Statement.class))).thenReturn(CompletableFuture.completedFuture(notFound));
+        when(targetSession.executeAsync(any(Statement.class))).thenReturn(failed, CompletableFuture.completedFuture(notFound));
+        OrphanJobSession session = new OrphanJobSession(originSession, targetSession, sc);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.ORPHAN)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.CORRECTED_ORPHAN))
+        );
+    }
+
+    @Test
+    public void originLookupFails() {
+        CompletableFuture<AsyncResultSet> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("read timeout"));
+        when(originSession.executeAsync(any(Statement.class))).thenReturn(failed, CompletableFuture.completedFuture(found));
+        OrphanJobSession session = new OrphanJobSession(originSession, targetSession, sc);
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(2, count(session, JobCounter.CounterType.READ)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.VALID)),
+                () -> assertEquals(0, count(session, JobCounter.CounterType.ORPHAN))
+        );
+    }
+
+    @Test
+    public void waitsWhenWindowIsFull() {
+        sc.set(KnownProperties.DIFF_TARGET_READ_WINDOW, "1");
+        CompletableFuture<AsyncResultSet> pending = new CompletableFuture<>();
+        when(originSession.executeAsync(any(Statement.class))).thenReturn(pending, CompletableFuture.completedFuture(notFound));
+        OrphanJobSession session = new OrphanJobSession(originSession, targetSession, sc);
+        // with a window of one, the session waits for the first lookup before reading the next key
+        CompletableFuture.runAsync(() -> pending.complete(found));
+        session.processSlice(slice);
+        assertAll(
+                () -> assertEquals(1, count(session, JobCounter.CounterType.VALID)),
+                () -> assertEquals(1, count(session, JobCounter.CounterType.ORPHAN))
+        );
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import com.datastax.cdm.properties.IPropertyHelper;
+import com.datastax.cdm.properties.KnownProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RangeWatermarksTest {
+
+    private SplitPartitions.Partition range(long min, long max) {
+        return new SplitPartitions.Partition(BigInteger.valueOf(min), BigInteger.valueOf(max));
+    }
+
+    @Test
+    void saveAndLoad(@TempDir Path tempDir) throws IOException {
+        String fileName = tempDir.resolve("watermarks.csv").toString();
+        RangeWatermarks watermarks = RangeWatermarks.load(fileName);
+        assertEquals(0, watermarks.size());
+
+        watermarks.put(range(-10, -1), 1000L);
+        watermarks.put(range(0, 9), 2000L);
+        watermarks.put(range(0, 9), 3000L);
+        watermarks.save(fileName);
+
+        RangeWatermarks loaded = RangeWatermarks.load(fileName);
+        assertAll(
+                () -> assertEquals(2, loaded.size()),
+                () -> assertEquals(1000L, loaded.get(range(-10, -1))),
+                () -> assertEquals(3000L, loaded.get(range(0, 9))),
+                () -> assertNull(loaded.get(range(0, 10)), "bounds must match exactly")
+        );
+    }
+
+    @Test
+    void loadSkipsInvalidLines(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("watermarks.csv");
+        Files.write(file, Arrays.asList("# comment", "1,2,300", "1,2", "a,b,c"));
+        RangeWatermarks loaded = RangeWatermarks.load(file.toString());
+        assertAll(
+                () -> assertEquals(1, loaded.size()),
+                () -> assertEquals(300L, loaded.get(range(1, 2)))
+        );
+    }
+
+    @Test
+    void getWatermarkFile() {
+        IPropertyHelper propertyHelper = mock(IPropertyHelper.class);
+        when(propertyHelper.getString(KnownProperties.ORIGIN_KEYSPACE_TABLE)).thenReturn("ks.tbl");
+        assertEquals("./ks.tbl_watermarks.csv", RangeWatermarks.getWatermarkFile(propertyHelper));
+
+        when(propertyHelper.getString(KnownProperties.DIFF_WATERMARK_FILE)).thenReturn("/tmp/wm.csv");
+        assertEquals("/tmp/wm.csv", RangeWatermarks.getWatermarkFile(propertyHelper));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.job;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SampleStatisticsTest {
+
+    @Test
+    void empty() {
+        SampleStatistics stats = new SampleStatistics();
+        assertAll(
+                () -> assertEquals(0, stats.getRows()),
+                () -> assertEquals(0.0, stats.getMismatchRate()),
+                () -> assertArrayEquals(new double[]{0.0, 1.0}, stats.getMismatchBounds(95)),
+                () -> assertFalse(stats.isPrecise(95, 0.5))
+        );
+    }
+
+    @Test
+    void zScore() {
+        assertAll(
+                () -> assertEquals(1.96, SampleStatistics.zScore(95), 0.001),
+                () -> assertEquals(2.576, SampleStatistics.zScore(99), 0.001),
+                () -> assertThrows(IllegalArgumentException.class, () -> SampleStatistics.zScore(0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> SampleStatistics.zScore(100))
+        );
+    }
+
+    @Test
+    void addRange_invalidCounts() {
+        SampleStatistics stats = new SampleStatistics();
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> stats.addRange(-1, 0, 0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> stats.addRange(10, 6, 5))
+        );
+    }
+
+    @Test
+    void rates_andBoundsContainRate() {
+        SampleStatistics stats = new SampleStatistics();
+        stats.addRange(1000, 10, 5);
+        stats.addRange(1000, 12, 3);
+        stats.addRange(1000, 8, 4);
+
+        double[] mismatch = stats.getMismatchBounds(95);
+        double[] missing = stats.getMissingBounds(95);
+        assertAll(
+                () -> assertEquals(3, stats.getRanges()),
+                () -> assertEquals(3000, stats.getRows()),
+                () -> assertEquals(30, stats.getMismatches()),
+                () -> assertEquals(12, stats.getMissing()),
+                () -> assertEquals(0.01, stats.getMismatchRate(), 1e-9),
+                () -> assertEquals(0.004, stats.getMissingRate(), 1e-9),
+                () -> assertTrue(mismatch[0] < 0.01 && 0.01 < mismatch[1]),
+                () -> assertTrue(missing[0] < 0.004 && 0.004 < missing[1])
+        );
+    }
+
+    @Test
+    void noMismatches_stillHasUpperBound() {
+        SampleStatistics stats = new SampleStatistics();
+        stats.addRange(5000, 0, 0);
+        stats.addRange(5000, 0, 0);
+
+        double[] bounds = stats.getMismatchBounds(95);
+        assertAll(
+                () -> assertEquals(0.0, bounds[0], 1e-9),
+                () -> assertTrue(bounds[1] > 0.0),
+                () -> assertTrue(stats.isPrecise(95, 0.001)),
+                () -> assertFalse(stats.isPrecise(95, 0.0001))
+        );
+    }
+
+    @Test
+    void clusteredMismatches_widenBounds() {
+        // same overall rate, but concentrated in one range rather than spread evenly
+        SampleStatistics spread = new SampleStatistics();
+        SampleStatistics clustered = new SampleStatistics();
+        for (int i = 0; i < 10; i++) {
+            spread.addRange(1000, 10, 0);
+            clustered.addRange(1000, i == 0 ? 100 : 0, 0);
+        }
+
+        double[] spreadBounds = spread.getMismatchBounds(95);
+        double[] clusteredBounds = clustered.getMismatchBounds(95);
+        assertAll(
+                () -> assertEquals(spread.getMismatchRate(), clustered.getMismatchRate(), 1e-9),
+                () -> assertTrue(clusteredBounds[1] - clusteredBounds[0] > spreadBounds[1] - spreadBounds[0])
+        );
+    }
+
+    @Test
+    void singleRange_isNeverPrecise() {
+        SampleStatistics stats = new SampleStatistics();
+        stats.addRange(1000000, 0, 0);
+        assertFalse(stats.isPrecise(95, 0.5));
+    }
+
+    @Test
+    void merge() {
+        SampleStatistics a = new SampleStatistics();
+        a.addRange(100, 1, 2);
+        SampleStatistics b = new SampleStatistics();
+        b.addRange(200, 3, 4);
+        b.addRange(300, 5, 6);
+
+        SampleStatistics merged = a.merge(b).merge(null);
+        assertAll(
+                () -> assertSame(a, merged),
+                () -> assertEquals(3, merged.getRanges()),
+                () -> assertEquals(600, merged.getRows()),
+                () -> assertEquals(9, merged.getMismatches()),
+                () -> assertEquals(12, merged.getMissing())
+        );
+    }
+
+    @Test
+    void summary() {
+        SampleStatistics stats = new SampleStatistics();
+        stats.addRange(1000, 10, 0);
+        stats.addRange(1000, 10, 0);
+        String summary = stats.getSummary(95);
+        assertAll(
+                () -> assertTrue(summary.contains("2000 rows over 2 token ranges"), summary),
+                () -> assertTrue(summary.contains("95% confidence"), summary),
+                () -> assertTrue(summary.contains("mismatch rate 1.0000%"), summary)
+        );
+    }
+}
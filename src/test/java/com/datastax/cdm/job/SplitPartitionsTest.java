@@ -14,17 +14,34 @@
 
 package com.datastax.cdm.job;
 
+import com.datastax.cdm.data.PKFile;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class SplitPartitionsTest {
 
@@ -51,4 +68,152 @@ public class SplitPartitionsTest {
         assertEquals(3, out.count());
     }
 
+    @Test
+    void alignToRingTest() {
+        List<SplitPartitions.Partition> aligned = SplitPartitions.alignToRing(
+                Arrays.asList(new SplitPartitions.Partition(BigInteger.valueOf(-100), BigInteger.valueOf(100)),
+                        new SplitPartitions.Partition(BigInteger.valueOf(101), BigInteger.valueOf(200))),
+                Arrays.asList(BigInteger.valueOf(50), BigInteger.valueOf(-50), BigInteger.valueOf(100), BigInteger.valueOf(300)));
+        assertEquals(Arrays.asList("-100,-50", "-49,50", "51,100", "101,200"),
+                aligned.stream().map(p -> p.getMin() + "," + p.getMax()).collect(Collectors.toList()));
+    }
+
+    @Test
+    void alignToRingTest_emptyRing() {
+        List<SplitPartitions.Partition> aligned = SplitPartitions.alignToRing(
+                Collections.singletonList(new SplitPartitions.Partition(BigInteger.ONE, BigInteger.TEN)), Collections.emptyList());
+        assertAll(
+                () -> assertEquals(1, aligned.size()),
+                () -> assertEquals(BigInteger.ONE, aligned.get(0).getMin()),
+                () -> assertEquals(BigInteger.TEN, aligned.get(0).getMax())
+        );
+    }
+
+    @Test
+    void writeAndReadPartitionFileTest(@TempDir Path tempDir) throws IOException {
+        String fileName = tempDir.resolve("partitions.csv").toString();
+        assertFalse(SplitPartitions.writePartitionFile(fileName, Collections.emptyList()));
+        assertFalse(new File(fileName).exists());
+
+        assertTrue(SplitPartitions.writePartitionFile(fileName, Arrays.asList(
+                new SplitPartitions.Partition(BigInteger.valueOf(-10), BigInteger.valueOf(-1)),
+                new SplitPartitions.Partition(BigInteger.valueOf(100), BigInteger.valueOf(199)))));
+        List<SplitPartitions.Partition> partitions = SplitPartitions.getSubPartitionsFromFile(1, fileName);
+        assertEquals(Arrays.asList("-10,-1", "100,199"),
+                partitions.stream().map(p -> p.getMin() + "," + p.getMax()).collect(Collectors.toList()));
+
+        assertTrue(SplitPartitions.writePartitionFile(fileName, Collections.emptyList()));
+        assertTrue(SplitPartitions.getSubPartitionsFromFile(1, fileName).isEmpty());
+    }
+
+    @Test
+    void getSubPartitionsFromFileTest(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("partitions.csv");
+        Files.write(file, Arrays.asList("# comment", "0,99", "not,a,range"));
+        List<SplitPartitions.Partition> partitions = SplitPartitions.getSubPartitionsFromFile(4, file.toString());
+        assertAll(
+                () -> assertEquals(4, partitions.size()),
+                () -> assertEquals(BigInteger.ZERO, partitions.get(0).getMin()),
+                () -> assertEquals(BigInteger.valueOf(99), partitions.get(3).getMax())
+        );
+    }
+
+    @Test
+    void getRowPartsFromFileTest(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("rows.csv");
+        Files.write(file, Arrays.asList("# comment", "a", "b", "c", "d"));
+        List<SplitPartitions.PKRows> parts = SplitPartitions.getRowPartsFromFile(2, file.toString());
+        assertAll(
+                () -> assertEquals(2, parts.size()),
+                () -> assertEquals(0, parts.get(0).getStart()),
+                () -> assertEquals(parts.get(0).getEnd(), parts.get(1).getStart()),
+                () -> assertEquals(Files.size(file), parts.get(1).getEnd()),
+                () -> assertEquals(Arrays.asList("# comment"), readRows(parts.get(0))),
+                () -> assertEquals(Arrays.asList("a", "b", "c", "d"), readRows(parts.get(1)))
+        );
+    }
+
+    @Test
+    void getRowPartsFromFile_linesAreNotSplit(@TempDir Path tempDir) throws IOException {
+        List<String> rows = IntStream.range(0, 1000).mapToObj(i -> "key" + i + " %% " + i).collect(Collectors.toList());
+        Path file = tempDir.resolve("rows.csv");
+        Files.write(file, rows);
+        List<SplitPartitions.PKRows> parts = SplitPartitions.getRowPartsFromFile(7, file.toString());
+        List<String> read = new ArrayList<>();
+        for (SplitPartitions.PKRows part : parts) {
+            read.addAll(readRows(part));
+        }
+        assertAll(
+                () -> assertEquals(7, parts.size()),
+                () -> assertEquals(rows, read)
+        );
+    }
+
+    @Test
+    void getRowPartsFromFile_moreSplitsThanLines(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("rows.csv");
+        Files.write(file, Arrays.asList("a long line", "b"));
+        List<SplitPartitions.PKRows> parts = SplitPartitions.getRowPartsFromFile(10, file.toString());
+        assertAll(
+                () -> assertEquals(2, parts.size()),
+                () -> assertEquals(Collections.singletonList("b"), readRows(parts.get(1))),
+                () -> assertTrue(SplitPartitions.getRowPartsFromFile(10, Files.createFile(tempDir.resolve("empty.csv")).toString()).isEmpty()),
+                () -> assertThrows(RuntimeException.class, () -> SplitPartitions.getRowPartsFromFile(1, tempDir.resolve("missing.csv").toString()))
+        );
+    }
+
+    @Test
+    void getRowPartsFromFile_noTrailingNewLine(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("rows.csv");
+        Files.write(file, "abc".getBytes(StandardCharsets.UTF_8));
+        List<SplitPartitions.PKRows> parts = SplitPartitions.getRowPartsFromFile(5, file.toString());
+        assertAll(
+                () -> assertEquals(1, parts.size()),
+                () -> assertEquals(Collections.singletonList("abc"), readRows(parts.get(0))),
+                () -> assertEquals("Processing rows of file " + file + " from byte 0 to 3", parts.get(0).toString())
+        );
+    }
+
+    @Test
+    void getRowPartsFromFile_compressed(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("rows.csv.gz");
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8)) {
+            writer.write("a\nb\nc\n");
+        }
+        List<SplitPartitions.PKRows> parts = SplitPartitions.getRowPartsFromFile(2, file.toString());
+        assertAll(
+                () -> assertEquals(1, parts.size()),
+                () -> assertEquals(Arrays.asList("a", "b", "c"), readRows(parts.get(0)))
+        );
+    }
+
+    @Test
+    void getRowPartsFromFile_binary(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("keys.bin");
+        PKFile.Writer writer = new PKFile.Writer(file.toString(), new PKFile.Header(Arrays.asList("key"), Arrays.asList("text")), 10);
+        for (int i = 0; i < 100; i++) {
+            writer.add(Collections.singletonList(ByteBuffer.wrap(("key" + i).getBytes(StandardCharsets.UTF_8))));
+        }
+        writer.flush();
+        List<Long> offsets = PKFile.getBlockOffsets(file.toString());
+        List<SplitPartitions.PKRows> parts = SplitPartitions.getRowPartsFromFile(3, file.toString());
+        assertAll(
+                () -> assertEquals(3, parts.size()),
+                () -> assertEquals(offsets.get(0), parts.get(0).getStart()),
+                () -> assertTrue(offsets.contains(parts.get(1).getStart())),
+                () -> assertEquals(parts.get(1).getEnd(), parts.get(2).getStart()),
+                () -> assertEquals(Files.size(file), parts.get(2).getEnd())
+        );
+    }
+
+    private List<String> readRows(SplitPartitions.PKRows part) throws IOException {
+        try (BufferedReader reader = part.getReader()) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void missingFileTest(@TempDir Path tempDir) {
+        assertThrows(RuntimeException.class, () -> SplitPartitions.getSubPartitionsFromFile(1, tempDir.resolve("missing.csv").toString()));
+    }
 }
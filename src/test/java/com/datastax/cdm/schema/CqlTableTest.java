@@ -0,0 +1,149 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.cdm.schema;
+
+import com.datastax.cdm.properties.KnownProperties;
+import com.datastax.cdm.properties.PropertyHelper;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.internal.core.metadata.token.ByteOrderedToken;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.driver.internal.core.metadata.token.RandomToken;
+import com.datastax.oss.driver.internal.core.type.codec.registry.DefaultCodecRegistry;
+import org.apache.spark.SparkConf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CqlTableTest {
+
+    PropertyHelper propertyHelper;
+    CqlSession cqlSession;
+    Metadata metadata;
+    KeyspaceMetadata keyspaceMetadata;
+    TableMetadata tableMetadata;
+
+    ColumnMetadata partKey;
+    ColumnMetadata clusterKey;
+    ColumnMetadata value;
+    ColumnMetadata blob;
+    ColumnMetadata list;
+
+    @BeforeEach
+    public void setup() {
+        SparkConf sc = new SparkConf();
+        sc.set(KnownProperties.ORIGIN_KEYSPACE_TABLE, "ks.tbl");
+        propertyHelper = PropertyHelper.getInstance(sc);
+
+        partKey = column("part_key", DataTypes.TEXT);
+        clusterKey = column("cluster_key", DataTypes.INT);
+        value = column("value", DataTypes.TEXT);
+        blob = column("blob_col", DataTypes.BLOB);
+        list = column("list_col", DataTypes.listOf(DataTypes.TEXT));
+
+        cqlSession = mock(CqlSession.class);
+        metadata = mock(Metadata.class);
+        TokenMap tokenMap = mock(TokenMap.class);
+        keyspaceMetadata = mock(KeyspaceMetadata.class);
+        tableMetadata = mock(TableMetadata.class);
+        DriverContext context = mock(DriverContext.class);
+        when(cqlSession.getMetadata()).thenReturn(metadata);
+        when(cqlSession.getContext()).thenReturn(context);
+        when(context.getCodecRegistry()).thenReturn(new DefaultCodecRegistry("test"));
+        when(metadata.getTokenMap()).thenReturn(Optional.of(tokenMap));
+        when(tokenMap.getPartitionerName()).thenReturn("org.apache.cassandra.dht.Murmur3Partitioner");
+        when(metadata.getKeyspace("ks")).thenReturn(Optional.of(keyspaceMetadata));
+        when(keyspaceMetadata.getTable("tbl")).thenReturn(Optional.of(tableMetadata));
+        Map<ColumnMetadata, ClusteringOrder> clusteringColumns = new LinkedHashMap<>();
+        clusteringColumns.put(clusterKey, ClusteringOrder.ASC);
+        Map<CqlIdentifier, ColumnMetadata> columns = new LinkedHashMap<>();
+        for (ColumnMetadata column : Arrays.asList(partKey, clusterKey, value, blob, list)) {
+            columns.put(column.getName(), column);
+        }
+        when(tableMetadata.getPartitionKey()).thenReturn(Collections.singletonList(partKey));
+        when(tableMetadata.getClusteringColumns()).thenReturn(clusteringColumns);
+        when(tableMetadata.getColumns()).thenReturn(columns);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        PropertyHelper.destroyInstance();
+    }
+
+    private ColumnMetadata column(String name, DataType type) {
+        ColumnMetadata columnMetadata = mock(ColumnMetadata.class);
+        when(columnMetadata.getName()).thenReturn(CqlIdentifier.fromInternal(name));
+        when(columnMetadata.getType()).thenReturn(type);
+        return columnMetadata;
+    }
+
+    @Test
+    public void retainColumns() {
+        CqlTable table = new CqlTable(propertyHelper, true, cqlSession);
+        table.retainColumns(Collections.singletonList("blob_col"));
+        assertAll(
+                () -> assertEquals(Arrays.asList("part_key", "cluster_key", "blob_col"), table.getColumnNames(false)),
+                () -> assertEquals(Arrays.asList(DataTypes.TEXT, DataTypes.INT, DataTypes.BLOB), table.getColumnCqlTypes()),
+                () -> assertEquals(ByteBuffer.class, table.getBindClass(2)),
+                () -> assertEquals(-1, table.indexOf("value")),
+                () -> assertEquals(Collections.singletonList("blob_col"), table.getWritetimeTTLColumns()),
+                () -> assertFalse(table.hasUnfrozenList())
+        );
+    }
+
+    @Test
+    public void retainColumns_afterOtherTableSet() {
+        CqlTable origin = new CqlTable(propertyHelper, true, cqlSession);
+        CqlTable target = new CqlTable(propertyHelper, false, cqlSession);
+        origin.setOtherCqlTable(target);
+        assertAll(
+                () -> assertSame(target, origin.getOtherCqlTable()),
+                () -> assertEquals(4, origin.getCorrespondingIndex(4)),
+                () -> assertEquals(origin.getColumnNames(false).size(), origin.getConversions().size()),
+                () -> assertThrows(IllegalStateException.class, () -> origin.retainColumns(Collections.singletonList("value")))
+        );
+    }
+
+    @Test
+    public void getToken() {
+        CqlTable table = new CqlTable(propertyHelper, true, cqlSession);
+        TokenMap tokenMap = metadata.getTokenMap().get();
+        ByteBuffer key = ByteBuffer.wrap(new byte[]{1});
+        when(tokenMap.newToken(key)).thenReturn(new Murmur3Token(-5), new RandomToken(BigInteger.TEN), new ByteOrderedToken(key));
+        assertAll(
+                () -> assertEquals(BigInteger.valueOf(-5), table.getToken(key)),
+                () -> assertEquals(BigInteger.TEN, table.getToken(key)),
+                () -> assertThrows(RuntimeException.class, () -> table.getToken(key))
+        );
+    }
+}